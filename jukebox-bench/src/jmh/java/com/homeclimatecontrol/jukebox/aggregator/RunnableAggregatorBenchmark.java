@@ -0,0 +1,65 @@
+package com.homeclimatecontrol.jukebox.aggregator;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the time {@link RunnableAggregator} takes to process a batch of trivial tasks, which is mostly the cost of
+ * spinning up and tearing down the thread pool.
+ *
+ * The aggregator works on a copy of the queue, so the queue is only filled once. The tasks run on the aggregator
+ * threads, so they leave their result in a {@link LongAdder}, not in the benchmark thread's {@code Blackhole}.
+ *
+ * @author Copyright &copy; <a href="mailto:vt@homeclimatecontrol.com">Vadim Tkachenko</a> 2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RunnableAggregatorBenchmark {
+
+    @Param({"16", "256"})
+    public int tasks;
+
+    @Param({"1", "4"})
+    public int threads;
+
+    private final RunnableAggregator aggregator = new RunnableAggregator();
+    private final BlockingQueue<Runnable> queue = new LinkedBlockingQueue<>();
+    private final LongAdder sum = new LongAdder();
+
+    @Setup
+    public void setup() {
+
+        for (int count = 0; count < tasks; count++) {
+
+            int value = count;
+
+            queue.add(() -> sum.add(value));
+        }
+    }
+
+    @Benchmark
+    public long process() {
+
+        aggregator.process(threads, queue, null);
+
+        return sum.sum();
+    }
+}
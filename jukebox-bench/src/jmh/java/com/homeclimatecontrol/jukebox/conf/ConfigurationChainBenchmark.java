@@ -0,0 +1,102 @@
+package com.homeclimatecontrol.jukebox.conf;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures miss-heavy lookups on a default chain, the way {@link ConfigurationFactory#createChain(java.net.URL[])}
+ * builds it: a value missing everywhere, a value found only in the furthest default, and the same against the
+ * {@link CompiledConfiguration} of the chain.
+ *
+ * @author Copyright &copy; <a href="mailto:vt@homeclimatecontrol.com">Vadim Tkachenko</a> 2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConfigurationChainBenchmark {
+
+    /**
+     * Number of configurations in the chain.
+     */
+    @Param({ "1", "5" })
+    public int depth;
+
+    private TextConfiguration chain;
+    private CompiledConfiguration compiled;
+
+    @Setup
+    public void setup() {
+
+        TextConfiguration current = null;
+
+        for (int level = 0; level < depth; level++) {
+
+            TextConfiguration next = new TextConfiguration(current);
+
+            // Some noise, so the lookups are not done on empty maps
+
+            for (int key = 0; key < 20; key++) {
+                next.put("level" + level + ".key" + key, Integer.toString(key));
+            }
+
+            if (level == 0) {
+                next.put("deep.int", "42");
+                next.put("deep.string", "value");
+            }
+
+            current = next;
+        }
+
+        chain = current;
+        compiled = new CompiledConfiguration(chain);
+    }
+
+    @Benchmark
+    public int missInteger() {
+        return chain.getInteger("missing.int", 0);
+    }
+
+    @Benchmark
+    public String missString() {
+        return chain.getString("missing.string", null);
+    }
+
+    @Benchmark
+    public boolean missBoolean() {
+        return chain.getBoolean("missing.boolean", false);
+    }
+
+    @Benchmark
+    public int deepInteger() {
+        return chain.getInteger("deep.int", 0);
+    }
+
+    @Benchmark
+    public String deepString() {
+        return chain.getString("deep.string", null);
+    }
+
+    @Benchmark
+    public int compiledMissInteger() {
+        return compiled.getInteger("missing.int", 0);
+    }
+
+    @Benchmark
+    public int compiledDeepInteger() {
+        return compiled.getInteger("deep.int", 0);
+    }
+}
@@ -0,0 +1,77 @@
+package com.homeclimatecontrol.jukebox.conf;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link TextConfiguration} lookups: a value stored locally, and a value found in the default configuration
+ * one level up the chain.
+ *
+ * @author Copyright &copy; <a href="mailto:vt@homeclimatecontrol.com">Vadim Tkachenko</a> 2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConfigurationLookupBenchmark {
+
+    private TextConfiguration conf;
+
+    @Setup
+    public void setup() {
+
+        TextConfiguration defaults = new TextConfiguration();
+
+        defaults.put("default.string", "value");
+        defaults.put("default.int", "42");
+
+        conf = new TextConfiguration(defaults);
+
+        conf.put("local.string", "value");
+        conf.put("local.int", "42");
+        conf.put("local.double", "3.14");
+        conf.put("local.boolean", "true");
+    }
+
+    @Benchmark
+    public String localString() {
+        return conf.getString("local.string");
+    }
+
+    @Benchmark
+    public int localInteger() {
+        return conf.getInteger("local.int");
+    }
+
+    @Benchmark
+    public double localDouble() {
+        return conf.getDouble("local.double");
+    }
+
+    @Benchmark
+    public boolean localBoolean() {
+        return conf.getBoolean("local.boolean");
+    }
+
+    @Benchmark
+    public String defaultString() {
+        return conf.getString("default.string", null);
+    }
+
+    @Benchmark
+    public int defaultInteger() {
+        return conf.getInteger("default.int", 0);
+    }
+}
@@ -0,0 +1,114 @@
+package com.homeclimatecontrol.jukebox.datastream.logger.impl;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.homeclimatecontrol.jukebox.datastream.signal.model.DataSample;
+import com.homeclimatecontrol.jukebox.datastream.signal.model.DataSink;
+import com.homeclimatecontrol.jukebox.datastream.signal.model.DoubleDataSample;
+import com.homeclimatecontrol.jukebox.datastream.signal.model.DoubleDataSamplePool;
+import com.homeclimatecontrol.jukebox.datastream.signal.model.DoubleDataSink;
+
+/**
+ * Compares the allocation rate of the boxed, primitive and pooled primitive broadcast pathways.
+ *
+ * Run with {@code ./gradlew :jukebox-bench:jmh}, the {@code gc} profiler is enabled by the build and reports
+ * {@code gc.alloc.rate.norm} - bytes allocated per broadcast. The pooled pathway is expected to report zero.
+ *
+ * @author Copyright &copy; <a href="mailto:vt@homeclimatecontrol.com">Vadim Tkachenko</a> 2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BroadcastAllocationBenchmark {
+
+    private static final String SOURCE = "benchmark";
+    private static final String SIGNATURE = "0123456789abcdef";
+
+    @Param({"1", "4", "16"})
+    public int sinks;
+
+    private DataBroadcaster<Double> boxed;
+    private DoubleDataBroadcaster primitive;
+    private DoubleDataBroadcaster pooled;
+
+    private double value;
+
+    @Setup
+    public void setup(Blackhole blackhole) {
+
+        boxed = new DataBroadcaster<>(null, 0, null);
+        primitive = new DoubleDataBroadcaster();
+        pooled = new DoubleDataBroadcaster(new DoubleDataSamplePool(64));
+
+        for (int count = 0; count < sinks; count++) {
+
+            boxed.addConsumer(new BoxedSink(blackhole));
+            primitive.addConsumer(new PrimitiveSink(blackhole));
+            pooled.addConsumer(new PrimitiveSink(blackhole));
+        }
+    }
+
+    @Benchmark
+    public void boxed() {
+        boxed.broadcast(new DataSample<>(System.currentTimeMillis(), SOURCE, SIGNATURE, next(), null));
+    }
+
+    @Benchmark
+    public void primitive() {
+        primitive.broadcast(System.currentTimeMillis(), SOURCE, SIGNATURE, next(), null);
+    }
+
+    @Benchmark
+    public void pooled() {
+        pooled.broadcast(System.currentTimeMillis(), SOURCE, SIGNATURE, next(), null);
+    }
+
+    private double next() {
+        value += 0.1;
+        return value;
+    }
+
+    private static class BoxedSink implements DataSink<Double> {
+
+        private final Blackhole blackhole;
+
+        BoxedSink(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Override
+        public void consume(DataSample<Double> signal) {
+            blackhole.consume(signal.sample.doubleValue());
+        }
+    }
+
+    private static class PrimitiveSink implements DoubleDataSink {
+
+        private final Blackhole blackhole;
+
+        PrimitiveSink(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Override
+        public void consume(DoubleDataSample signal) {
+            blackhole.consume(signal.getSample());
+        }
+    }
+}
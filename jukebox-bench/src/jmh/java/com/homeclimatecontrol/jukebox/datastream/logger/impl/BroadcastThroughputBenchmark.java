@@ -0,0 +1,70 @@
+package com.homeclimatecontrol.jukebox.datastream.logger.impl;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.homeclimatecontrol.jukebox.datastream.signal.model.DataSample;
+
+/**
+ * Measures synchronous {@link DataBroadcaster} throughput with N sinks, with and without
+ * {@link DataBroadcaster#setInstrumented(boolean) instrumentation}.
+ *
+ * The samples are created up front, so the score reflects the delivery alone.
+ *
+ * @author Copyright &copy; <a href="mailto:vt@homeclimatecontrol.com">Vadim Tkachenko</a> 2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BroadcastThroughputBenchmark {
+
+    @Param({"1", "4", "16", "64"})
+    public int sinks;
+
+    @Param({"false", "true"})
+    public boolean instrumented;
+
+    private DataBroadcaster<Double> broadcaster;
+    private DataSample<Double>[] samples;
+    private int next;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup(Blackhole blackhole) {
+
+        broadcaster = new DataBroadcaster<>(null, 0, null);
+        broadcaster.setInstrumented(instrumented);
+
+        for (int count = 0; count < sinks; count++) {
+            broadcaster.addConsumer(signal -> blackhole.consume(signal.sample));
+        }
+
+        samples = new DataSample[1024];
+
+        for (int offset = 0; offset < samples.length; offset++) {
+            samples[offset] = new DataSample<>(offset, "benchmark", "sig" + (offset % 16), offset * 0.1, null);
+        }
+    }
+
+    @Benchmark
+    public void broadcast() {
+
+        broadcaster.broadcast(samples[next]);
+        next = (next + 1) & (samples.length - 1);
+    }
+}
@@ -0,0 +1,82 @@
+package com.homeclimatecontrol.jukebox.datastream.logger.impl.trace;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.homeclimatecontrol.jukebox.datastream.signal.model.DoubleDataSample;
+
+/**
+ * Measures {@link TraceLogger} write throughput, spread across a number of signatures (one trace file each).
+ *
+ * The trace files are written to a temporary directory, which is removed when the trial is over.
+ *
+ * @author Copyright &copy; <a href="mailto:vt@homeclimatecontrol.com">Vadim Tkachenko</a> 2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TraceLoggerBenchmark {
+
+    @Param({"1", "16"})
+    public int signatures;
+
+    private File baseDir;
+    private TraceLogger<Double> logger;
+    private DoubleDataSample[] samples;
+    private int next;
+
+    @Setup
+    public void setup() throws IOException, InterruptedException {
+
+        baseDir = Files.createTempDirectory("trace-benchmark").toFile();
+        logger = new TraceLogger<>(baseDir);
+        logger.start().waitFor();
+
+        samples = new DoubleDataSample[1024];
+
+        for (int offset = 0; offset < samples.length; offset++) {
+            samples[offset] = new DoubleDataSample(offset, "benchmark", "sig" + (offset % signatures), offset * 0.1, null);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+
+        logger.stop().waitFor();
+
+        File[] files = baseDir.listFiles();
+
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+
+        baseDir.delete();
+    }
+
+    @Benchmark
+    public void write() {
+
+        logger.consume(samples[next]);
+        next = (next + 1) & (samples.length - 1);
+    }
+}
@@ -0,0 +1,93 @@
+package com.homeclimatecontrol.jukebox.sem;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link EventSemaphore} post and wait cost.
+ *
+ * {@code post} and {@code postWait} stay on a single thread and measure the bookkeeping alone. The {@code pingPong}
+ * group bounces a signal between two threads over a pair of semaphores, so its score is the round trip wakeup latency.
+ * The waits time out after a while, so the group doesn't hang when one side stops at the end of an iteration.
+ *
+ * @author Copyright &copy; <a href="mailto:vt@homeclimatecontrol.com">Vadim Tkachenko</a> 2026
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventSemaphoreBenchmark {
+
+    private static final long TIMEOUT = 100;
+
+    private EventSemaphore single;
+    private EventSemaphore ping;
+    private EventSemaphore pong;
+
+    @Setup
+    public void setup() {
+
+        single = new EventSemaphore("single");
+        ping = new EventSemaphore("ping");
+        pong = new EventSemaphore("pong");
+    }
+
+    @Benchmark
+    @Group("post")
+    public void post() {
+        single.post();
+    }
+
+    @Benchmark
+    @Group("postWait")
+    public boolean postWait() throws InterruptedException {
+
+        single.post();
+        return single.waitFor();
+    }
+
+    @Benchmark
+    @Group("pingPong")
+    @GroupThreads(1)
+    public boolean ping() throws InterruptedException {
+
+        ping.post();
+        return await(pong);
+    }
+
+    @Benchmark
+    @Group("pingPong")
+    @GroupThreads(1)
+    public void pong() throws InterruptedException {
+
+        await(ping);
+        pong.post();
+    }
+
+    private static boolean await(EventSemaphore target) throws InterruptedException {
+
+        try {
+
+            return target.waitFor(TIMEOUT);
+
+        } catch (SemaphoreTimeoutException ex) {
+
+            // The other side is gone, the iteration is over
+            return false;
+        }
+    }
+}
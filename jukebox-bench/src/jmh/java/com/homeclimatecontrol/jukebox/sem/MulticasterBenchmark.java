@@ -0,0 +1,63 @@
+package com.homeclimatecontrol.jukebox.sem;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures {@link Multicaster} listener fan-out, and {@link EventSemaphore#post()} with the same number of listeners
+ * attached, since that's where the multicaster is used the most.
+ *
+ * @author Copyright &copy; <a href="mailto:vt@homeclimatecontrol.com">Vadim Tkachenko</a> 2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MulticasterBenchmark {
+
+    @Param({"1", "8", "64"})
+    public int listeners;
+
+    private Multicaster multicaster;
+    private EventSemaphore semaphore;
+    private final Object status = new Object();
+
+    @Setup
+    public void setup(Blackhole blackhole) {
+
+        multicaster = new Multicaster();
+        semaphore = new EventSemaphore("benchmark");
+
+        for (int count = 0; count < listeners; count++) {
+
+            EventListener listener = (producer, event) -> blackhole.consume(event);
+
+            multicaster.addListener(listener);
+            semaphore.addListener(listener);
+        }
+    }
+
+    @Benchmark
+    public void notifyListeners() {
+        multicaster.notifyListeners(status);
+    }
+
+    @Benchmark
+    public void post() {
+        semaphore.post();
+    }
+}
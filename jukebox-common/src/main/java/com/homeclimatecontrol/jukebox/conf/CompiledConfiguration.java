@@ -0,0 +1,458 @@
+package com.homeclimatecontrol.jukebox.conf;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.StringTokenizer;
+import java.util.TreeMap;
+
+/**
+ * Immutable snapshot of a configuration and its whole default chain, for use in hot paths.
+ *
+ * The chain is flattened at construction time, with the values closer to the source taking precedence over the
+ * defaults, exactly as the {@link TextConfiguration} getters with a default value, such as
+ * {@link TextConfiguration#getInteger(String, int)}, would resolve them. Note that the getters without a default
+ * value resolve the same way here; the ones in {@link TextConfiguration} only look at the local values, and throw a
+ * {@code NoSuchElementException} for a key present only in the defaults. Every value is converted into all the types it
+ * can be converted into right away, so the typed getters are a single hash lookup with no parsing, and a miss in the
+ * getters with a default value is just that - it returns the default without walking the chain or throwing.
+ *
+ * The snapshot doesn't follow the changes made to the source after it has been created; compile a new one if you
+ * need them. Multiple values are held as an unmodifiable copy of the source list. The instance is safe to share between threads.
+ *
+ * @author Copyright &copy; <a href="mailto:vt@homeclimatecontrol.com">Vadim Tkachenko</a> 2026
+ */
+public final class CompiledConfiguration implements Configuration {
+
+    /**
+     * Flattened configuration, key to value.
+     */
+    private final Map<String, Entry> index;
+
+    private final Set<String> keySet;
+
+    private final URL baseURL;
+    private final URL[] urlChain;
+
+    /**
+     * Compile the configuration.
+     *
+     * @param source Configuration to compile, along with its default chain.
+     */
+    public CompiledConfiguration(Configuration source) {
+
+        if (source == null) {
+            throw new IllegalArgumentException("source can't be null");
+        }
+
+        List<Configuration> chain = new ArrayList<>();
+
+        for (Configuration conf = source; conf != null; conf = conf.getDefaultConfiguration()) {
+            chain.add(conf);
+        }
+
+        // Furthest default first, so the closer values override it
+
+        Map<String, Entry> target = new HashMap<>();
+
+        for (int offset = chain.size() - 1; offset >= 0; offset--) {
+
+            Configuration conf = chain.get(offset);
+
+            for (String key : conf.keySet()) {
+                target.put(key, new Entry(key, conf.get(key)));
+            }
+        }
+
+        index = target;
+        keySet = Collections.unmodifiableSet(new TreeMap<>(target).keySet());
+        baseURL = source.getURL();
+        urlChain = source.getUrlChain();
+    }
+
+    /**
+     * @throws UnsupportedOperationException always, the snapshot is immutable.
+     */
+    @Override
+    public void setDefaultConfiguration(Configuration defaultConf) {
+        throw new UnsupportedOperationException("Compiled configuration is immutable");
+    }
+
+    @Override
+    public URL getURL() {
+        return baseURL;
+    }
+
+    @Override
+    public URL[] getUrlChain() {
+        return urlChain == null ? null : urlChain.clone();
+    }
+
+    /**
+     * @return Always {@code null}, the default chain has been flattened into this object.
+     */
+    @Override
+    public Configuration getDefaultConfiguration() {
+        return null;
+    }
+
+    /**
+     * Does nothing, there are no defaults to clear.
+     */
+    @Override
+    public void clearDefaults() {
+        // Nothing to do
+    }
+
+    /**
+     * @throws UnsupportedOperationException always, the snapshot is immutable.
+     */
+    @Override
+    public void put(String key, Object value) {
+        throw new UnsupportedOperationException("Compiled configuration is immutable");
+    }
+
+    @Override
+    public Object get(String key) {
+        return find(key).value;
+    }
+
+    @Override
+    public Object get(String key, Object defaultValue) {
+
+        Entry found = index.get(key);
+
+        return found == null ? defaultValue : found.value;
+    }
+
+    @Override
+    public String getString(String key) {
+        return find(key).getString();
+    }
+
+    @Override
+    public String getString(String key, String defaultValue) {
+
+        Entry found = index.get(key);
+
+        return found == null ? defaultValue : found.getString();
+    }
+
+    @Override
+    public boolean getBoolean(String key) {
+        return find(key).getBoolean();
+    }
+
+    @Override
+    public boolean getBoolean(String key, boolean defaultValue) {
+
+        Entry found = index.get(key);
+
+        return found == null ? defaultValue : found.getBoolean();
+    }
+
+    @Override
+    public int getInteger(String key) {
+        return find(key).getInteger();
+    }
+
+    @Override
+    public int getInteger(String key, int defaultValue) {
+
+        Entry found = index.get(key);
+
+        return found == null ? defaultValue : found.getInteger();
+    }
+
+    @Override
+    public long getLong(String key) {
+        return find(key).getLong();
+    }
+
+    @Override
+    public long getLong(String key, long defaultValue) {
+
+        Entry found = index.get(key);
+
+        return found == null ? defaultValue : found.getLong();
+    }
+
+    @Override
+    public double getDouble(String key) {
+        return find(key).getDouble();
+    }
+
+    @Override
+    public double getDouble(String key, double defaultValue) {
+
+        Entry found = index.get(key);
+
+        return found == null ? defaultValue : found.getDouble();
+    }
+
+    /**
+     * Get the configuration value as a list.
+     *
+     * @param key Keyword to look up.
+     * @return The list of the values found, or an empty list if there were none. The list is not modifiable.
+     */
+    @Override
+    public List<String> getList(String key) {
+
+        Entry found = index.get(key);
+
+        return found == null ? Collections.emptyList() : found.list;
+    }
+
+    /**
+     * Get the configuration value as a list.
+     *
+     * @param key Keyword to look up.
+     * @param defaultValue Value to return if there's no configuration value for the key.
+     * @return The list of the values found, not modifiable, or the default value. Empty list if the default value is
+     * {@code null}.
+     */
+    @Override
+    public List<String> getList(String key, List<String> defaultValue) {
+
+        Entry found = index.get(key);
+
+        if (found != null) {
+            return found.list;
+        }
+
+        return defaultValue == null ? new LinkedList<>() : defaultValue;
+    }
+
+    @Override
+    public Set<String> keySet() {
+        return keySet;
+    }
+
+    private Entry find(String key) {
+
+        Entry found = index.get(key);
+
+        if (found == null) {
+            throw new NoSuchElementException("No configuration value stored for '" + key + "'");
+        }
+
+        return found;
+    }
+
+    @Override
+    public String toString() {
+        return "(Compiled: " + new TreeMap<>(index) + ")";
+    }
+
+    /**
+     * Configuration value in all the forms it can be requested in.
+     *
+     * A value that can't be converted into a type holds on to the reason, and the typed getter throws an
+     * {@code IllegalArgumentException} caused by the exception {@link TextConfiguration} would have thrown.
+     */
+    private static final class Entry {
+
+        final String key;
+        final Object value;
+        final String string;
+        final List<String> list;
+
+        final boolean booleanValue;
+        final int intValue;
+        final long longValue;
+        final double doubleValue;
+
+        final RuntimeException booleanError;
+        final RuntimeException intError;
+        final RuntimeException longError;
+        final RuntimeException doubleError;
+
+        Entry(String key, Object value) {
+
+            this.key = key;
+            this.string = toString(value);
+            this.list = toList(value);
+
+            // The source keeps appending to its own list in place
+            this.value = value instanceof List ? list : value;
+
+            boolean b = false;
+            int i = 0;
+            long l = 0;
+            double d = 0;
+
+            RuntimeException bError = null;
+            RuntimeException iError = null;
+            RuntimeException lError = null;
+            RuntimeException dError = null;
+
+            if (string == null) {
+
+                // VT: NOTE: Same as TextConfiguration, this is rather harsh, but enforces the
+                // configuration correctness
+
+                bError = new IllegalArgumentException("Configuration value found for '" + key + "' is null, can't be parsed");
+                iError = bError;
+                lError = bError;
+                dError = bError;
+
+            } else {
+
+                // These are one time costs, the hot path never sees these exceptions being created
+
+                try {
+                    b = TextConfiguration.parseBoolean(string);
+                } catch (IllegalArgumentException ex) {
+                    bError = ex;
+                }
+
+                try {
+                    i = Integer.parseInt(string);
+                } catch (NumberFormatException ex) {
+                    iError = ex;
+                }
+
+                try {
+                    l = Long.parseLong(string);
+                } catch (NumberFormatException ex) {
+                    lError = ex;
+                }
+
+                try {
+                    d = Double.parseDouble(string);
+                } catch (NumberFormatException ex) {
+                    dError = ex;
+                }
+            }
+
+            booleanValue = b;
+            intValue = i;
+            longValue = l;
+            doubleValue = d;
+
+            booleanError = bError;
+            intError = iError;
+            longError = lError;
+            doubleError = dError;
+        }
+
+        String getString() {
+
+            if (string == null) {
+                throw new IllegalArgumentException("Configuration value found for '" + key + "' is null");
+            }
+
+            return string;
+        }
+
+        boolean getBoolean() {
+
+            if (booleanError != null) {
+                throw rethrow(booleanError);
+            }
+
+            return booleanValue;
+        }
+
+        int getInteger() {
+
+            if (intError != null) {
+                throw rethrow(intError);
+            }
+
+            return intValue;
+        }
+
+        long getLong() {
+
+            if (longError != null) {
+                throw rethrow(longError);
+            }
+
+            return longValue;
+        }
+
+        double getDouble() {
+
+            if (doubleError != null) {
+                throw rethrow(doubleError);
+            }
+
+            return doubleValue;
+        }
+
+        /**
+         * Wrap the stored conversion failure, so the stack trace points to the caller, not to the compilation.
+         */
+        private RuntimeException rethrow(RuntimeException cause) {
+            return new IllegalArgumentException("Can't convert the value of '" + key + "': " + cause.getMessage(), cause);
+        }
+
+        /**
+         * Same conversion as {@code TextConfiguration#getString(String)}.
+         */
+        private static String toString(Object value) {
+
+            if (value == null) {
+                return null;
+            }
+
+            if (!(value instanceof List)) {
+                return value.toString();
+            }
+
+            StringBuilder result = new StringBuilder();
+
+            for (Iterator<?> i = ((List<?>) value).iterator(); i.hasNext();) {
+
+                if (result.length() != 0) {
+                    result.append(",");
+                }
+
+                result.append(i.next());
+            }
+
+            return result.toString();
+        }
+
+        /**
+         * Same conversion as {@code TextConfiguration#getList(String, List)}.
+         */
+        private static List<String> toList(Object value) {
+
+            List<String> result = new ArrayList<>();
+
+            if (value instanceof List) {
+
+                for (Object element : (List<?>) value) {
+                    result.add(String.valueOf(element));
+                }
+
+            } else if (value instanceof String) {
+
+                for (StringTokenizer st = new StringTokenizer((String) value, ",; "); st.hasMoreTokens();) {
+                    result.add(st.nextToken());
+                }
+
+            } else if (value != null) {
+
+                result.add(value.toString());
+            }
+
+            return Collections.unmodifiableList(result);
+        }
+
+        @Override
+        public String toString() {
+            return String.valueOf(value);
+        }
+    }
+}
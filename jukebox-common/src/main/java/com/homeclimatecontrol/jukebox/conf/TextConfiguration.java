@@ -25,6 +25,13 @@ public class TextConfiguration implements Configuration {
      */
     private final Map<String, Object> theConfiguration = new TreeMap<String, Object>();
 
+    /**
+     * Marker returned by {@link #lookup(String)} when the value is not found.
+     * Cheaper than throwing and catching an exception on every miss, and
+     * distinguishable from a {@code null} value.
+     */
+    private static final Object MISSING = new Object();
+
     /**
      * Default configuration, if any. If the value for the requested
      * configuration keyword is not found, the result is sought from the default
@@ -209,19 +216,13 @@ public class TextConfiguration implements Configuration {
      */
     public String getString(String key, String defaultValue) {
 
-        Object found = null;
-
-        try {
+        Object found = lookup(key);
 
-            found = get(key);
+        if (found == MISSING) {
 
-        } catch (ClassCastException ccex) {
+            Configuration tail = getForeignDefault();
 
-            duplicateKeyword(key);
-
-        } catch (NoSuchElementException ex) {
-
-            return (defaultConf != null) ? defaultConf.getString(key, defaultValue) : defaultValue;
+            return (tail != null) ? tail.getString(key, defaultValue) : defaultValue;
         }
 
         if (found == null) {
@@ -340,19 +341,13 @@ public class TextConfiguration implements Configuration {
      */
     public boolean getBoolean(String key, boolean defaultValue) {
 
-        Object found = null;
-
-        try {
+        Object found = lookup(key);
 
-            found = get(key);
+        if (found == MISSING) {
 
-        } catch (ClassCastException ccex) {
+            Configuration tail = getForeignDefault();
 
-            duplicateKeyword(key);
-
-        } catch (NoSuchElementException ex) {
-
-            return (defaultConf != null) ? defaultConf.getBoolean(key, defaultValue) : defaultValue;
+            return (tail != null) ? tail.getBoolean(key, defaultValue) : defaultValue;
         }
 
         if (found == null) {
@@ -377,19 +372,13 @@ public class TextConfiguration implements Configuration {
      */
     public int getInteger(String key, int defaultValue) {
 
-        Object found = null;
-
-        try {
+        Object found = lookup(key);
 
-            found = get(key);
+        if (found == MISSING) {
 
-        } catch (ClassCastException ccex) {
+            Configuration tail = getForeignDefault();
 
-            duplicateKeyword(key);
-
-        } catch (NoSuchElementException ex) {
-
-            return (defaultConf != null) ? defaultConf.getInteger(key, defaultValue) : defaultValue;
+            return (tail != null) ? tail.getInteger(key, defaultValue) : defaultValue;
         }
 
         if (found == null) {
@@ -414,19 +403,13 @@ public class TextConfiguration implements Configuration {
      */
     public long getLong(String key, long defaultValue) {
 
-        Object found = null;
-
-        try {
+        Object found = lookup(key);
 
-            found = get(key);
+        if (found == MISSING) {
 
-        } catch (ClassCastException ccex) {
+            Configuration tail = getForeignDefault();
 
-            duplicateKeyword(key);
-
-        } catch (NoSuchElementException ex) {
-
-            return (defaultConf != null) ? defaultConf.getLong(key, defaultValue) : defaultValue;
+            return (tail != null) ? tail.getLong(key, defaultValue) : defaultValue;
         }
 
         if (found == null) {
@@ -451,19 +434,13 @@ public class TextConfiguration implements Configuration {
      */
     public double getDouble(String key, double defaultValue) {
 
-        Object found = null;
-
-        try {
+        Object found = lookup(key);
 
-            found = get(key);
+        if (found == MISSING) {
 
-        } catch (ClassCastException ccex) {
+            Configuration tail = getForeignDefault();
 
-            duplicateKeyword(key);
-
-        } catch (NoSuchElementException ex) {
-
-            return (defaultConf != null) ? defaultConf.getDouble(key, defaultValue) : defaultValue;
+            return (tail != null) ? tail.getDouble(key, defaultValue) : defaultValue;
         }
 
         if (found == null) {
@@ -654,14 +631,66 @@ public class TextConfiguration implements Configuration {
     @Override
     public Object get(String key, Object defaultValue) {
 
-        try {
-
-            return get(key);
+        Object found = theConfiguration.get(key);
 
-        } catch (NoSuchElementException ex) {
+        if (found == null && !theConfiguration.containsKey(key)) {
 
             return defaultValue;
         }
+
+        return found;
+    }
+
+    /**
+     * Look the value up in this configuration and the default chain, without
+     * throwing exceptions on a miss.
+     *
+     * The chain is walked for as long as it consists of
+     * {@code TextConfiguration} instances; other implementations have to be
+     * asked via their own API, see {@link #getForeignDefault()}.
+     *
+     * @param key Key to look up.
+     * @return The value found, possibly {@code null}, or {@link #MISSING} if
+     * there's none.
+     */
+    private Object lookup(String key) {
+
+        TextConfiguration conf = this;
+
+        while (true) {
+
+            Object found = conf.theConfiguration.get(key);
+
+            if (found != null || conf.theConfiguration.containsKey(key)) {
+
+                return found;
+            }
+
+            if (!(conf.defaultConf instanceof TextConfiguration)) {
+
+                return MISSING;
+            }
+
+            conf = (TextConfiguration) conf.defaultConf;
+        }
+    }
+
+    /**
+     * Find the part of the default chain {@link #lookup(String)} can't walk.
+     *
+     * @return The first default configuration down the chain that is not a
+     * {@code TextConfiguration}, or {@code null} if there's none.
+     */
+    private Configuration getForeignDefault() {
+
+        Configuration conf = defaultConf;
+
+        while (conf instanceof TextConfiguration) {
+
+            conf = ((TextConfiguration) conf).defaultConf;
+        }
+
+        return conf;
     }
 
     @Override
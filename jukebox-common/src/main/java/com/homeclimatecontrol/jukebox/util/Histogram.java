@@ -0,0 +1,213 @@
+package com.homeclimatecontrol.jukebox.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock free log-linear histogram of non-negative {@code long} values, such as durations in nanoseconds.
+ *
+ * Values are counted in buckets. Every power of two range is split into {@code 2^precision} equal buckets, so the
+ * relative error of any value reported back is at most {@code 2^-precision} (about 3% with the default precision of
+ * 5), regardless of the magnitude. Values below {@code 2^precision} are counted exactly. This is the same layout
+ * HdrHistogram uses, minus the bells and whistles.
+ *
+ * {@link #record(long)} takes no locks and doesn't allocate, it is safe to call from any number of threads. The
+ * readers see a consistent enough picture for monitoring purposes, but not an atomic snapshot: a value recorded
+ * concurrently with a read may be counted in one statistic and not yet in another.
+ *
+ * @author Copyright &copy; <a href="mailto:vt@homeclimatecontrol.com">Vadim Tkachenko</a> 2026
+ */
+public class Histogram {
+
+    /**
+     * Default precision, 32 buckets per power of two.
+     */
+    public static final int DEFAULT_PRECISION = 5;
+
+    private final int precision;
+    private final int subBucketCount;
+    private final AtomicLongArray counts;
+
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Create an instance with {@link #DEFAULT_PRECISION default precision}.
+     */
+    public Histogram() {
+        this(DEFAULT_PRECISION);
+    }
+
+    /**
+     * Create an instance.
+     *
+     * @param precision Number of bits of precision, 1 to 10. Every power of two range is split into
+     * {@code 2^precision} buckets.
+     */
+    public Histogram(int precision) {
+
+        if (precision < 1 || precision > 10) {
+            throw new IllegalArgumentException("precision must be within 1..10 (" + precision + " given)");
+        }
+
+        this.precision = precision;
+        this.subBucketCount = 1 << precision;
+
+        // Long.MAX_VALUE has the highest bit at 62, shifted by (62 - precision)
+        counts = new AtomicLongArray((64 - precision) * subBucketCount);
+    }
+
+    /**
+     * Record a value.
+     *
+     * @param value Value to record. Negative values are counted as {@code 0}.
+     */
+    public void record(long value) {
+
+        long v = Math.max(value, 0);
+
+        counts.incrementAndGet(indexOf(v));
+        count.increment();
+        sum.add(v);
+
+        long current = max.get();
+
+        while (v > current && !max.compareAndSet(current, v)) {
+            current = max.get();
+        }
+    }
+
+    private int indexOf(long value) {
+
+        int shift = Math.max(0, 63 - Long.numberOfLeadingZeros(value) - precision);
+
+        return (shift << precision) + (int) (value >>> shift);
+    }
+
+    /**
+     * @return Highest value that falls into the bucket with the given index.
+     */
+    private long highestValueAt(int index) {
+
+        if (index < subBucketCount) {
+            return index;
+        }
+
+        int shift = (index >>> precision) - 1;
+        long mantissa = index - ((long) shift << precision);
+
+        return ((mantissa + 1) << shift) - 1;
+    }
+
+    /**
+     * @return Number of values recorded.
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * @return Largest value recorded, or {@code 0} if none were.
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * @return Average of the values recorded, or {@code 0} if none were.
+     */
+    public double getMean() {
+
+        long total = count.sum();
+
+        return total == 0 ? 0 : (double) sum.sum() / total;
+    }
+
+    /**
+     * Get the value at the given percentile.
+     *
+     * @param percentile Percentile, 0 to 100.
+     * @return Highest value equivalent to the one at the percentile, within the histogram precision, but no higher
+     * than {@link #getMax()}. {@code 0} if nothing was recorded.
+     */
+    public long getValueAtPercentile(double percentile) {
+
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("percentile must be within 0..100 (" + percentile + " given)");
+        }
+
+        long total = 0;
+
+        for (int index = 0; index < counts.length(); index++) {
+            total += counts.get(index);
+        }
+
+        if (total == 0) {
+            return 0;
+        }
+
+        long target = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+        long seen = 0;
+
+        for (int index = 0; index < counts.length(); index++) {
+
+            seen += counts.get(index);
+
+            if (seen >= target) {
+                return Math.min(highestValueAt(index), max.get());
+            }
+        }
+
+        // Values recorded while we were counting
+        return max.get();
+    }
+
+    /**
+     * Forget everything recorded so far.
+     *
+     * Values recorded concurrently with the reset may or may not survive it.
+     */
+    public void reset() {
+
+        for (int index = 0; index < counts.length(); index++) {
+            counts.set(index, 0);
+        }
+
+        count.reset();
+        sum.reset();
+        max.set(0);
+    }
+
+    /**
+     * Get a human readable summary.
+     *
+     * @param divisor Value to divide the recorded values by, for example, {@code 1000} to report nanoseconds as
+     * microseconds.
+     * @return Count, mean, median, 90th, 99th and 99.9th percentiles and the maximum.
+     */
+    public String toString(double divisor) {
+
+        StringBuilder sb = new StringBuilder();
+
+        sb.append("count=").append(getCount());
+        sb.append(" mean=").append(round(getMean() / divisor));
+        sb.append(" p50=").append(round(getValueAtPercentile(50) / divisor));
+        sb.append(" p90=").append(round(getValueAtPercentile(90) / divisor));
+        sb.append(" p99=").append(round(getValueAtPercentile(99) / divisor));
+        sb.append(" p999=").append(round(getValueAtPercentile(99.9) / divisor));
+        sb.append(" max=").append(round(getMax() / divisor));
+
+        return sb.toString();
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000d;
+    }
+
+    @Override
+    public String toString() {
+        return toString(1);
+    }
+}
@@ -0,0 +1,128 @@
+package com.homeclimatecontrol.jukebox.util;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Thread safe millisecond resolution timestamp formatter.
+ *
+ * Timestamps are rendered as {@code <seconds pattern>.SSS<suffix pattern>}. The parts on both sides of the
+ * milliseconds only change once a second, so they are rendered by {@link DateTimeFormatter} once and cached; for
+ * consecutive timestamps within the same second only the milliseconds are rendered, and nothing is allocated if
+ * {@link #formatTo(long, StringBuilder)} is used.
+ *
+ * @author Copyright &copy; <a href="mailto:vt@homeclimatecontrol.com">Vadim Tkachenko</a> 2026
+ */
+public final class TimestampFormatter {
+
+    /**
+     * {@code yyyy-MM-dd'T'HH:mm:ss.SSS} in the default time zone.
+     */
+    public static final TimestampFormatter LOCAL = new TimestampFormatter("yyyy-MM-dd'T'HH:mm:ss", null, ZoneId.systemDefault());
+
+    /**
+     * {@code yyyy-MM-dd'T'HH:mm:ss.SSSZ} in the default time zone.
+     */
+    public static final TimestampFormatter LOCAL_OFFSET = new TimestampFormatter("yyyy-MM-dd'T'HH:mm:ss", "Z", ZoneId.systemDefault());
+
+    /**
+     * Rendered parts for a single second. Immutable, replaced as a whole.
+     */
+    private static final class Second {
+
+        final long second;
+        final String prefix;
+        final String suffix;
+
+        Second(long second, String prefix, String suffix) {
+
+            this.second = second;
+            this.prefix = prefix;
+            this.suffix = suffix;
+        }
+    }
+
+    private final DateTimeFormatter prefixFormat;
+    private final DateTimeFormatter suffixFormat;
+
+    /**
+     * Last rendered second. Different threads may format different seconds, the worst that can happen then is
+     * extra rendering.
+     */
+    private volatile Second cache = new Second(Long.MIN_VALUE, null, null);
+
+    /**
+     * Create an instance.
+     *
+     * @param secondsPattern {@link DateTimeFormatter} pattern to render the part before the milliseconds.
+     * @param suffixPattern {@link DateTimeFormatter} pattern to render the part after the milliseconds, usually
+     * the time zone. {@code null} if none.
+     * @param zone Time zone to render the timestamps in.
+     */
+    public TimestampFormatter(String secondsPattern, String suffixPattern, ZoneId zone) {
+
+        if (secondsPattern == null) {
+            throw new IllegalArgumentException("secondsPattern can't be null");
+        }
+
+        if (zone == null) {
+            throw new IllegalArgumentException("zone can't be null");
+        }
+
+        prefixFormat = DateTimeFormatter.ofPattern(secondsPattern).withZone(zone);
+        suffixFormat = suffixPattern == null ? null : DateTimeFormatter.ofPattern(suffixPattern).withZone(zone);
+    }
+
+    /**
+     * Render the timestamp.
+     *
+     * @param millis Milliseconds since the epoch.
+     * @return Formatted timestamp.
+     */
+    public String format(long millis) {
+
+        StringBuilder sb = new StringBuilder(32);
+
+        formatTo(millis, sb);
+
+        return sb.toString();
+    }
+
+    /**
+     * Render the timestamp.
+     *
+     * @param millis Milliseconds since the epoch.
+     * @param target Buffer to append the formatted timestamp to.
+     */
+    public void formatTo(long millis, StringBuilder target) {
+
+        long second = Math.floorDiv(millis, 1000);
+        int fraction = Math.floorMod(millis, 1000);
+        Second current = cache;
+
+        if (current.second != second) {
+
+            Instant instant = Instant.ofEpochSecond(second);
+
+            current = new Second(
+                    second,
+                    prefixFormat.format(instant),
+                    suffixFormat == null ? "" : suffixFormat.format(instant));
+
+            cache = current;
+        }
+
+        target.append(current.prefix).append('.');
+
+        if (fraction < 100) {
+            target.append('0');
+        }
+
+        if (fraction < 10) {
+            target.append('0');
+        }
+
+        target.append(fraction).append(current.suffix);
+    }
+}
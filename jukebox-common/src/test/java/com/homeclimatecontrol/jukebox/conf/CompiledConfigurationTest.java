@@ -0,0 +1,135 @@
+package com.homeclimatecontrol.jukebox.conf;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * @author Copyright &copy; <a href="mailto:vt@homeclimatecontrol.com">Vadim Tkachenko</a> 2026
+ */
+class CompiledConfigurationTest {
+
+    private Configuration createChain() {
+
+        TextConfiguration furthest = new TextConfiguration();
+
+        furthest.put("int", "1");
+        furthest.put("furthest", "yes");
+
+        TextConfiguration middle = new TextConfiguration(furthest);
+
+        middle.put("int", "2");
+        middle.put("double", "2.5");
+
+        TextConfiguration top = new TextConfiguration(middle);
+
+        top.put("int", "3");
+        top.put("string", "value");
+        top.put("list", "a, b, c");
+
+        return top;
+    }
+
+    @Test
+    void testPrecedence() {
+
+        Configuration source = createChain();
+        CompiledConfiguration conf = new CompiledConfiguration(source);
+
+        assertThat(conf.getInteger("int")).isEqualTo(3);
+        assertThat(conf.getLong("int")).isEqualTo(3L);
+        assertThat(conf.getDouble("double")).isEqualTo(2.5);
+        assertThat(conf.getBoolean("furthest")).isTrue();
+        assertThat(conf.getString("string")).isEqualTo("value");
+        assertThat(conf.getDefaultConfiguration()).isNull();
+        assertThat(conf.keySet()).containsExactly("double", "furthest", "int", "list", "string");
+
+        for (String key : conf.keySet()) {
+            assertThat(conf.getString(key)).isEqualTo(source.getString(key, null));
+            assertThat(conf.getList(key)).isEqualTo(source.getList(key));
+        }
+    }
+
+    @Test
+    void testMiss() {
+
+        CompiledConfiguration conf = new CompiledConfiguration(createChain());
+
+        assertThat(conf.getInteger("missing", 42)).isEqualTo(42);
+        assertThat(conf.getLong("missing", 42L)).isEqualTo(42L);
+        assertThat(conf.getDouble("missing", 4.2)).isEqualTo(4.2);
+        assertThat(conf.getBoolean("missing", true)).isTrue();
+        assertThat(conf.getString("missing", "default")).isEqualTo("default");
+        assertThat(conf.get("missing", null)).isNull();
+        assertThat(conf.getList("missing")).isEmpty();
+
+        try {
+            conf.getInteger("missing");
+            fail("Should've thrown an exception");
+        } catch (NoSuchElementException ex) {
+            assertThat(ex.getMessage()).contains("missing");
+        }
+    }
+
+    @Test
+    void testBadValue() {
+
+        CompiledConfiguration conf = new CompiledConfiguration(createChain());
+
+        try {
+            conf.getInteger("string", 0);
+            fail("Should've thrown an exception");
+        } catch (IllegalArgumentException ex) {
+            assertThat(ex.getCause()).isInstanceOf(NumberFormatException.class);
+        }
+
+        try {
+            conf.getBoolean("int");
+            fail("Should've thrown an exception");
+        } catch (IllegalArgumentException ex) {
+            assertThat(ex.getMessage()).contains("int");
+        }
+    }
+
+    @Test
+    void testSnapshot() {
+
+        TextConfiguration source = new TextConfiguration();
+
+        source.put("key", "before");
+        source.put("list", "a, b");
+
+        CompiledConfiguration conf = new CompiledConfiguration(source);
+
+        source.put("other", "after");
+
+        // These append to the existing values
+        source.put("key", "appended");
+        source.put("list", "c");
+
+        assertThat(conf.getString("other", null)).isNull();
+        assertThat(conf.get("key")).isEqualTo("before");
+        assertThat(conf.getString("key")).isEqualTo("before");
+        assertThat(conf.get("list")).isEqualTo(Arrays.asList("a", "b"));
+        assertThat(conf.getList("list")).containsExactly("a", "b");
+
+        try {
+            ((List<?>) conf.get("list")).clear();
+            fail("Should've thrown an exception");
+        } catch (UnsupportedOperationException ex) {
+            assertThat(conf.getList("list")).containsExactly("a", "b");
+        }
+
+        try {
+            conf.put("key", "after");
+            fail("Should've thrown an exception");
+        } catch (UnsupportedOperationException ex) {
+            assertThat(conf.getString("key")).isEqualTo("before");
+        }
+    }
+}
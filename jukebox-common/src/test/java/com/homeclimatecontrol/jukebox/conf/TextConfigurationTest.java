@@ -0,0 +1,75 @@
+package com.homeclimatecontrol.jukebox.conf;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * @author Copyright &copy; <a href="mailto:vt@homeclimatecontrol.com">Vadim Tkachenko</a> 2026
+ */
+class TextConfigurationTest {
+
+    @Test
+    void testChain() {
+
+        TextConfiguration furthest = new TextConfiguration();
+
+        furthest.put("int", "1");
+        furthest.put("boolean", "on");
+
+        TextConfiguration middle = new TextConfiguration(furthest);
+
+        middle.put("int", "2");
+        middle.put("double", "2.5");
+
+        TextConfiguration top = new TextConfiguration(middle);
+
+        top.put("string", "value");
+
+        assertThat(top.getInteger("int", 0)).isEqualTo(2);
+        assertThat(top.getLong("int", 0)).isEqualTo(2L);
+        assertThat(top.getDouble("double", 0)).isEqualTo(2.5);
+        assertThat(top.getBoolean("boolean", false)).isTrue();
+        assertThat(top.getString("string", null)).isEqualTo("value");
+
+        assertThat(top.getInteger("missing", 42)).isEqualTo(42);
+        assertThat(top.getString("missing", "default")).isEqualTo("default");
+
+        // Local only, as before
+        assertThat(top.get("int", "local")).isEqualTo("local");
+    }
+
+    @Test
+    void testForeignDefault() {
+
+        TextConfiguration furthest = new TextConfiguration();
+
+        furthest.put("int", "1");
+
+        TextConfiguration middle = new TextConfiguration(new CompiledConfiguration(furthest));
+        TextConfiguration top = new TextConfiguration(middle);
+
+        assertThat(top.getInteger("int", 0)).isEqualTo(1);
+        assertThat(top.getInteger("missing", 42)).isEqualTo(42);
+    }
+
+    @Test
+    void testNullValue() {
+
+        TextConfiguration defaults = new TextConfiguration();
+
+        defaults.put("int", "1");
+
+        TextConfiguration conf = new TextConfiguration(defaults);
+
+        conf.put("int", null);
+
+        try {
+            conf.getInteger("int", 0);
+            fail("Should've thrown an exception");
+        } catch (IllegalArgumentException ex) {
+            assertThat(ex.getMessage()).contains("null");
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.homeclimatecontrol.jukebox.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Copyright &copy; <a href="mailto:vt@homeclimatecontrol.com">Vadim Tkachenko</a> 2026
+ */
+class HistogramTest {
+
+    @Test
+    void testEmpty() {
+
+        Histogram histogram = new Histogram();
+
+        assertThat(histogram.getCount()).isZero();
+        assertThat(histogram.getValueAtPercentile(99)).isZero();
+        assertThat(histogram.getMean()).isEqualTo(0d);
+    }
+
+    @Test
+    void testExactBelowPrecision() {
+
+        Histogram histogram = new Histogram(5);
+
+        for (long value = 0; value < 32; value++) {
+            histogram.record(value);
+        }
+
+        assertThat(histogram.getCount()).isEqualTo(32);
+        assertThat(histogram.getValueAtPercentile(50)).isEqualTo(15);
+        assertThat(histogram.getValueAtPercentile(100)).isEqualTo(31);
+        assertThat(histogram.getMax()).isEqualTo(31);
+    }
+
+    @Test
+    void testRelativeError() {
+
+        Histogram histogram = new Histogram(5);
+
+        for (long value = 1; value <= 1_000_000; value++) {
+            histogram.record(value);
+        }
+
+        for (double percentile : new double[] { 10, 50, 90, 99, 99.9 }) {
+
+            double expected = percentile * 10_000;
+            double actual = histogram.getValueAtPercentile(percentile);
+
+            assertThat(Math.abs(actual - expected) / expected).isLessThan(1d / 32);
+        }
+
+        assertThat(histogram.getValueAtPercentile(100)).isEqualTo(1_000_000);
+        assertThat(histogram.getMean()).isEqualTo(500_000.5d);
+    }
+
+    @Test
+    void testExtremes() {
+
+        Histogram histogram = new Histogram(1);
+
+        histogram.record(-5);
+        histogram.record(Long.MAX_VALUE);
+
+        assertThat(histogram.getValueAtPercentile(50)).isZero();
+        assertThat(histogram.getValueAtPercentile(100)).isEqualTo(Long.MAX_VALUE);
+    }
+
+    @Test
+    void testConcurrent() throws InterruptedException {
+
+        Histogram histogram = new Histogram();
+        List<Thread> threads = new ArrayList<>();
+
+        for (int count = 0; count < 4; count++) {
+
+            Thread t = new Thread(() -> {
+                for (int value = 0; value < 100_000; value++) {
+                    histogram.record(value);
+                }
+            });
+
+            threads.add(t);
+            t.start();
+        }
+
+        for (Thread t : threads) {
+            t.join();
+        }
+
+        assertThat(histogram.getCount()).isEqualTo(400_000);
+        assertThat(histogram.getMax()).isEqualTo(99_999);
+
+        histogram.reset();
+
+        assertThat(histogram.getCount()).isZero();
+        assertThat(histogram.getMax()).isZero();
+    }
+}
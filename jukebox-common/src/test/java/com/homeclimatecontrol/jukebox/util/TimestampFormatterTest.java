@@ -0,0 +1,53 @@
+package com.homeclimatecontrol.jukebox.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Copyright &copy; <a href="mailto:vt@homeclimatecontrol.com">Vadim Tkachenko</a> 2026
+ */
+class TimestampFormatterTest {
+
+    private static final ZoneId ZONE = ZoneId.of("America/Los_Angeles");
+
+    @Test
+    void testSameAsDateTimeFormatter() {
+
+        TimestampFormatter formatter = new TimestampFormatter("yyyy-MM-dd'T'HH:mm:ss", "Z", ZONE);
+        DateTimeFormatter reference = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSZ").withZone(ZONE);
+
+        // Walk across a DST change, a few milliseconds at a time
+        long start = Instant.parse("2026-03-08T09:59:58Z").toEpochMilli();
+
+        for (long millis = start; millis < start + 5000; millis += 7) {
+            assertThat(formatter.format(millis)).isEqualTo(reference.format(Instant.ofEpochMilli(millis)));
+        }
+    }
+
+    @Test
+    void testBeforeEpoch() {
+
+        TimestampFormatter formatter = new TimestampFormatter("yyyy-MM-dd HH:mm:ss", null, ZoneId.of("UTC"));
+
+        assertThat(formatter.format(-1)).isEqualTo("1969-12-31 23:59:59.999");
+        assertThat(formatter.format(0)).isEqualTo("1970-01-01 00:00:00.000");
+        assertThat(formatter.format(1)).isEqualTo("1970-01-01 00:00:00.001");
+        assertThat(formatter.format(-1001)).isEqualTo("1969-12-31 23:59:58.999");
+    }
+
+    @Test
+    void testFormatTo() {
+
+        TimestampFormatter formatter = new TimestampFormatter("HH:mm:ss", null, ZoneId.of("UTC"));
+        StringBuilder sb = new StringBuilder("[");
+
+        formatter.formatTo(45_296_078L, sb);
+
+        assertThat(sb.append("]").toString()).isEqualTo("[12:34:56.078]");
+    }
+}
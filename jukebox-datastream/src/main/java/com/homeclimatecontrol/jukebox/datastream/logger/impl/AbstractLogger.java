@@ -1,30 +1,81 @@
 package com.homeclimatecontrol.jukebox.datastream.logger.impl;
 
 import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.Set;
-import java.util.SortedMap;
-import java.util.TreeMap;
-
-import org.apache.logging.log4j.ThreadContext;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import com.homeclimatecontrol.jukebox.datastream.logger.model.DataLogger;
 import com.homeclimatecontrol.jukebox.datastream.signal.model.DataSample;
 import com.homeclimatecontrol.jukebox.datastream.signal.model.DataSource;
+import com.homeclimatecontrol.jukebox.datastream.signal.model.DoubleDataSample;
+import com.homeclimatecontrol.jukebox.datastream.signal.model.DoubleDataSink;
+import com.homeclimatecontrol.jukebox.jmx.JmxAttribute;
 import com.homeclimatecontrol.jukebox.service.PassiveService;
 
 /**
  * Common implementation base for different data loggers.
+ *
+ * All the loggers deal with numbers, and immediately convert them to {@code double} anyway, so internally the samples
+ * are handled as {@link DoubleDataSample primitive samples}. Loggers can be fed {@link DoubleDataSample primitive
+ * samples} directly, bypassing boxing altogether; a {@link DataBroadcaster} does that, converting a boxed sample once
+ * for all the loggers attached to it. Boxed samples fed to the logger directly are converted by the logger itself.
+ *
+ * Samples may arrive from any number of threads. A {@link Channel channel} is registered exactly once per signature, the
+ * first time the signature is seen; after that, finding the channel for the sample is a single lock free lookup.
+ * Channels are created without holding any locks, so if several threads see a new signature at the same time, more
+ * than one channel may be created for it - only one of them is kept, the rest are {@link #closeChannel(Channel)
+ * closed}.
+ *
+ * Logging can be {@link #setInstrumented(boolean) instrumented} at runtime, to find out how much time the logger
+ * takes to handle a sample and which signatures produce error samples.
+ *
  * @param <E> Data type to log.
  *
  * @author Copyright &copy; <a href="mailto:vt@homeclimatecontrol.com">Vadim Tkachenko</a> 2005-2018
  */
-public abstract class AbstractLogger<E extends Number> extends PassiveService implements DataLogger<E> {
+public abstract class AbstractLogger<E extends Number> extends PassiveService implements DataLogger<E>, DoubleDataSink {
+
+  /**
+   * Logging channel state. Subclasses extend it to keep whatever they need to handle the channel at hand.
+   */
+  protected static class Channel {
+
+      /**
+       * Human readable channel name.
+       */
+      public final String name;
+
+      /**
+       * Signal signature identifying this channel.
+       */
+      public final String signature;
+
+      /**
+       * @param name Human readable channel name.
+       * @param signature Signal signature identifying this channel.
+       */
+      public Channel(String name, String signature) {
+
+          this.name = name;
+          this.signature = signature;
+      }
+
+      @Override
+      public String toString() {
+          return "(" + name + "), sig " + signature;
+      }
+  }
 
   /**
-   * Signature to name mapping.
+   * Signature to channel mapping.
    */
-  protected final SortedMap<String, String> signature2name = new TreeMap<String, String>();
+  private final ConcurrentMap<String, Channel> channels = new ConcurrentHashMap<>();
+
+  private final StageStatistics statistics = new StageStatistics();
 
   /**
    * Create an instance listening to given data sources.
@@ -44,40 +95,183 @@ public abstract class AbstractLogger<E extends Number> extends PassiveService im
 
   @Override
   public final void consume(DataSample<E> sample) {
-      
-      ThreadContext.push("consume");
+
+      consume(DoubleDataSample.valueOf(sample));
+  }
+
+  @Override
+  public final void consume(DoubleDataSample sample) {
+
+      Channel channel = channels.get(sample.getSignature());
+
+      if (channel == null) {
+
+          // This means that we haven't heard about this signal before
+
+          try {
+
+              channel = openChannel(sample);
+
+          } catch (Throwable t) { // NOSONAR Consequences have been considered
+
+              // It'll be attempted again next time
+
+              logger.warn("Unable to create a channel for '" + sample.getSourceName() + "' (" + sample.getSignature() + ")", t);
+
+              return;
+          }
+      }
+
+      if (!statistics.isEnabled()) {
+
+          consume(channel, sample);
+          return;
+      }
+
+      statistics.sample(sample.getSignature(), sample.isError());
+
+      long start = System.nanoTime();
 
       try {
 
-          if (isKnownChannel(sample.signature)) {
+          consume(channel, sample);
+          statistics.time.record(System.nanoTime() - start);
 
-              consume(sample.signature, sample);
+      } catch (RuntimeException ex) {
 
-          } else {
+          statistics.failures.increment();
+          throw ex;
+      }
+  }
 
-              // This means that we haven't heard about this signal before
+  /**
+   * {@inheritDoc}
+   *
+   * Unlike {@link #consume(DoubleDataSample)}, a failure to create the channel is reported to the caller, and the
+   * sample is handed over to {@link #deliver(Channel, DoubleDataSample)}.
+   */
+  @Override
+  public final void deliver(DoubleDataSample sample) throws IOException {
 
-              try {
+      Channel channel = channels.get(sample.getSignature());
 
-                  createChannel(sample.sourceName, sample.signature, sample.timestamp);
+      if (channel == null) {
+          channel = openChannel(sample);
+      }
 
-                  logger.info("Created a channel for (" + sample.sourceName + "), sig " + sample.signature);
+      if (!statistics.isEnabled()) {
 
-                  // If we were able to create a channel, we're here
+          deliver(channel, sample);
+          return;
+      }
 
-                  consume(sample.signature, sample);
+      statistics.sample(sample.getSignature(), sample.isError());
 
-              } catch (Throwable t) {
+      long start = System.nanoTime();
 
-                  // This most probably means we weren't able to create the
-                  // channel
+      try {
 
-                  logger.warn("Unable to create a channel for '" + sample.sourceName + "' (" + sample.signature + ")", t);
-              }
-          }
-      } finally {
-          ThreadContext.pop();
+          deliver(channel, sample);
+          statistics.time.record(System.nanoTime() - start);
+
+      } catch (IOException | RuntimeException ex) {
+
+          statistics.failures.increment();
+          throw ex;
+      }
+  }
+
+  /**
+   * @return Number of channels known so far.
+   */
+  @JmxAttribute(description = "Number of channels")
+  public final int getChannelCount() {
+      return channels.size();
+  }
+
+  /**
+   * @return {@code true} if logging is instrumented.
+   */
+  @JmxAttribute(description = "True if logging is instrumented")
+  public final boolean isInstrumented() {
+      return statistics.isEnabled();
+  }
+
+  /**
+   * Switch instrumentation on or off. Switching it on resets the statistics.
+   *
+   * @param instrumented {@code true} to collect the statistics.
+   */
+  public final void setInstrumented(boolean instrumented) {
+      statistics.setEnabled(instrumented);
+  }
+
+  /**
+   * @return Number of samples logged while instrumented.
+   */
+  @JmxAttribute(description = "Number of samples logged while instrumented")
+  public final long getLogged() {
+      return statistics.samples.sum();
+  }
+
+  /**
+   * @return Number of samples that failed to log with an exception while instrumented.
+   */
+  @JmxAttribute(description = "Number of samples failed to log while instrumented")
+  public final long getLogFailures() {
+      return statistics.failures.sum();
+  }
+
+  /**
+   * @return Distribution of the time spent logging a single sample, while instrumented.
+   */
+  @JmxAttribute(description = "Time to log a sample while instrumented, microseconds")
+  public final String getLogTime() {
+      return statistics.getTime();
+  }
+
+  /**
+   * @return Number of error samples logged while instrumented, per signature.
+   */
+  @JmxAttribute(description = "Error samples logged while instrumented, per signature")
+  public final String[] getErrorsBySignature() {
+      return statistics.getErrors();
+  }
+
+  /**
+   * Create the channel for the sample, unless another thread has already done it.
+   *
+   * The channel is created outside of the {@link #channels} map, so other signatures are not held up by what may
+   * be a slow operation, and {@link #createChannel(String, String, long)} is free to look at the other channels.
+   *
+   * @param sample Sample to create the channel for.
+   * @return The channel.
+   * @exception IOException if the channel couldn't be created.
+   */
+  private Channel openChannel(DoubleDataSample sample) throws IOException {
+
+      Channel channel = createChannel(sample.getSourceName(), sample.getSignature(), sample.getTimestamp());
+
+      Channel existing = channels.putIfAbsent(sample.getSignature(), channel);
+
+      if (existing == null) {
+
+          logger.info("Created a channel for " + channel);
+          return channel;
       }
+
+      // Another thread got there first
+
+      try {
+
+          closeChannel(channel);
+
+      } catch (Throwable t) { // NOSONAR Consequences have been considered
+
+          logger.warn("Unable to close a redundant channel " + channel, t);
+      }
+
+      return existing;
   }
 
   /**
@@ -88,7 +282,26 @@ public abstract class AbstractLogger<E extends Number> extends PassiveService im
    */
   protected final boolean isKnownChannel(String signature) {
 
-    return signature2name.containsKey(signature);
+    return channels.containsKey(signature);
+  }
+
+  /**
+   * Get a known channel.
+   *
+   * @param signature Channel signature.
+   * @return The channel, or {@code null} if it is not known.
+   */
+  protected final Channel getChannel(String signature) {
+
+    return channels.get(signature);
+  }
+
+  /**
+   * @return Read only view of the channels known so far.
+   */
+  protected final Collection<Channel> getChannels() {
+
+    return Collections.unmodifiableCollection(channels.values());
   }
 
   /**
@@ -99,20 +312,60 @@ public abstract class AbstractLogger<E extends Number> extends PassiveService im
    * means that this channel wasn't yet encountered since the logger was
    * started. A check for existence <strong>must</strong> be performed.
    *
+   * This method may be called concurrently, including for the same
+   * signature, in which case only one of the channels created will be
+   * used, and the rest will be passed to {@link #closeChannel(Channel)}.
+   * It must not call {@link #consume(DoubleDataSample)}.
+   *
    * @param name Human readable name for this channel.
    * @param signature Signal signature that will be used to identify this
    * channel.
    * @param timestamp Timestamp of the data sample encountered.
+   * @return Channel state to be passed to {@link #consume(Channel, DoubleDataSample)}.
    * @exception IOException if there was an I/O problem during channel
    * creation.
    */
-  protected abstract void createChannel(String name, String signature, long timestamp) throws IOException;
+  protected abstract Channel createChannel(String name, String signature, long timestamp) throws IOException;
+
+  /**
+   * Release the resources held by a channel that has lost the race to be
+   * registered. The channel has never been passed to
+   * {@link #consume(Channel, DoubleDataSample)}.
+   *
+   * Does nothing by default.
+   *
+   * @param channel Channel as returned by {@link #createChannel(String, String, long)}.
+   * @exception IOException if there was an I/O problem closing the channel.
+   */
+  protected void closeChannel(Channel channel) throws IOException {
+
+    // Nothing to release by default
+  }
 
   /**
    * Register a signal on a known channel.
    *
-   * @param signature Signal signature.
+   * This method may be called concurrently, including for the same channel.
+   *
+   * @param channel Channel as returned by {@link #createChannel(String, String, long)}.
    * @param value Signal sample value.
    */
-  protected abstract void consume(String signature, DataSample<E> value);
+  protected abstract void consume(Channel channel, DoubleDataSample value);
+
+  /**
+   * Register a signal on a known channel, and report the failure to do so.
+   *
+   * This method may be called concurrently, including for the same channel.
+   * The default implementation is {@link #consume(Channel, DoubleDataSample)},
+   * which is only good enough for loggers that don't swallow failures there.
+   *
+   * @param channel Channel as returned by {@link #createChannel(String, String, long)}.
+   * @param value Signal sample value.
+   * @exception IOException if the sample couldn't be logged this time.
+   * @see DataLogger#deliver(DoubleDataSample)
+   */
+  protected void deliver(Channel channel, DoubleDataSample value) throws IOException {
+
+    consume(channel, value);
+  }
 }
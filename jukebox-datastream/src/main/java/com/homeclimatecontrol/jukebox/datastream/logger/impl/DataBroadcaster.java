@@ -1,52 +1,318 @@
 package com.homeclimatecontrol.jukebox.datastream.logger.impl;
 
-import java.util.HashSet;
-import java.util.Iterator;
-import java.util.Set;
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.logging.log4j.ThreadContext;
 
 import com.homeclimatecontrol.jukebox.datastream.signal.model.DataSample;
 import com.homeclimatecontrol.jukebox.datastream.signal.model.DataSink;
 import com.homeclimatecontrol.jukebox.datastream.signal.model.DataSource;
+import com.homeclimatecontrol.jukebox.datastream.signal.model.DoubleDataSample;
+import com.homeclimatecontrol.jukebox.datastream.signal.model.DoubleDataSink;
+import com.homeclimatecontrol.jukebox.jmx.JmxAttribute;
+import com.homeclimatecontrol.jukebox.jmx.JmxAware;
+import com.homeclimatecontrol.jukebox.jmx.JmxDescriptor;
 import com.homeclimatecontrol.jukebox.logger.LogAware;
-import com.homeclimatecontrol.jukebox.util.CollectionSynchronizer;
 
 /**
  * A data source. An entity capable of producing a {@link DataSample data sample}.
  *
+ * The samples are delivered either synchronously, on the thread calling {@link #broadcast(DataSample)}, or
+ * asynchronously, via {@link SinkQueue bounded per-sink queues} drained by an {@link Executor}. In asynchronous mode,
+ * every sink receives samples in the order they were broadcast (FIFO), and a slow sink affects nobody but itself.
+ * Queue depth and end to end delivery latency for every sink are available via JMX.
+ *
+ * {@link AbstractLogger Loggers} are fed the {@link DoubleDataSample primitive form} of numeric samples instead, since
+ * that's what they convert the boxed samples into anyway. The conversion is done once per broadcast, and the result is
+ * shared by all the loggers. Other {@link DoubleDataSink primitive sinks} are fed the boxed samples, because they are
+ * free to handle the two forms differently.
+ *
+ * Delivery can also be {@link #setInstrumented(boolean) instrumented} at runtime, to find out how much time the sinks
+ * take to consume the samples, how often they fail, and which signatures produce error samples.
+ *
  * @param <E> Data type to handle.
  * @author Copyright &copy; <a href="mailto:vt@homeclimatecontrol.com">Vadim Tkachenko</a> 2009-2018
  */
-public class DataBroadcaster<E> extends LogAware implements DataSource<E> {
+public class DataBroadcaster<E> extends LogAware implements DataSource<E>, JmxAware {
+
+    static final String INVOCATION_ERROR = "Consumer invocation resulted in exception, there's nothing we can do to fix it";
+
+    /**
+     * Default per-sink queue capacity for asynchronous mode.
+     */
+    public static final int DEFAULT_QUEUE_CAPACITY = 256;
 
-    private static String invocationError = "Consumer invocation resulted in exception, there's nothing we can do to fix it";
+    /**
+     * Executor shared by all broadcasters created with {@link #DataBroadcaster() the default constructor} in
+     * asynchronous mode. Created on first use.
+     */
+    private static ExecutorService defaultExecutor;
 
-    private final Set<DataSink<E>> consumerSet = new HashSet<DataSink<E>>();
-    private final boolean async;
-    
+    /**
+     * Consumers to deliver the samples to, or {@link SinkQueue queues} wrapping them in asynchronous mode.
+     *
+     * The array is never modified, it is replaced with a new copy by {@link #addConsumer(DataSink)} and
+     * {@link #removeConsumer(DataSink)} instead, so {@link #broadcast(DataSample)} can iterate over it without locking.
+     */
+    private volatile DataSink<E>[] consumers = newArray(0);
+
+    /**
+     * Executor to deliver the samples on. {@code null} means synchronous delivery.
+     */
+    private final Executor executor;
+
+    private final int queueCapacity;
+    private final OverflowPolicy overflowPolicy;
+
+    private final StageStatistics statistics = new StageStatistics();
+
+    /**
+     * Create an instance.
+     *
+     * If the {@code ${class.name}.async} system property is set, the instance will deliver samples asynchronously
+     * via {@link #getDefaultExecutor() the default executor}, with {@link #DEFAULT_QUEUE_CAPACITY default} queue capacity
+     * and {@link OverflowPolicy#DROP_OLDEST} overflow policy. Otherwise, the delivery will be synchronous.
+     */
     public DataBroadcaster() {
-        
+
         // Hunting down the deadlock
         String property = System.getProperty(getClass().getName()+ ".async");
-        
+
         logger.info("Async: '" + property + "'");
-        async = property != null;    
+
+        executor = property == null ? null : getDefaultExecutor();
+        queueCapacity = DEFAULT_QUEUE_CAPACITY;
+        overflowPolicy = OverflowPolicy.DROP_OLDEST;
+    }
+
+    /**
+     * Create an instance delivering samples asynchronously.
+     *
+     * @param executor Executor to deliver the samples on. Every sink is drained by at most one executor thread at a
+     * time, so the sinks don't need to be thread safe with respect to this broadcaster. {@code null} means synchronous
+     * delivery, the rest of the arguments are ignored then.
+     * @param queueCapacity Maximum number of samples queued for any single sink.
+     * @param overflowPolicy What to do when the queue for a sink is full.
+     */
+    public DataBroadcaster(Executor executor, int queueCapacity, OverflowPolicy overflowPolicy) {
+
+        if (executor != null) {
+
+            if (queueCapacity < 1) {
+                throw new IllegalArgumentException("Unreasonable queueCapacity (" + queueCapacity + ')');
+            }
+
+            if (overflowPolicy == null) {
+                throw new IllegalArgumentException("overflowPolicy can't be null");
+            }
+        }
+
+        this.executor = executor;
+        this.queueCapacity = queueCapacity;
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    /**
+     * Get the executor used by default for asynchronous delivery.
+     *
+     * This is a fixed pool of daemon threads, sized by the number of available processors. Since each sink is drained
+     * by at most one thread at a time, the number of tasks waiting for the pool never exceeds the number of sinks.
+     *
+     * @return The shared executor.
+     */
+    public static synchronized ExecutorService getDefaultExecutor() {
+
+        if (defaultExecutor == null) {
+
+            int threadCount = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+            defaultExecutor = Executors.newFixedThreadPool(threadCount, new ThreadFactory() {
+
+                private final AtomicInteger counter = new AtomicInteger();
+
+                @Override
+                public Thread newThread(Runnable r) {
+
+                    Thread t = new Thread(r, "DataBroadcaster-" + counter.incrementAndGet());
+
+                    t.setDaemon(true);
+                    return t;
+                }
+            });
+        }
+
+        return defaultExecutor;
+    }
+
+    /**
+     * @return {@code true} if the samples are delivered asynchronously.
+     */
+    @JmxAttribute(description = "True if the samples are delivered asynchronously")
+    public final boolean isAsync() {
+        return executor != null;
+    }
+
+    /**
+     * @return Number of consumers currently attached.
+     */
+    @JmxAttribute(description = "Number of consumers")
+    public final int getConsumerCount() {
+        return consumers.length;
+    }
+
+    /**
+     * @return Total number of samples waiting for delivery, across all consumers. Always {@code 0} in synchronous mode.
+     */
+    @JmxAttribute(description = "Number of samples waiting for delivery, all consumers")
+    public final int getQueueDepth() {
+
+        DataSink<E>[] snapshot = consumers;
+        int result = 0;
+
+        for (int offset = 0; offset < snapshot.length; offset++) {
+
+            if (snapshot[offset] instanceof SinkQueue<?>) {
+                result += ((SinkQueue<?>) snapshot[offset]).getDepth();
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * @return Total number of samples dropped or coalesced, across all consumers. Always {@code 0} in synchronous mode.
+     */
+    @JmxAttribute(description = "Number of samples dropped or coalesced, all consumers")
+    public final long getDropped() {
+
+        DataSink<E>[] snapshot = consumers;
+        long result = 0;
+
+        for (int offset = 0; offset < snapshot.length; offset++) {
+
+            if (snapshot[offset] instanceof SinkQueue<?>) {
+                result += ((SinkQueue<?>) snapshot[offset]).getDropped();
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * @return Maximum end to end latency across all consumers, in milliseconds. Always {@code 0} in synchronous mode.
+     */
+    @JmxAttribute(description = "Maximum time from broadcast to consume completion, all consumers, milliseconds")
+    public final double getLatencyMaxMillis() {
+
+        DataSink<E>[] snapshot = consumers;
+        long result = 0;
+
+        for (int offset = 0; offset < snapshot.length; offset++) {
+
+            if (snapshot[offset] instanceof SinkQueue<?>) {
+                result = Math.max(result, ((SinkQueue<?>) snapshot[offset]).getLatencyMax());
+            }
+        }
+
+        return result / 1_000_000d;
+    }
+
+    /**
+     * @return Per-consumer queue depth, delivery and latency statistics, one line per consumer. In synchronous mode,
+     * only the consumers themselves are listed.
+     */
+    @JmxAttribute(description = "Per-consumer queue depth and latency")
+    public final String[] getConsumerStatus() {
+
+        DataSink<E>[] snapshot = consumers;
+        String[] result = new String[snapshot.length];
+
+        for (int offset = 0; offset < snapshot.length; offset++) {
+            result[offset] = snapshot[offset].toString();
+        }
+
+        return result;
+    }
+
+    /**
+     * @return {@code true} if the delivery is instrumented.
+     */
+    @JmxAttribute(description = "True if the delivery is instrumented")
+    public final boolean isInstrumented() {
+        return statistics.isEnabled();
+    }
+
+    /**
+     * Switch instrumentation on or off. Switching it on resets the statistics.
+     *
+     * @param instrumented {@code true} to collect the statistics.
+     */
+    public final void setInstrumented(boolean instrumented) {
+        statistics.setEnabled(instrumented);
+    }
+
+    /**
+     * @return Number of samples broadcast while instrumented.
+     */
+    @JmxAttribute(description = "Number of samples broadcast while instrumented")
+    public final long getBroadcasts() {
+        return statistics.samples.sum();
+    }
+
+    /**
+     * @return Number of times a consumer has thrown an exception while instrumented.
+     */
+    @JmxAttribute(description = "Number of consumer failures while instrumented")
+    public final long getSinkFailures() {
+        return statistics.failures.sum();
+    }
+
+    /**
+     * @return Distribution of the time a single consumer spends consuming a single sample, while instrumented.
+     */
+    @JmxAttribute(description = "Time in consumer per sample while instrumented, microseconds")
+    public final String getSinkTime() {
+        return statistics.getTime();
+    }
+
+    /**
+     * @return Number of error samples broadcast while instrumented, per signature.
+     */
+    @JmxAttribute(description = "Error samples broadcast while instrumented, per signature")
+    public final String[] getErrorsBySignature() {
+        return statistics.getErrors();
+    }
+
+    @Override
+    public JmxDescriptor getJmxDescriptor() {
+        return new JmxDescriptor("jukebox", getClass().getSimpleName(), Integer.toHexString(hashCode()), "Data broadcaster");
     }
-    
+
     public synchronized void addConsumer(DataSink<E> consumer) {
 
         ThreadContext.push("addConsumer");
 
         try {
-            
-            // Reason for the synchronized scope (and not method) is the collection synchronizer
-            synchronized (consumerSet) {
-            
-                consumerSet.add(consumer);
-                logger.debug("Added: " + consumer);
+
+            if (indexOf(consumer) != -1) {
+                return;
             }
-            
+
+            DataSink<E>[] next = Arrays.copyOf(consumers, consumers.length + 1);
+
+            next[consumers.length] = executor == null
+                    ? consumer
+                    : new SinkQueue<E>(consumer, executor, queueCapacity, overflowPolicy, logger, statistics);
+
+            consumers = next;
+
+            logger.debug("Added: " + consumer);
+
         } finally {
             ThreadContext.pop();
         }
@@ -57,86 +323,186 @@ public class DataBroadcaster<E> extends LogAware implements DataSource<E> {
         ThreadContext.push("removeConsumer");
         
         try {
-            
-            // Reason for the synchronized scope (and not method) is the collection synchronizer
-            synchronized (consumerSet) {
-            
-                consumerSet.remove(consumer);
-                logger.debug("Removed: " + consumer);
+
+            int index = indexOf(consumer);
+
+            if (index == -1) {
+                return;
+            }
+
+            DataSink<E> target = consumers[index];
+            DataSink<E>[] next = newArray(consumers.length - 1);
+
+            System.arraycopy(consumers, 0, next, 0, index);
+            System.arraycopy(consumers, index + 1, next, index, consumers.length - index - 1);
+
+            consumers = next;
+
+            if (target instanceof SinkQueue<?>) {
+                ((SinkQueue<E>) target).close();
             }
-            
+
+            logger.debug("Removed: " + consumer);
+
         } finally {
             ThreadContext.pop();
         }
     }
-    
+
+    @SuppressWarnings("unchecked")
+    private static <E> DataSink<E>[] newArray(int size) {
+        return (DataSink<E>[]) new DataSink<?>[size];
+    }
+
+    /**
+     * Find the consumer in {@link #consumers}.
+     *
+     * @param consumer Consumer to look for.
+     * @return Index of the consumer, or of the queue wrapping it, or {@code -1} if it is not there.
+     */
+    private int indexOf(DataSink<E> consumer) {
+
+        for (int offset = 0; offset < consumers.length; offset++) {
+
+            DataSink<E> target = consumers[offset];
+
+            if (target instanceof SinkQueue<?>) {
+                target = ((SinkQueue<E>) target).getSink();
+            }
+
+            if (target.equals(consumer)) {
+                return offset;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Deliver the signal to all consumers.
+     *
+     * This method doesn't take any locks and doesn't allocate any memory unless there are {@link AbstractLogger
+     * loggers} to convert the sample for (once per broadcast, no matter how many), trace logging is
+     * enabled, or a signature produces an error sample for the first time while {@link #isInstrumented()
+     * instrumented}. Deliveries
+     * to every sink are recorded as {@link SinkDeliveryEvent Flight Recorder events}; the event objects never escape
+     * unless committed, so the JIT can eliminate them when not recording.
+     *
+     * @param signal Signal to deliver.
+     */
     public void broadcast(final DataSample<E> signal) {
-        
-        // Need the hash code to uniquely identify the broadcast invocation in the log
-        ThreadContext.push("broadcast#" + Integer.toHexString(signal.hashCode()));
 
-        try {
-            
+        // Computing the context is not free, and it only matters when we trace
+        boolean trace = logger.isTraceEnabled();
+
+        if (trace) {
+
+            // Need the hash code to uniquely identify the broadcast invocation in the log
+            ThreadContext.push("broadcast#" + Integer.toHexString(signal.hashCode()));
             logger.trace(signal);
-            
-            Set<DataSink<E>> copy = new CollectionSynchronizer<DataSink<E>>().copy(consumerSet);
-
-            for (Iterator<DataSink<E>> i = copy.iterator(); i.hasNext();) {
-                
-                final DataSink<E> dataSink = i.next();
-                
-                if (async) { 
-
-                    Runnable agent = new Runnable() {
-
-                        @Override
-                        public void run() {
-                            
-                            ThreadContext.push("execute");
-                            
-                            try {
-
-                                // dataSink.toString() may be expensive
-                                if (logger.isTraceEnabled()) {
-                                    logger.trace("Feeding: " + dataSink);
-                                }
-                                
-                                dataSink.consume(signal);
-
-                            } catch (Throwable t) {
-
-                                logger.warn(invocationError, t);
-
-                            } finally {
-                                ThreadContext.pop();
-                            }
-                        }
-                    };
-
-                    // VT: FIXME: https://github.com/climategadgets/jukebox/issues/1
-
-                    new Thread(agent).start();
-
-                } else {
-                    
-                    try {
-                        
-                        // dataSink.toString() may be expensive
-                        if (logger.isTraceEnabled()) {
-                            logger.trace("Feeding: " + dataSink);
-                        }
-                        
+        }
+
+        boolean instrumented = statistics.isEnabled();
+
+        if (instrumented) {
+            statistics.sample(signal.signature, signal.isError());
+        }
+
+        // Converted at most once, on the first logger, and shared by the rest
+        DoubleDataSample primitive = null;
+        boolean converted = false;
+
+        try {
+
+            DataSink<E>[] snapshot = consumers;
+
+            for (int offset = 0; offset < snapshot.length; offset++) {
+
+                DataSink<E> dataSink = snapshot[offset];
+                boolean wantsPrimitive = dataSink instanceof SinkQueue<?>
+                        ? ((SinkQueue<E>) dataSink).isPrimitive()
+                        : asPrimitive(dataSink) != null;
+
+                if (wantsPrimitive && !converted) {
+                    primitive = toPrimitive(signal);
+                    converted = true;
+                }
+
+                if (dataSink instanceof SinkQueue<?>) {
+
+                    // Queue takes care of the rest
+                    ((SinkQueue<E>) dataSink).offer(signal, wantsPrimitive ? primitive : null);
+                    continue;
+                }
+
+                try {
+
+                    // dataSink.toString() may be expensive
+                    if (trace) {
+                        logger.trace("Feeding: " + dataSink);
+                    }
+
+                    SinkDeliveryEvent event = new SinkDeliveryEvent();
+                    long start = instrumented ? System.nanoTime() : 0;
+
+                    event.begin();
+
+                    if (wantsPrimitive && primitive != null) {
+                        ((DoubleDataSink) dataSink).consume(primitive);
+                    } else {
                         dataSink.consume(signal);
-                        
-                    } catch (Throwable t) {
-                        logger.warn(invocationError, t);
                     }
+
+                    event.finish(dataSink, signal.signature);
+
+                    if (instrumented) {
+                        statistics.time.record(System.nanoTime() - start);
+                    }
+
+                } catch (Throwable t) { // NOSONAR Consequences have been considered
+
+                    if (instrumented) {
+                        statistics.failures.increment();
+                    }
+
+                    logger.warn(INVOCATION_ERROR, t);
                 }
             }
-            
+
         } finally {
-            
-            ThreadContext.pop();
+
+            if (trace) {
+                ThreadContext.pop();
+            }
         }
     }
+
+    /**
+     * Find out whether the sink is better fed the primitive form of the samples.
+     *
+     * @param sink Sink to check.
+     * @return The sink, if it is a {@link AbstractLogger logger}, {@code null} otherwise. Loggers convert boxed samples
+     * into the primitive form and handle them exactly the same way, other {@link DoubleDataSink primitive sinks} may
+     * not.
+     */
+    static DoubleDataSink asPrimitive(DataSink<?> sink) {
+        return sink instanceof AbstractLogger<?> ? (DoubleDataSink) sink : null;
+    }
+
+    /**
+     * Convert the sample into the primitive form.
+     *
+     * @param signal Sample to convert.
+     * @return Primitive sample, or {@code null} if the sample is not a number.
+     */
+    private static DoubleDataSample toPrimitive(DataSample<?> signal) {
+
+        if (signal.sample != null && !(signal.sample instanceof Number)) {
+            return null;
+        }
+
+        double value = signal.sample == null ? Double.NaN : ((Number) signal.sample).doubleValue();
+
+        return new DoubleDataSample(signal.timestamp, signal.sourceName, signal.signature, value, signal.error);
+    }
 }
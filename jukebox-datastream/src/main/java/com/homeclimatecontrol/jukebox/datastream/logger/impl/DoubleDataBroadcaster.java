@@ -0,0 +1,166 @@
+package com.homeclimatecontrol.jukebox.datastream.logger.impl;
+
+import java.util.Arrays;
+
+import org.apache.logging.log4j.ThreadContext;
+
+import com.homeclimatecontrol.jukebox.datastream.signal.model.DoubleDataSample;
+import com.homeclimatecontrol.jukebox.datastream.signal.model.DoubleDataSamplePool;
+import com.homeclimatecontrol.jukebox.datastream.signal.model.DoubleDataSink;
+import com.homeclimatecontrol.jukebox.datastream.signal.model.DoubleDataSource;
+import com.homeclimatecontrol.jukebox.logger.LogAware;
+
+/**
+ * A source of {@link DoubleDataSample primitive data samples}.
+ *
+ * This is a counterpart of {@link DataBroadcaster} for the primitive pathway. The delivery is always synchronous,
+ * on the thread calling {@link #broadcast(DoubleDataSample)}; sinks that may block are expected to take care of
+ * queueing themselves.
+ *
+ * Optionally, the samples created by {@link #broadcast(long, String, String, double, Throwable)} can be taken from a
+ * {@link DoubleDataSamplePool pool} and returned there as soon as all the sinks have consumed them, making the steady
+ * state broadcast allocation free. Sinks attached to such a broadcaster must follow the {@link DoubleDataSample}
+ * contract and either copy or retain the samples they want to keep.
+ *
+ * @author Copyright &copy; <a href="mailto:vt@homeclimatecontrol.com">Vadim Tkachenko</a> 2026
+ */
+public class DoubleDataBroadcaster extends LogAware implements DoubleDataSource {
+
+    /**
+     * Consumers to deliver the samples to.
+     *
+     * The array is never modified, it is replaced with a new copy by {@link #addConsumer(DoubleDataSink)} and
+     * {@link #removeConsumer(DoubleDataSink)} instead, so {@link #broadcast(DoubleDataSample)} can iterate over it
+     * without locking.
+     */
+    private volatile DoubleDataSink[] consumers = new DoubleDataSink[0];
+
+    /**
+     * Pool to take the samples from, or {@code null} if the samples are not pooled.
+     */
+    private final DoubleDataSamplePool pool;
+
+    /**
+     * Create an instance that doesn't pool samples.
+     */
+    public DoubleDataBroadcaster() {
+        this(null);
+    }
+
+    /**
+     * Create an instance that pools samples.
+     *
+     * @param pool Pool to take the samples from. {@code null} means no pooling.
+     */
+    public DoubleDataBroadcaster(DoubleDataSamplePool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * @return The sample pool, or {@code null} if the samples are not pooled.
+     */
+    public final DoubleDataSamplePool getPool() {
+        return pool;
+    }
+
+    /**
+     * @return Number of consumers currently attached.
+     */
+    public final int getConsumerCount() {
+        return consumers.length;
+    }
+
+    @Override
+    public synchronized void addConsumer(DoubleDataSink consumer) {
+
+        if (Arrays.asList(consumers).contains(consumer)) {
+            return;
+        }
+
+        DoubleDataSink[] next = Arrays.copyOf(consumers, consumers.length + 1);
+
+        next[consumers.length] = consumer;
+        consumers = next;
+
+        logger.debug("Added: " + consumer);
+    }
+
+    @Override
+    public synchronized void removeConsumer(DoubleDataSink consumer) {
+
+        int index = Arrays.asList(consumers).indexOf(consumer);
+
+        if (index == -1) {
+            return;
+        }
+
+        DoubleDataSink[] next = new DoubleDataSink[consumers.length - 1];
+
+        System.arraycopy(consumers, 0, next, 0, index);
+        System.arraycopy(consumers, index + 1, next, index, consumers.length - index - 1);
+
+        consumers = next;
+
+        logger.debug("Removed: " + consumer);
+    }
+
+    /**
+     * Create a sample and deliver it to all consumers. If this broadcaster {@link #getPool() is pooled}, the sample
+     * is taken from the pool and returned there when all the consumers are done with it.
+     *
+     * Arguments are the same as for the {@link DoubleDataSample#DoubleDataSample(long, String, String, double, Throwable)
+     * constructor}.
+     */
+    public void broadcast(long timestamp, String sourceName, String signature, double sample, Throwable error) {
+
+        if (pool == null) {
+            broadcast(new DoubleDataSample(timestamp, sourceName, signature, sample, error));
+            return;
+        }
+
+        DoubleDataSample signal = pool.acquire(timestamp, sourceName, signature, sample, error);
+
+        try {
+            broadcast(signal);
+        } finally {
+            signal.release();
+        }
+    }
+
+    /**
+     * Deliver the signal to all consumers.
+     *
+     * @param signal Signal to deliver.
+     */
+    public void broadcast(DoubleDataSample signal) {
+
+        boolean trace = logger.isTraceEnabled();
+
+        if (trace) {
+            ThreadContext.push("broadcast#" + Integer.toHexString(signal.hashCode()));
+            logger.trace(signal);
+        }
+
+        try {
+
+            DoubleDataSink[] snapshot = consumers;
+
+            for (int offset = 0; offset < snapshot.length; offset++) {
+
+                try {
+
+                    snapshot[offset].consume(signal);
+
+                } catch (Throwable t) { // NOSONAR Consequences have been considered
+                    logger.warn(DataBroadcaster.INVOCATION_ERROR, t);
+                }
+            }
+
+        } finally {
+
+            if (trace) {
+                ThreadContext.pop();
+            }
+        }
+    }
+}
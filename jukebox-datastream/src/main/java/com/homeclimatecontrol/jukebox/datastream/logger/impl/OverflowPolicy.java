@@ -0,0 +1,27 @@
+package com.homeclimatecontrol.jukebox.datastream.logger.impl;
+
+/**
+ * What to do with a sample when the {@link DataBroadcaster} asynchronous delivery queue for a sink is full.
+ *
+ * @author Copyright &copy; <a href="mailto:vt@homeclimatecontrol.com">Vadim Tkachenko</a> 2026
+ */
+public enum OverflowPolicy {
+
+    /**
+     * Discard the incoming sample, keep the queue intact.
+     */
+    DROP_NEWEST,
+
+    /**
+     * Discard the oldest queued sample to make room for the incoming one.
+     */
+    DROP_OLDEST,
+
+    /**
+     * Replace an already queued sample with the same signature with the incoming one, so the sink only sees the
+     * latest value. If there is no such sample, behave like {@link #DROP_OLDEST}.
+     *
+     * Coalescing is also applied when the queue is not full, this keeps slow sinks from falling further behind.
+     */
+    COALESCE
+}
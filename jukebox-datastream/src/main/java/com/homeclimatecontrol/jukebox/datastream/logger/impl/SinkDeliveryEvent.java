@@ -0,0 +1,51 @@
+package com.homeclimatecontrol.jukebox.datastream.logger.impl;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Flight Recorder event for a single sample delivered by a {@link DataBroadcaster} to a single sink.
+ *
+ * Only the deliveries longer than the threshold, 1ms by default, are recorded.
+ *
+ * @author Copyright &copy; <a href="mailto:vt@homeclimatecontrol.com">Vadim Tkachenko</a> 2026
+ */
+@Name("com.homeclimatecontrol.jukebox.datastream.SinkDelivery")
+@Label("Sink Delivery")
+@Category({ "Jukebox", "Datastream" })
+@Description("Sample delivered to a sink")
+@Threshold("1 ms")
+@StackTrace(false)
+final class SinkDeliveryEvent extends jdk.jfr.Event {
+
+    @Label("Sink")
+    String sink;
+
+    @Label("Signature")
+    String signature;
+
+    /**
+     * End the event once the sink has returned. The delivery is only recorded if it took longer than the threshold,
+     * the sink class name is not even looked up otherwise.
+     *
+     * @param sink Sink the sample was delivered to.
+     * @param signature Signature of the sample delivered.
+     */
+    void finish(Object sink, String signature) {
+
+        end();
+
+        if (shouldCommit()) {
+
+            // sink.toString() may be expensive
+            this.sink = sink.getClass().getName();
+            this.signature = signature;
+
+            commit();
+        }
+    }
+}
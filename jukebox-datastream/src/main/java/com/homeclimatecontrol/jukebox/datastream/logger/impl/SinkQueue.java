@@ -0,0 +1,398 @@
+package com.homeclimatecontrol.jukebox.datastream.logger.impl;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.apache.logging.log4j.Logger;
+
+import com.homeclimatecontrol.jukebox.datastream.signal.model.DataSample;
+import com.homeclimatecontrol.jukebox.datastream.signal.model.DataSink;
+import com.homeclimatecontrol.jukebox.datastream.signal.model.DoubleDataSample;
+import com.homeclimatecontrol.jukebox.datastream.signal.model.DoubleDataSink;
+
+/**
+ * Bounded serial delivery queue for a single {@link DataSink}.
+ *
+ * Samples are delivered in the order they were queued, by at most one executor thread at a time, so the sink
+ * never sees samples out of order and never gets called concurrently from the same broadcaster. The only exception
+ * is {@link OverflowPolicy#COALESCE}, which replaces a queued sample in place - the order is still preserved for any
+ * given signature, but not necessarily across signatures.
+ *
+ * If the sink is a {@link AbstractLogger logger}, it is fed the primitive form of the sample, converted once by the
+ * {@link DataBroadcaster} for all the loggers.
+ *
+ * The queue also keeps track of the end to end latency, from the moment the sample was queued to the moment the
+ * sink has finished consuming it.
+ *
+ * @param <E> Data type to handle.
+ * @author Copyright &copy; <a href="mailto:vt@homeclimatecontrol.com">Vadim Tkachenko</a> 2026
+ */
+final class SinkQueue<E> implements DataSink<E>, Runnable {
+
+    /**
+     * Maximum number of samples to deliver before yielding the executor thread to other sinks.
+     */
+    private static final int BATCH_SIZE = 64;
+
+    private final DataSink<E> sink;
+
+    /**
+     * Same as {@link #sink}, if it accepts primitive samples, {@code null} otherwise.
+     */
+    private final DoubleDataSink primitiveSink;
+
+    private final Executor executor;
+    private final OverflowPolicy policy;
+    private final Logger logger;
+    private final StageStatistics statistics;
+
+    /**
+     * Circular buffer holding the queued samples.
+     */
+    private final DataSample<E>[] ring;
+
+    /**
+     * Primitive form of the sample at the same position in {@link #ring}, if there's one. {@code null} if the
+     * {@link #primitiveSink} is.
+     */
+    private final DoubleDataSample[] primitiveRing;
+
+    /**
+     * {@link System#nanoTime()} at which the sample at the same position in {@link #ring} was queued.
+     */
+    private final long[] queuedAt;
+
+    private int head = 0;
+    private int size = 0;
+
+    /**
+     * {@code true} if the drain task has been submitted to the {@link #executor} and hasn't finished yet.
+     */
+    private boolean scheduled = false;
+
+    /**
+     * {@code true} once the sink has been removed from the broadcaster.
+     */
+    private boolean closed = false;
+
+    private long dropped = 0;
+    private long delivered = 0;
+    private long failed = 0;
+    private long latencyTotal = 0;
+    private long latencyMax = 0;
+
+    SinkQueue(DataSink<E> sink, Executor executor, int capacity, OverflowPolicy policy, Logger logger, StageStatistics statistics) {
+
+        this.sink = sink;
+        this.primitiveSink = DataBroadcaster.asPrimitive(sink);
+        this.executor = executor;
+        this.policy = policy;
+        this.logger = logger;
+        this.statistics = statistics;
+        this.ring = newArray(capacity);
+        this.primitiveRing = primitiveSink == null ? null : new DoubleDataSample[capacity];
+        this.queuedAt = new long[capacity];
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E> DataSample<E>[] newArray(int size) {
+        return (DataSample<E>[]) new DataSample<?>[size];
+    }
+
+    /**
+     * @return The sink this queue delivers to.
+     */
+    DataSink<E> getSink() {
+        return sink;
+    }
+
+    /**
+     * @return {@code true} if the sink wants the primitive form of the samples.
+     */
+    boolean isPrimitive() {
+        return primitiveSink != null;
+    }
+
+    /**
+     * Queue the sample for delivery, applying the {@link OverflowPolicy} if necessary.
+     *
+     * @param sample Sample to queue.
+     */
+    @Override
+    public void consume(DataSample<E> sample) {
+        offer(sample, null);
+    }
+
+    /**
+     * Queue the sample for delivery, applying the {@link OverflowPolicy} if necessary.
+     *
+     * @param sample Sample to queue.
+     * @param primitive Primitive form of the same sample, to deliver instead if the sink {@link #isPrimitive() accepts
+     * it}. May be {@code null}, then the boxed sample is delivered.
+     */
+    void offer(DataSample<E> sample, DoubleDataSample primitive) {
+
+        boolean submit;
+
+        synchronized (this) {
+
+            if (closed) {
+                return;
+            }
+
+            if (!enqueue(sample, primitive)) {
+                dropped++;
+                return;
+            }
+
+            submit = !scheduled;
+            scheduled = true;
+        }
+
+        if (submit) {
+            schedule();
+        }
+    }
+
+    /**
+     * Put the sample into the {@link #ring}.
+     *
+     * @param sample Sample to add.
+     * @param primitive Primitive form of the sample, or {@code null}.
+     * @return {@code false} if the sample was dropped.
+     */
+    private boolean enqueue(DataSample<E> sample, DoubleDataSample primitive) {
+
+        if (policy == OverflowPolicy.COALESCE) {
+
+            for (int offset = 0; offset < size; offset++) {
+
+                int index = (head + offset) % ring.length;
+
+                if (ring[index].signature.equals(sample.signature)) {
+
+                    // Latency is counted from the moment the first of coalesced samples was queued
+                    set(index, sample, primitive);
+                    dropped++;
+                    return true;
+                }
+            }
+        }
+
+        if (size == ring.length) {
+
+            if (policy == OverflowPolicy.DROP_NEWEST) {
+                return false;
+            }
+
+            // DROP_OLDEST, or COALESCE with nothing to coalesce
+            set(head, null, null);
+            head = (head + 1) % ring.length;
+            size--;
+            dropped++;
+        }
+
+        int tail = (head + size) % ring.length;
+
+        set(tail, sample, primitive);
+        queuedAt[tail] = System.nanoTime();
+        size++;
+
+        return true;
+    }
+
+    private void set(int index, DataSample<E> sample, DoubleDataSample primitive) {
+
+        ring[index] = sample;
+
+        if (primitiveRing != null) {
+            primitiveRing[index] = primitive;
+        }
+    }
+
+    private void schedule() {
+
+        try {
+
+            executor.execute(this);
+
+        } catch (RejectedExecutionException ex) {
+
+            logger.error("Executor rejected delivery to " + sink + ", queued samples will be lost", ex);
+
+            synchronized (this) {
+                clear();
+                scheduled = false;
+            }
+        }
+    }
+
+    @Override
+    public void run() {
+
+        for (int count = 0; count < BATCH_SIZE; count++) {
+
+            DataSample<E> sample;
+            DoubleDataSample primitive;
+            long since;
+
+            synchronized (this) {
+
+                if (closed || size == 0) {
+                    scheduled = false;
+                    return;
+                }
+
+                sample = ring[head];
+                primitive = primitiveRing == null ? null : primitiveRing[head];
+                since = queuedAt[head];
+                set(head, null, null);
+                head = (head + 1) % ring.length;
+                size--;
+            }
+
+            boolean ok = deliver(sample, primitive);
+            long latency = System.nanoTime() - since;
+
+            synchronized (this) {
+
+                delivered++;
+                latencyTotal += latency;
+                latencyMax = Math.max(latencyMax, latency);
+
+                if (!ok) {
+                    failed++;
+                }
+            }
+        }
+
+        // There may be more, but other sinks deserve their turn. The scheduled flag is still set.
+        schedule();
+    }
+
+    /**
+     * Feed the sample to the sink.
+     *
+     * @param sample Sample to deliver.
+     * @param primitive Primitive form of the sample to deliver instead, or {@code null}.
+     * @return {@code false} if the sink has thrown an exception.
+     */
+    private boolean deliver(DataSample<E> sample, DoubleDataSample primitive) {
+
+        try {
+
+            // sink.toString() may be expensive
+            if (logger.isTraceEnabled()) {
+                logger.trace("Feeding: " + sink);
+            }
+
+            boolean instrumented = statistics.isEnabled();
+            SinkDeliveryEvent event = new SinkDeliveryEvent();
+            long start = instrumented ? System.nanoTime() : 0;
+
+            event.begin();
+
+            if (primitive != null) {
+                primitiveSink.consume(primitive);
+            } else {
+                sink.consume(sample);
+            }
+
+            event.finish(sink, sample.signature);
+
+            if (instrumented) {
+                statistics.time.record(System.nanoTime() - start);
+            }
+
+            return true;
+
+        } catch (Throwable t) { // NOSONAR Consequences have been considered
+
+            if (statistics.isEnabled()) {
+                statistics.failures.increment();
+            }
+
+            logger.warn(DataBroadcaster.INVOCATION_ERROR, t);
+            return false;
+        }
+    }
+
+    /**
+     * Stop delivering samples and discard the ones still queued.
+     */
+    synchronized void close() {
+
+        closed = true;
+        clear();
+    }
+
+    private void clear() {
+
+        while (size > 0) {
+            set(head, null, null);
+            head = (head + 1) % ring.length;
+            size--;
+        }
+    }
+
+    /**
+     * @return Number of samples waiting for delivery.
+     */
+    synchronized int getDepth() {
+        return size;
+    }
+
+    /**
+     * @return Number of samples dropped or coalesced since creation.
+     */
+    synchronized long getDropped() {
+        return dropped;
+    }
+
+    /**
+     * @return Number of samples delivered since creation, including those the sink has failed to consume.
+     */
+    synchronized long getDelivered() {
+        return delivered;
+    }
+
+    /**
+     * @return Number of samples the sink has thrown an exception on.
+     */
+    synchronized long getFailed() {
+        return failed;
+    }
+
+    /**
+     * @return Average end to end latency, in nanoseconds, or {@code 0} if nothing has been delivered yet.
+     */
+    synchronized long getLatencyAverage() {
+        return delivered == 0 ? 0 : latencyTotal / delivered;
+    }
+
+    /**
+     * @return Maximum end to end latency, in nanoseconds.
+     */
+    synchronized long getLatencyMax() {
+        return latencyMax;
+    }
+
+    @Override
+    public synchronized String toString() {
+
+        StringBuilder sb = new StringBuilder();
+
+        sb.append(sink).append(": depth=").append(size);
+        sb.append(", delivered=").append(delivered);
+        sb.append(", dropped=").append(dropped);
+        sb.append(", failed=").append(failed);
+        sb.append(", latency avg=").append(toMillis(delivered == 0 ? 0 : latencyTotal / delivered));
+        sb.append("ms max=").append(toMillis(latencyMax)).append("ms");
+
+        return sb.toString();
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1_000_000d;
+    }
+}
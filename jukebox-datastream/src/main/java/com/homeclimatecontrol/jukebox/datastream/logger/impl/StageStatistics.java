@@ -0,0 +1,106 @@
+package com.homeclimatecontrol.jukebox.datastream.logger.impl;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.homeclimatecontrol.jukebox.util.Histogram;
+
+/**
+ * Hot path counters for a single pipeline stage, such as a {@link DataBroadcaster} or an {@link AbstractLogger}.
+ *
+ * Nothing is recorded unless the statistics are {@link #setEnabled(boolean) enabled}; the cost of a disabled instance
+ * is a single volatile read per sample. When enabled, recording takes no locks and, once every signature has been
+ * seen, doesn't allocate.
+ *
+ * @author Copyright &copy; <a href="mailto:vt@homeclimatecontrol.com">Vadim Tkachenko</a> 2026
+ */
+final class StageStatistics {
+
+    private volatile boolean enabled = false;
+
+    /**
+     * Samples that entered the stage.
+     */
+    final LongAdder samples = new LongAdder();
+
+    /**
+     * Exceptions thrown while processing the samples.
+     */
+    final LongAdder failures = new LongAdder();
+
+    /**
+     * Time spent processing a sample, in nanoseconds.
+     */
+    final Histogram time = new Histogram();
+
+    /**
+     * Error samples seen, by signature.
+     */
+    private final ConcurrentMap<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+    boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Switch recording on or off. Switching it on starts from scratch.
+     */
+    synchronized void setEnabled(boolean enabled) {
+
+        if (enabled && !this.enabled) {
+            reset();
+        }
+
+        this.enabled = enabled;
+    }
+
+    /**
+     * Count the sample in. The caller is expected to have checked {@link #isEnabled()}.
+     */
+    void sample(String signature, boolean error) {
+
+        samples.increment();
+
+        if (!error) {
+            return;
+        }
+
+        LongAdder counter = errors.get(signature);
+
+        if (counter == null) {
+            counter = errors.computeIfAbsent(signature, k -> new LongAdder());
+        }
+
+        counter.increment();
+    }
+
+    /**
+     * @return Error sample counts, one {@code signature: count} line per signature, sorted by signature.
+     */
+    String[] getErrors() {
+
+        Map<String, Long> sorted = new TreeMap<>();
+
+        errors.forEach((signature, counter) -> sorted.put(signature, counter.sum()));
+
+        return sorted.entrySet().stream().map(e -> e.getKey() + ": " + e.getValue()).toArray(String[]::new);
+    }
+
+    /**
+     * @return Processing time summary, in microseconds.
+     */
+    String getTime() {
+        return time.toString(1000);
+    }
+
+    private void reset() {
+
+        samples.reset();
+        failures.reset();
+        time.reset();
+        errors.clear();
+    }
+}
@@ -0,0 +1,476 @@
+package com.homeclimatecontrol.jukebox.datastream.logger.impl.durable;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.homeclimatecontrol.jukebox.conf.ConfigurableProperty;
+import com.homeclimatecontrol.jukebox.datastream.logger.model.DataLogger;
+import com.homeclimatecontrol.jukebox.datastream.signal.model.DataSample;
+import com.homeclimatecontrol.jukebox.datastream.signal.model.DataSink;
+import com.homeclimatecontrol.jukebox.datastream.signal.model.DoubleDataSample;
+import com.homeclimatecontrol.jukebox.datastream.signal.model.DoubleDataSink;
+import com.homeclimatecontrol.jukebox.datastream.signal.model.SampleEncoder;
+import com.homeclimatecontrol.jukebox.jmx.JmxAttribute;
+import com.homeclimatecontrol.jukebox.service.PassiveService;
+
+/**
+ * Write-ahead buffer in front of a {@link DataLogger}.
+ *
+ * Samples are appended to memory mapped segment files in a directory, and replayed to the target logger in the
+ * background whenever it is {@link PassiveService#isReady() ready} (loggers that are not services are always
+ * considered ready). Samples are replayed with {@link DataLogger#deliver(DoubleDataSample)}, and a sample only counts
+ * as delivered once the target has acknowledged it. If the target is down, or fails to deliver a sample, the replay
+ * stops and is retried later, so samples survive both target outages and restarts of this buffer. A sample the target
+ * rejects as one it can never log is skipped. Segments are deleted once all of their samples have been delivered.
+ *
+ * Appending doesn't wait for the disk: the data is in the page cache as soon as it's written, and survives a process
+ * crash. Segments are {@link MappedByteBuffer#force() forced} to the disk when full and at shutdown, so samples
+ * written since the last time may be lost if the whole system goes down.
+ *
+ * Delivery is at least once: samples delivered after the replay position was last saved will be delivered again
+ * after a crash.
+ *
+ * @param <E> Data type to log.
+ * @author Copyright &copy; <a href="mailto:vt@homeclimatecontrol.com">Vadim Tkachenko</a> 2026
+ */
+public class DurableBuffer<E extends Number> extends PassiveService implements DataSink<E>, DoubleDataSink {
+
+    /**
+     * Default interval between replay attempts.
+     */
+    public static final long DEFAULT_REPLAY_INTERVAL = 100L;
+
+    private static final String CURSOR_FILE = "cursor";
+
+    private final File directory;
+    private final int segmentSize;
+    private final int maxSegments;
+    private final DataLogger<E> target;
+
+    private volatile long replayInterval = DEFAULT_REPLAY_INTERVAL;
+
+    private final SampleEncoder encoder = new SampleEncoder();
+
+    /**
+     * Guards {@link #writer} and the counters.
+     */
+    private final Object writeLock = new Object();
+
+    /**
+     * Segment being written.
+     */
+    private Segment writer;
+
+    /**
+     * Sequence number of the segment being replayed. Segments before it have been delivered.
+     */
+    private volatile long readSequence;
+
+    /**
+     * Offset of the next record to replay within the segment being replayed. Only accessed by the replay thread.
+     */
+    private int readOffset;
+
+    /**
+     * Segment being replayed. Only accessed by the replay thread.
+     */
+    private Segment reader;
+
+    /**
+     * Persistent replay position: sequence number and offset.
+     */
+    private MappedByteBuffer cursor;
+
+    private ScheduledExecutorService replayer;
+
+    private long appended = 0;
+    private long dropped = 0;
+    private volatile long replayed = 0;
+
+    /**
+     * Create an instance.
+     *
+     * @param directory Directory to keep the segments in. Must not be shared with another buffer.
+     * @param segmentSize Segment size, bytes.
+     * @param maxSegments Maximum number of segments to keep. When they're all full, new samples are dropped.
+     * @param target Logger to deliver the samples to.
+     * @param <L> Target logger type. It must accept primitive samples, so the samples can be replayed through the
+     * default {@link DataLogger#deliver(DoubleDataSample)} if the logger doesn't override it.
+     */
+    public <L extends DataLogger<E> & DoubleDataSink> DurableBuffer(File directory, int segmentSize, int maxSegments, L target) {
+
+        if (directory == null) {
+            throw new IllegalArgumentException("directory can't be null");
+        }
+
+        if (segmentSize < 4096) {
+            throw new IllegalArgumentException("segmentSize must be at least 4096 bytes (" + segmentSize + " given)");
+        }
+
+        if (maxSegments < 2) {
+            throw new IllegalArgumentException("maxSegments must be at least 2 (" + maxSegments + " given)");
+        }
+
+        if (target == null) {
+            throw new IllegalArgumentException("target can't be null");
+        }
+
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.maxSegments = maxSegments;
+        this.target = target;
+    }
+
+    /**
+     * @return Interval between replay attempts, in milliseconds.
+     */
+    @JmxAttribute(description = "Interval between replay attempts, ms")
+    public final long getReplayInterval() {
+        return replayInterval;
+    }
+
+    /**
+     * Set the interval between replay attempts. The new value takes effect at next {@link #startup() startup}.
+     *
+     * @param replayInterval Interval between replay attempts, in milliseconds.
+     */
+    @ConfigurableProperty(
+            propertyName = "replayInterval",
+            description = "Interval between replay attempts, ms"
+            )
+    public final void setReplayInterval(long replayInterval) {
+
+        if (replayInterval <= 0) {
+            throw new IllegalArgumentException("replayInterval must be positive (" + replayInterval + " given)");
+        }
+
+        this.replayInterval = replayInterval;
+    }
+
+    @JmxAttribute(description = "Samples appended")
+    public long getAppended() {
+        synchronized (writeLock) {
+            return appended;
+        }
+    }
+
+    @JmxAttribute(description = "Samples dropped because the buffer was full or not running, or they couldn't be stored")
+    public long getDropped() {
+        synchronized (writeLock) {
+            return dropped;
+        }
+    }
+
+    @JmxAttribute(description = "Samples delivered to the target")
+    public long getReplayed() {
+        return replayed;
+    }
+
+    @JmxAttribute(description = "Number of segments not yet delivered completely")
+    public long getPendingSegments() {
+        synchronized (writeLock) {
+            return writer == null ? 0 : writer.sequence - readSequence + 1;
+        }
+    }
+
+    @Override
+    protected void startup() throws Throwable {
+
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Can't create " + directory);
+        }
+
+        try (FileChannel channel = FileChannel.open(new File(directory, CURSOR_FILE).toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+
+            cursor = channel.map(FileChannel.MapMode.READ_WRITE, 0, Long.BYTES + Integer.BYTES);
+        }
+
+        long[] sequences = getSegments();
+        long savedSequence = cursor.getLong(0);
+        int savedOffset = cursor.getInt(Long.BYTES);
+
+        long first = sequences.length == 0 ? savedSequence : Math.max(savedSequence, sequences[0]);
+        long last = sequences.length == 0 ? savedSequence - 1 : sequences[sequences.length - 1];
+
+        // Whatever is before the saved position has been delivered already
+        for (long sequence : sequences) {
+            if (sequence < first) {
+                delete(Segment.getFile(directory, sequence));
+            }
+        }
+
+        readSequence = first;
+        readOffset = first == savedSequence && Segment.getFile(directory, first).exists() ? savedOffset : 0;
+        reader = null;
+
+        // Never append to a segment written before, it may end with a torn record
+        synchronized (writeLock) {
+            writer = Segment.open(directory, Math.max(last + 1, first), segmentSize);
+        }
+
+        saveCursor();
+
+        logger.info("Replaying from " + Segment.getFile(directory, readSequence).getName() + "@" + readOffset
+                + ", writing to " + writer);
+
+        replayer = Executors.newSingleThreadScheduledExecutor(r -> {
+
+            Thread t = new Thread(r, getClass().getSimpleName() + "-replay");
+
+            t.setDaemon(true);
+            return t;
+        });
+
+        replayer.scheduleWithFixedDelay(this::replay, 0, replayInterval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    protected void shutdown() throws Throwable {
+
+        replayer.shutdown();
+        replayer.awaitTermination(replayInterval + 1000, TimeUnit.MILLISECONDS);
+        replayer = null;
+
+        synchronized (writeLock) {
+
+            writer.force();
+            writer = null;
+        }
+
+        saveCursor();
+        cursor.force();
+
+        reader = null;
+        cursor = null;
+    }
+
+    /**
+     * @return Sequence numbers of the segments present in the directory, in ascending order.
+     */
+    private long[] getSegments() {
+
+        String[] names = directory.list();
+
+        if (names == null) {
+            return new long[0];
+        }
+
+        return Arrays.stream(names).mapToLong(Segment::getSequence).filter(sequence -> sequence >= 0).sorted().toArray();
+    }
+
+    @Override
+    public void consume(DataSample<E> sample) {
+        consume(DoubleDataSample.valueOf(sample));
+    }
+
+    @Override
+    public void consume(DoubleDataSample sample) {
+
+        byte[] sourceName = encoder.encode(sample.getSourceName());
+        byte[] signature = encoder.encode(sample.getSignature());
+        byte[] error = SampleEncoder.encodeError(sample);
+
+        synchronized (writeLock) {
+
+            if (writer == null) {
+
+                // Not started, or stopped
+                drop("buffer is not running", sample);
+                return;
+            }
+
+            if (!SampleEncoder.isStorable(sourceName) || !SampleEncoder.isStorable(signature)) {
+                drop("source name or signature is longer than " + SampleEncoder.MAX_STRING_LENGTH + " bytes", sample);
+                return;
+            }
+
+            if (writer.append(sample.getTimestamp(), sample.getSample(), sourceName, signature, error)) {
+                appended++;
+                return;
+            }
+
+            if (Segment.getRecordSize(sourceName, signature, error) + Integer.BYTES > segmentSize) {
+                drop("sample doesn't fit into a segment", sample);
+                return;
+            }
+
+            if (writer.sequence + 1 - readSequence >= maxSegments) {
+                drop("buffer is full", sample);
+                return;
+            }
+
+            try {
+
+                writer.force();
+                writer = Segment.open(directory, writer.sequence + 1, segmentSize);
+
+            } catch (IOException ex) {
+
+                // The old segment is full, nothing to do but try again with the next sample
+                logger.error("Can't create a segment after " + writer, ex);
+                drop("segment creation failed", sample);
+                return;
+            }
+
+            writer.append(sample.getTimestamp(), sample.getSample(), sourceName, signature, error);
+            appended++;
+        }
+    }
+
+    /**
+     * Drop the sample. Must be called with {@link #writeLock} held.
+     */
+    private void drop(String reason, DoubleDataSample sample) {
+
+        // Only complain once in a while, this may happen for every sample for a long time
+        if (dropped++ % 1000 == 0) {
+            logger.warn("Dropped " + sample + ": " + reason + " (" + dropped + " dropped so far)");
+        }
+    }
+
+    /**
+     * Deliver whatever can be delivered to the target.
+     */
+    private void replay() {
+
+        try {
+
+            while (isTargetReady()) {
+
+                long writeSequence;
+                int writePosition;
+
+                synchronized (writeLock) {
+
+                    if (writer == null) {
+                        return;
+                    }
+
+                    writeSequence = writer.sequence;
+                    writePosition = writer.position();
+                }
+
+                if (!deliver(writeSequence, writePosition)) {
+                    return;
+                }
+
+                if (readSequence == writeSequence) {
+                    // Caught up
+                    return;
+                }
+
+                // This segment is done with, and the writer is past it
+                File done = Segment.getFile(directory, readSequence);
+
+                reader = null;
+                readSequence++;
+                readOffset = 0;
+                saveCursor();
+
+                delete(done);
+            }
+
+        } catch (Throwable t) { // NOSONAR Consequences have been considered
+
+            // If this propagates, the replay will stop running
+            logger.error("replay() failed, will retry", t);
+        }
+    }
+
+    /**
+     * Deliver the records from the segment being replayed.
+     *
+     * @param writeSequence Sequence number of the segment being written.
+     * @param writePosition Offset past the last complete record in the segment being written.
+     * @return {@code true} if all the available records have been delivered.
+     */
+    private boolean deliver(long writeSequence, int writePosition) throws IOException {
+
+        if (reader == null) {
+
+            if (readSequence < writeSequence && !Segment.getFile(directory, readSequence).exists()) {
+                logger.warn(Segment.getFile(directory, readSequence) + " is missing, skipped");
+                return true;
+            }
+
+            reader = Segment.open(directory, readSequence, segmentSize);
+        }
+
+        int limit = readSequence == writeSequence ? writePosition : reader.capacity();
+
+        try {
+
+            while (readOffset < limit) {
+
+                int length = reader.getLength(readOffset);
+
+                if (length <= 0) {
+                    break;
+                }
+
+                if (!isTargetReady()) {
+                    return false;
+                }
+
+                try {
+
+                    target.deliver(reader.read(readOffset));
+                    replayed++;
+
+                } catch (IllegalArgumentException ex) {
+
+                    // Retrying won't help
+                    logger.error("Target rejected the sample at " + reader + "@" + readOffset + ", skipped", ex);
+
+                } catch (Throwable t) { // NOSONAR Consequences have been considered
+
+                    logger.warn("Target failed to deliver the sample at " + reader + "@" + readOffset + ", will retry", t);
+                    return false;
+                }
+
+                readOffset += Integer.BYTES + length;
+            }
+
+            return true;
+
+        } finally {
+            saveCursor();
+        }
+    }
+
+    private boolean isTargetReady() {
+        return !(target instanceof PassiveService) || ((PassiveService) target).isReady();
+    }
+
+    private void saveCursor() {
+
+        MappedByteBuffer current = cursor;
+
+        if (current == null) {
+            return;
+        }
+
+        synchronized (current) {
+            current.putLong(0, readSequence);
+            current.putInt(Long.BYTES, readOffset);
+        }
+    }
+
+    private void delete(File file) {
+
+        try {
+            Files.deleteIfExists(file.toPath());
+        } catch (IOException ex) {
+            logger.warn("Can't delete " + file, ex);
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package com.homeclimatecontrol.jukebox.datastream.logger.impl.durable;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+
+import com.homeclimatecontrol.jukebox.datastream.signal.model.DoubleDataSample;
+import com.homeclimatecontrol.jukebox.datastream.signal.model.SampleEncoder;
+
+/**
+ * Memory mapped write-ahead log segment.
+ *
+ * The segment is a sequence of records, each prefixed with its length, and terminated by a zero length. A record
+ * is:
+ *
+ * <pre>
+ * long timestamp
+ * double value
+ * short length, bytes - source name, UTF-8, length is -1 for null
+ * short length, bytes - signature, UTF-8
+ * short length, bytes - error description, UTF-8, length is -1 if the sample is not an error
+ * </pre>
+ *
+ * The length prefix is written last, so a record torn by a crash looks like the end of the segment.
+ *
+ * This class is not thread safe.
+ *
+ * @author Copyright &copy; <a href="mailto:vt@homeclimatecontrol.com">Vadim Tkachenko</a> 2026
+ */
+final class Segment {
+
+    private static final String PREFIX = "segment-";
+    private static final String SUFFIX = ".wal";
+
+    /**
+     * Record size, not counting the variable length parts and the length prefix.
+     */
+    static final int FIXED_SIZE = Long.BYTES + Double.BYTES + 3 * Short.BYTES;
+
+    final long sequence;
+    final File file;
+
+    private final MappedByteBuffer buffer;
+
+    /**
+     * Where the next record goes. Only meaningful for the segment being written.
+     */
+    private int position = 0;
+
+    private Segment(long sequence, File file, MappedByteBuffer buffer) {
+
+        this.sequence = sequence;
+        this.file = file;
+        this.buffer = buffer;
+    }
+
+    /**
+     * Create a new segment, or open an existing one.
+     *
+     * @param directory Directory to keep the segment in.
+     * @param sequence Segment sequence number.
+     * @param size Segment size, bytes. Ignored if the segment already exists.
+     * @return The segment.
+     * @throws IOException if the segment can't be mapped.
+     */
+    static Segment open(File directory, long sequence, int size) throws IOException {
+
+        File file = getFile(directory, sequence);
+
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+
+            // The mapping stays valid after the channel is closed
+            long length = channel.size() > 0 ? channel.size() : size;
+
+            return new Segment(sequence, file, channel.map(FileChannel.MapMode.READ_WRITE, 0, length));
+        }
+    }
+
+    /**
+     * @return File name for the segment with the given sequence number.
+     */
+    static File getFile(File directory, long sequence) {
+        return new File(directory, PREFIX + String.format("%020d", sequence) + SUFFIX);
+    }
+
+    /**
+     * @return Sequence number of the segment file, or {@code -1} if the file is not a segment.
+     */
+    static long getSequence(String fileName) {
+
+        if (!fileName.startsWith(PREFIX) || !fileName.endsWith(SUFFIX)) {
+            return -1;
+        }
+
+        try {
+            return Long.parseLong(fileName.substring(PREFIX.length(), fileName.length() - SUFFIX.length()));
+        } catch (NumberFormatException ex) {
+            return -1;
+        }
+    }
+
+    /**
+     * @return Segment size, bytes.
+     */
+    int capacity() {
+        return buffer.capacity();
+    }
+
+    /**
+     * @return Offset past the last record written by {@link #append(long, double, byte[], byte[], byte[])}.
+     */
+    int position() {
+        return position;
+    }
+
+    /**
+     * Append a record. None of the strings may be longer than {@link SampleEncoder#MAX_STRING_LENGTH}.
+     *
+     * @return {@code false} if the record doesn't fit, the segment is not changed then.
+     */
+    boolean append(long timestamp, double value, byte[] sourceName, byte[] signature, byte[] error) {
+
+        int length = FIXED_SIZE + length(sourceName) + length(signature) + length(error);
+
+        // Leave room for the terminator
+        if (position + Integer.BYTES + length + Integer.BYTES > buffer.capacity()) {
+            return false;
+        }
+
+        buffer.position(position + Integer.BYTES);
+        buffer.putLong(timestamp);
+        buffer.putDouble(value);
+        put(sourceName);
+        put(signature);
+        put(error);
+
+        buffer.putInt(position, length);
+        position += Integer.BYTES + length;
+
+        return true;
+    }
+
+    /**
+     * @return Record size including the prefix, for the given content.
+     */
+    static int getRecordSize(byte[] sourceName, byte[] signature, byte[] error) {
+        return Integer.BYTES + FIXED_SIZE + length(sourceName) + length(signature) + length(error);
+    }
+
+    private static int length(byte[] bytes) {
+        return bytes == null ? 0 : bytes.length;
+    }
+
+    private void put(byte[] bytes) {
+
+        if (bytes == null) {
+            buffer.putShort((short) -1);
+            return;
+        }
+
+        buffer.putShort((short) bytes.length);
+        buffer.put(bytes);
+    }
+
+    /**
+     * Get the length of the record at the offset.
+     *
+     * @return Record length without the prefix, or zero if there are no more records.
+     */
+    int getLength(int offset) {
+        return offset + Integer.BYTES > buffer.capacity() ? 0 : buffer.getInt(offset);
+    }
+
+    /**
+     * Read the record at the offset.
+     *
+     * @param offset Record offset, must point to a record with a positive {@link #getLength(int) length}.
+     * @return Sample stored in the record. Errors are restored as a plain {@link Exception} with the original
+     * description as the message.
+     */
+    DoubleDataSample read(int offset) {
+
+        int at = offset + Integer.BYTES;
+
+        long timestamp = buffer.getLong(at);
+        at += Long.BYTES;
+
+        double value = buffer.getDouble(at);
+        at += Double.BYTES;
+
+        String sourceName = getString(at);
+        at += Short.BYTES + Math.max(0, buffer.getShort(at));
+
+        String signature = getString(at);
+        at += Short.BYTES + Math.max(0, buffer.getShort(at));
+
+        String error = getString(at);
+
+        return new DoubleDataSample(timestamp, sourceName, signature, value, error == null ? null : new Exception(error));
+    }
+
+    private String getString(int offset) {
+
+        int length = buffer.getShort(offset);
+
+        if (length < 0) {
+            return null;
+        }
+
+        byte[] bytes = new byte[length];
+
+        for (int index = 0; index < length; index++) {
+            bytes[index] = buffer.get(offset + Short.BYTES + index);
+        }
+
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Write the changes to the storage device.
+     */
+    void force() {
+        buffer.force();
+    }
+
+    @Override
+    public String toString() {
+        return file.getName();
+    }
+}
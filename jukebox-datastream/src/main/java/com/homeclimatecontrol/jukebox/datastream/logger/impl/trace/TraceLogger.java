@@ -4,17 +4,14 @@ import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.PrintWriter;
-import java.util.Iterator;
 import java.util.Set;
-import java.util.SortedMap;
-import java.util.TreeMap;
 
 import org.apache.logging.log4j.ThreadContext;
 
 import com.homeclimatecontrol.jukebox.conf.ConfigurableProperty;
 import com.homeclimatecontrol.jukebox.datastream.logger.impl.AbstractLogger;
-import com.homeclimatecontrol.jukebox.datastream.signal.model.DataSample;
 import com.homeclimatecontrol.jukebox.datastream.signal.model.DataSource;
+import com.homeclimatecontrol.jukebox.datastream.signal.model.DoubleDataSample;
 import com.homeclimatecontrol.jukebox.jmx.JmxAttribute;
 import com.homeclimatecontrol.jukebox.jmx.JmxDescriptor;
 
@@ -43,9 +40,21 @@ public class TraceLogger<E extends Number> extends AbstractLogger<E> {
     private File baseDir = null;
 
     /**
-     * Channel signature to file mapping.
+     * Trace channel state.
      */
-    private final SortedMap<String, File> signature2file = new TreeMap<String, File>();
+    private static class TraceChannel extends Channel {
+
+	/**
+	 * File to write the trace to.
+	 */
+	final File file;
+
+	TraceChannel(String name, String signature, File file) {
+
+	    super(name, signature);
+	    this.file = file;
+	}
+    }
 
     /**
      * Create an instance with no listeners.
@@ -91,18 +100,18 @@ public class TraceLogger<E extends Number> extends AbstractLogger<E> {
     @JmxAttribute(description = "Files written to by this logger")
     public String[] getFiles() {
 
-	String[] map = new String[signature2file.size()];
+	Object[] channels = getChannels().toArray();
+	String[] map = new String[channels.length];
 
-	int offset = 0;
-	for (Iterator<File> i = signature2file.values().iterator(); i.hasNext();) {
-	    map[offset++] = i.next().toString();
+	for (int offset = 0; offset < channels.length; offset++) {
+	    map[offset] = ((TraceChannel) channels[offset]).file.toString();
 	}
 
 	return map;
     }
 
     @Override
-    protected final void createChannel(String name, String signature, long timestamp) {
+    protected final Channel createChannel(String name, String signature, long timestamp) throws IOException {
 
 	ThreadContext.push("createChannel");
 	
@@ -114,105 +123,102 @@ public class TraceLogger<E extends Number> extends AbstractLogger<E> {
 
 	    logger.info("Trace file for (" + name + "): " + traceFile);
 
-	    signature2name.put(signature, name);
-	    signature2file.put(signature, traceFile);
-
-	    // If the file already exists, we won't try to create the header
-
-	    if (!traceFile.exists()) {
-
-		try {
-
-		    PrintWriter pw = getWriter(signature);
+	    TraceChannel channel = new TraceChannel(name, signature, traceFile);
 
-		    pw.println("# " + signature);
-		    pw.println("# " + name);
-		    pw.println("");
-		    pw.flush();
-		    pw.close();
+	    // If the file already exists, we won't try to create the header.
+	    // createNewFile() is atomic, so only one of the threads that may be
+	    // creating the channel for the same signature at the same time
+	    // will write it.
 
-		} catch (IOException ex) {
+	    if (traceFile.createNewFile()) {
 
-		    // We've failed to create this channel, let's forget about
-		    // it
+		// If this fails, the channel will not be registered, and
+		// creating it will be attempted again with the next sample
 
-		    signature2name.remove(signature);
-		    signature2file.remove(signature);
+		PrintWriter pw = getWriter(channel);
 
-		    logger.error("Failed to create the channel: '" + name
-			    + "' (" + signature + "):", ex);
-		}
+		pw.println("# " + signature);
+		pw.println("# " + name);
+		pw.println("");
+		pw.flush();
+		pw.close();
 	    }
 
+	    return channel;
+
 	} finally {
 	    ThreadContext.pop();
 	}
     }
 
     @Override
-    protected final synchronized void consume(String signature, DataSample<E> value) {
-	
-	ThreadContext.push("consume");
-	
+    protected final void consume(Channel channel, DoubleDataSample value) {
+
 	try {
 
-	    checkStatus();
+	    deliver(channel, value);
 
-	    try {
+	} catch (IOException ex) {
 
-		PrintWriter pw = getWriter(signature);
+	    logger.warn("consume(" + channel.signature + ", " + value + ") failed:", ex);
+	}
+    }
 
-		// We won't be able to store much error information in the
-		// trace, because the error message may be multiline. Besides,
-		// it will most probably screw up other scripts that may be
-		// willing to read the trace. May reconsider it later, but so
-		// far that's it.
+    @Override
+    protected final void deliver(Channel channel, DoubleDataSample value) throws IOException {
 
-		// Let's doublecheck: even though the sample may be present, its
-		// signalValue may be NaN
+	checkStatus();
 
-		double signalValue = value.sample == null ? Double.NaN
-			: value.sample.doubleValue();
+	TraceChannel traceChannel = (TraceChannel) channel;
+	String signature = channel.signature;
 
-		pw.println(signature
-			+ ":"
-			+ value.timestamp
-			+ ":"
-			+ (Double.isNaN(signalValue) ? "U" : Double
-				.toString(signalValue)));
-		pw.flush();
-		pw.close();
+	// Different channels write to different files and can proceed in parallel
 
-	    } catch (IOException ex) {
+	synchronized (traceChannel) {
 
-		logger.warn("consume(" + signature + ", " + value + ") failed:", ex);
-	    }
+	    PrintWriter pw = getWriter(traceChannel);
 
-	} finally {
-	    ThreadContext.pop();
+	    // We won't be able to store much error information in the
+	    // trace, because the error message may be multiline. Besides,
+	    // it will most probably screw up other scripts that may be
+	    // willing to read the trace. May reconsider it later, but so
+	    // far that's it.
+
+	    // Let's doublecheck: even though the sample may be present, its
+	    // signalValue may be NaN
+
+	    double signalValue = value.getSample();
+
+	    pw.println(signature
+		    + ":"
+		    + value.getTimestamp()
+		    + ":"
+		    + (Double.isNaN(signalValue) ? "U" : Double
+			    .toString(signalValue)));
+
+	    // PrintWriter doesn't throw, this is the only way to find out
+	    boolean failed = pw.checkError();
+
+	    pw.close();
+
+	    if (failed) {
+		throw new IOException("Failed to write to " + traceChannel.file);
+	    }
 	}
     }
 
     /**
-     * Get a writer for the given signature.
+     * Get a writer for the given channel.
      * 
-     * @param signature Signature to get the writer for.
+     * @param channel Channel to get the writer for.
      * @return A writer.
      * 
      * @throws IOException if a writer couldn't be obtained.
      */
-    private PrintWriter getWriter(String signature) throws IOException {
-
-	File f = signature2file.get(signature);
-
-	if (f == null) {
-
-	    throw new IllegalStateException("Supposed to have file name for "
-		    + signature + ", but don't???");
-	}
+    private PrintWriter getWriter(TraceChannel channel) throws IOException {
 
 	// Create a FileWriter with 'append'
-	return new PrintWriter(new FileWriter(f, true));
+	return new PrintWriter(new FileWriter(channel.file, true));
     }
 
     @Override
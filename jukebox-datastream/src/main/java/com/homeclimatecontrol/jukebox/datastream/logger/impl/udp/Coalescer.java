@@ -0,0 +1,138 @@
+package com.homeclimatecontrol.jukebox.datastream.logger.impl.udp;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.homeclimatecontrol.jukebox.datastream.signal.model.DoubleDataSample;
+
+/**
+ * Keeps the latest sample per signature until it's time to send it.
+ *
+ * A sample is only released by {@link #drain(long, List)} if it differs from the one that was last released for the
+ * same signature, or if the last release for this signature happened more than {@link #heartbeat} ago.
+ *
+ * @author Copyright &copy; <a href="mailto:vt@homeclimatecontrol.com">Vadim Tkachenko</a> 2026
+ */
+final class Coalescer {
+
+    /**
+     * Per signature state.
+     */
+    private static final class Slot {
+
+        /**
+         * Latest sample received, or {@code null} if there was nothing new since the last {@link #drain(long, List)}.
+         */
+        DoubleDataSample latest;
+
+        double sentValue = Double.NaN;
+        boolean sentError = false;
+        boolean sent = false;
+        long sentAt;
+    }
+
+    /**
+     * How often to send a sample that hasn't changed, in milliseconds. Zero or negative means never.
+     */
+    private final long heartbeat;
+
+    private final Map<String, Slot> slots = new HashMap<>();
+
+    private long received = 0;
+    private long coalesced = 0;
+
+    /**
+     * {@code true} once {@link #close()} has been called.
+     */
+    private boolean closed = false;
+
+    /**
+     * @param heartbeat How often to send a sample that hasn't changed, in milliseconds. Zero or negative means never.
+     */
+    Coalescer(long heartbeat) {
+        this.heartbeat = heartbeat;
+    }
+
+    /**
+     * Remember the sample, replacing the one not yet sent for the same signature.
+     *
+     * @param sample Sample to remember. It is {@link DoubleDataSample#copy() copied} if necessary.
+     * @return {@code false} if the coalescer has been {@link #close() closed}, and the sample has to be sent by the
+     * caller.
+     */
+    synchronized boolean offer(DoubleDataSample sample) {
+
+        if (closed) {
+            return false;
+        }
+
+        Slot slot = slots.computeIfAbsent(sample.getSignature(), k -> new Slot());
+
+        if (slot.latest != null) {
+            coalesced++;
+        }
+
+        slot.latest = sample.copy();
+        received++;
+
+        return true;
+    }
+
+    /**
+     * Stop accepting samples. Whatever has been accepted before is still available to {@link #drain(long, List)}.
+     */
+    synchronized void close() {
+        closed = true;
+    }
+
+    /**
+     * Collect the samples that need to be sent.
+     *
+     * @param now Current time.
+     * @param target List to add the samples to.
+     */
+    synchronized void drain(long now, List<DoubleDataSample> target) {
+
+        for (Slot slot : slots.values()) {
+
+            DoubleDataSample sample = slot.latest;
+
+            if (sample == null) {
+                continue;
+            }
+
+            slot.latest = null;
+
+            boolean changed = !slot.sent
+                    || sample.isError() != slot.sentError
+                    || Double.compare(sample.getSample(), slot.sentValue) != 0;
+
+            if (!changed && (heartbeat <= 0 || now - slot.sentAt < heartbeat)) {
+                coalesced++;
+                continue;
+            }
+
+            slot.sentValue = sample.getSample();
+            slot.sentError = sample.isError();
+            slot.sent = true;
+            slot.sentAt = now;
+
+            target.add(sample);
+        }
+    }
+
+    /**
+     * @return Number of samples offered.
+     */
+    synchronized long getReceived() {
+        return received;
+    }
+
+    /**
+     * @return Number of samples that were never sent because they were superseded or unchanged.
+     */
+    synchronized long getCoalesced() {
+        return coalesced;
+    }
+}
@@ -1,21 +1,28 @@
 package com.homeclimatecontrol.jukebox.datastream.logger.impl.udp;
 
 import java.io.IOException;
-import java.net.DatagramPacket;
-import java.net.DatagramSocket;
 import java.net.Inet4Address;
+import java.net.Inet6Address;
 import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.InterfaceAddress;
+import java.net.NetworkInterface;
 import java.net.SocketException;
+import java.net.StandardSocketOptions;
 import java.net.UnknownHostException;
-import java.text.SimpleDateFormat;
-import java.util.Date;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Iterator;
-import java.util.Map;
-import java.util.NoSuchElementException;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
-import java.util.StringTokenizer;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.logging.log4j.ThreadContext;
 
@@ -23,9 +30,10 @@ import com.homeclimatecontrol.jukebox.conf.ConfigurableProperty;
 import com.homeclimatecontrol.jukebox.datastream.logger.impl.AbstractLogger;
 import com.homeclimatecontrol.jukebox.datastream.logger.impl.udp.xap.XapLogger;
 import com.homeclimatecontrol.jukebox.datastream.logger.impl.udp.xpl.XplLogger;
-import com.homeclimatecontrol.jukebox.datastream.signal.model.DataSample;
 import com.homeclimatecontrol.jukebox.datastream.signal.model.DataSource;
+import com.homeclimatecontrol.jukebox.datastream.signal.model.DoubleDataSample;
 import com.homeclimatecontrol.jukebox.jmx.JmxAttribute;
+import com.homeclimatecontrol.jukebox.util.TimestampFormatter;
 import com.homeclimatecontrol.jukebox.util.network.HostHelper;
 
 /**
@@ -38,9 +46,28 @@ import com.homeclimatecontrol.jukebox.util.network.HostHelper;
 public abstract class UdpLogger<E extends Number> extends AbstractLogger<E> {
 
     /**
-     * Date format to use.
+     * Timestamp format to use, {@code yyyy-MM-dd'T'HH:mm:ss.SSSZ}.
      */
-    private static final String dateFormat = "yyyy-MM-dd'T'HH:mm:ss.SSSZ";
+    private static final TimestampFormatter timestampFormat = TimestampFormatter.LOCAL_OFFSET;
+
+    /**
+     * Default {@link #targetRefreshInterval}, one minute.
+     */
+    public static final long DEFAULT_TARGET_REFRESH_INTERVAL = 60_000L;
+
+    /**
+     * Maximum packet size, in bytes. Both xPL and xAP limit messages to 1500 bytes, longer packets are dropped.
+     */
+    public static final int MAX_PACKET_SIZE = 1500;
+
+    private static final byte[] ERROR_KEY = "error=".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] TIMESTAMP_KEY = "timestamp=".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] BLOCK_END = "\n}\n".getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * Default {@link #heartbeat}, one minute.
+     */
+    public static final long DEFAULT_HEARTBEAT = 60_000L;
 
     /**
      * Socket port to broadcast on.
@@ -48,9 +75,25 @@ public abstract class UdpLogger<E extends Number> extends AbstractLogger<E> {
     private int port;
 
     /**
-     * Socket to broadcast to.
+     * Channel to broadcast to.
      */
-    private DatagramSocket socket;
+    private DatagramChannel channel;
+
+    /**
+     * Protocol header, encoded at {@link #startup() startup}. It never changes once the {@link #hostname} is known.
+     */
+    private byte[] header;
+
+    /**
+     * Per thread packet assembly buffers, so {@link #consume(Channel, DoubleDataSample)} doesn't allocate.
+     */
+    private final ThreadLocal<PacketBuffer> packetBuffer = ThreadLocal.withInitial(PacketBuffer::new);
+
+    /**
+     * Number of packets dropped because they didn't fit into {@link #MAX_PACKET_SIZE}, or the socket send buffer
+     * was full.
+     */
+    private final AtomicLong dropped = new AtomicLong();
 
     /**
      * Host name. It is resolved at {@link #startup startup}, to avoid
@@ -59,15 +102,59 @@ public abstract class UdpLogger<E extends Number> extends AbstractLogger<E> {
     private String hostname;
 
     /**
-     * Mapping of a host address to a network address. Used in
-     * {@link #resolveNetworkAddress resolveNetworkAddress()}.
+     * IPv6 multicast group to send packets to on every IPv6 capable interface, or {@code null} if IPv6 is not used.
      */
-    private final Map<InetAddress, InetAddress> host2network = new HashMap<InetAddress, InetAddress>();
+    private volatile Inet6Address ipv6Group;
 
     /**
-     * Set of local addresses we can't support.
+     * Lock guarding the {@link #targets} resolution.
      */
-    private final Set<InetAddress> unsupported = new HashSet<InetAddress>();
+    private final Object targetLock = new Object();
+
+    /**
+     * Addresses to send packets to.
+     *
+     * Enumerating network interfaces is expensive, so this is computed by {@link #resolveTargets()} once and then
+     * reused until it either gets older than {@link #targetRefreshInterval}, or is {@link #invalidateTargets()
+     * invalidated}. The array is never modified, only replaced.
+     */
+    private volatile InetSocketAddress[] targets;
+
+    /**
+     * Time when {@link #targets} was last resolved.
+     */
+    private volatile long targetsResolvedAt;
+
+    /**
+     * How often to re-enumerate the network interfaces, in milliseconds. Zero or negative means never, unless
+     * {@link #invalidateTargets() explicitly invalidated}.
+     */
+    private volatile long targetRefreshInterval = DEFAULT_TARGET_REFRESH_INTERVAL;
+
+    /**
+     * Coalescing window, in milliseconds. Zero or negative means that every sample is sent as soon as it arrives.
+     */
+    private volatile long coalesceWindow = 0;
+
+    /**
+     * How often to send a sample that hasn't changed when {@link #coalesceWindow coalescing}, in milliseconds.
+     */
+    private volatile long heartbeat = DEFAULT_HEARTBEAT;
+
+    /**
+     * Latest samples waiting for the next {@link #flush(Coalescer)}, or {@code null} if not coalescing.
+     */
+    private volatile Coalescer coalescer;
+
+    /**
+     * Runs {@link #flush(Coalescer)} every {@link #coalesceWindow}, or {@code null} if not coalescing.
+     */
+    private ScheduledExecutorService flusher;
+
+    /**
+     * Samples being flushed. Only accessed from {@link #flush(Coalescer)}, which is never run concurrently.
+     */
+    private final List<DoubleDataSample> flushBuffer = new ArrayList<>();
 
     /**
      * Create an instance with no listeners.
@@ -122,6 +209,173 @@ public abstract class UdpLogger<E extends Number> extends AbstractLogger<E> {
 	throw new IllegalStateException("Not Implemented");
     }
 
+    /**
+     * @return How often the broadcast targets are re-resolved, in milliseconds.
+     */
+    @JmxAttribute(description = "Broadcast target refresh interval, ms")
+    public final long getTargetRefreshInterval() {
+	return targetRefreshInterval;
+    }
+
+    /**
+     * Set the broadcast target refresh interval.
+     *
+     * @param targetRefreshInterval How often to re-enumerate the network interfaces, in milliseconds.
+     * Zero or negative means that the targets are only resolved again after {@link #invalidateTargets()}.
+     */
+    @ConfigurableProperty(
+	    propertyName = "targetRefreshInterval",
+	    description = "How often to re-enumerate network interfaces, ms"
+		)
+    public final void setTargetRefreshInterval(long targetRefreshInterval) {
+	this.targetRefreshInterval = targetRefreshInterval;
+    }
+
+    /**
+     * Get the addresses the packets are currently sent to.
+     *
+     * @return Human readable list of broadcast targets, or an empty array if they haven't been resolved yet.
+     */
+    @JmxAttribute(description = "Broadcast targets")
+    public final String[] getTargets() {
+
+	InetSocketAddress[] snapshot = targets;
+
+	if (snapshot == null) {
+	    return new String[0];
+	}
+
+	String[] result = new String[snapshot.length];
+
+	for (int offset = 0; offset < snapshot.length; offset++) {
+	    result[offset] = snapshot[offset].toString();
+	}
+
+	return result;
+    }
+
+    /**
+     * @return IPv6 multicast group the packets are sent to, or empty string if IPv6 is not used.
+     */
+    @JmxAttribute(description = "IPv6 multicast group")
+    public final String getIpv6Group() {
+
+	Inet6Address group = ipv6Group;
+
+	return group == null ? "" : group.getHostAddress();
+    }
+
+    /**
+     * Set the IPv6 multicast group to send packets to, in addition to IPv4 broadcast.
+     *
+     * @param ipv6Group Multicast group address literal, for example {@code ff02::1}. {@code null} or empty string
+     * disables IPv6.
+     * @throws UnknownHostException if the address can't be parsed.
+     */
+    @ConfigurableProperty(
+	    propertyName = "ipv6Group",
+	    description = "IPv6 multicast group, empty to disable IPv6"
+		)
+    public final void setIpv6Group(String ipv6Group) throws UnknownHostException {
+
+	if (ipv6Group == null || "".equals(ipv6Group)) {
+
+	    this.ipv6Group = null;
+
+	} else {
+
+	    InetAddress address = InetAddress.getByName(ipv6Group);
+
+	    if (!(address instanceof Inet6Address) || !address.isMulticastAddress()) {
+		throw new IllegalArgumentException(ipv6Group + ": not an IPv6 multicast address");
+	    }
+
+	    this.ipv6Group = (Inet6Address) address;
+	}
+
+	invalidateTargets();
+    }
+
+    /**
+     * @return Coalescing window, in milliseconds, zero if not coalescing.
+     */
+    @JmxAttribute(description = "Coalescing window, ms, 0 if disabled")
+    public final long getCoalesceWindow() {
+	return coalesceWindow;
+    }
+
+    /**
+     * Set the coalescing window.
+     *
+     * When coalescing, only the latest sample for each signature received within the window is kept, and it is
+     * only sent at the end of the window if it differs from the one sent before, or if the {@link #getHeartbeat()
+     * heartbeat} interval has elapsed. Loggers that {@link #isBatching() support it} pack all the samples sent at
+     * the end of the window into as few packets as possible.
+     *
+     * The new value takes effect at next {@link #startup() startup}.
+     *
+     * @param coalesceWindow Coalescing window, in milliseconds. Zero or negative disables coalescing.
+     */
+    @ConfigurableProperty(
+	    propertyName = "coalesceWindow",
+	    description = "Coalescing window, ms, 0 to send every sample immediately"
+		)
+    public final void setCoalesceWindow(long coalesceWindow) {
+	this.coalesceWindow = coalesceWindow;
+    }
+
+    /**
+     * @return How often an unchanged sample is sent when coalescing, in milliseconds.
+     */
+    @JmxAttribute(description = "Heartbeat interval for unchanged samples, ms")
+    public final long getHeartbeat() {
+	return heartbeat;
+    }
+
+    /**
+     * Set the heartbeat interval. The new value takes effect at next {@link #startup() startup}.
+     *
+     * @param heartbeat How often to send a sample that hasn't changed when coalescing, in milliseconds.
+     * Zero or negative means that unchanged samples are never sent again.
+     */
+    @ConfigurableProperty(
+	    propertyName = "heartbeat",
+	    description = "Heartbeat interval for unchanged samples, ms, 0 to only send changes"
+		)
+    public final void setHeartbeat(long heartbeat) {
+	this.heartbeat = heartbeat;
+    }
+
+    /**
+     * @return Number of samples that were never sent because they were superseded within the coalescing window, or
+     * unchanged.
+     */
+    @JmxAttribute(description = "Samples coalesced")
+    public final long getCoalesced() {
+
+	Coalescer current = coalescer;
+
+	return current == null ? 0 : current.getCoalesced();
+    }
+
+    /**
+     * Check whether the protocol allows more than one data block per packet.
+     *
+     * @return {@code true} if a packet may carry more than one data block when coalescing.
+     */
+    protected boolean isBatching() {
+	return false;
+    }
+
+    /**
+     * Force the broadcast targets to be resolved again before the next packet is sent.
+     *
+     * Call this when the network configuration is known to have changed.
+     */
+    public final void invalidateTargets() {
+	targets = null;
+    }
+
     /**
      * Get a string that will be used as a source signature.
      * 
@@ -139,8 +393,9 @@ public abstract class UdpLogger<E extends Number> extends AbstractLogger<E> {
 	
 	try {
 
-	    socket = new DatagramSocket();
-	    socket.setBroadcast(true);
+	    channel = DatagramChannel.open();
+	    channel.setOption(StandardSocketOptions.SO_BROADCAST, true);
+	    channel.configureBlocking(false);
 
 	    hostname = InetAddress.getLocalHost().getHostName();
 
@@ -153,6 +408,35 @@ public abstract class UdpLogger<E extends Number> extends AbstractLogger<E> {
 
 	    logger.info("Using host name: " + hostname);
 
+	    StringBuilder sb = new StringBuilder();
+
+	    writeHeader(sb);
+	    header = sb.toString().getBytes(StandardCharsets.UTF_8);
+
+	    if (header.length >= MAX_PACKET_SIZE) {
+		throw new IllegalStateException("Header is too long (" + header.length + " bytes):\n" + sb);
+	    }
+
+	    long window = coalesceWindow;
+
+	    if (window > 0) {
+
+		Coalescer current = new Coalescer(heartbeat);
+
+		coalescer = current;
+		flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+
+		    Thread t = new Thread(r, getClass().getSimpleName() + "-flush");
+
+		    t.setDaemon(true);
+		    return t;
+		});
+
+		flusher.scheduleWithFixedDelay(() -> flush(current), window, window, TimeUnit.MILLISECONDS);
+
+		logger.info("Coalescing within " + window + "ms, heartbeat " + heartbeat + "ms");
+	    }
+
 	    // There's nothing we can possibly do at startup in subclasses
 	} finally {
 	    ThreadContext.pop();
@@ -165,12 +449,32 @@ public abstract class UdpLogger<E extends Number> extends AbstractLogger<E> {
 
 	// There's nothing we can possibly do at shutdown in subclasses
 
-	socket.close();
-	socket = null;
+	if (flusher != null) {
+
+	    flusher.shutdown();
+	    flusher.awaitTermination(coalesceWindow + 1000, TimeUnit.MILLISECONDS);
+	    flusher = null;
+
+	    // Samples arriving from now on are sent right away. The ones that got hold of the coalescer
+	    // before it was cleared are either accepted before it is closed, and sent below, or rejected
+	    // and sent by consume() itself.
+
+	    Coalescer current = coalescer;
+
+	    coalescer = null;
+	    current.close();
+
+	    // Whatever is left
+	    flush(current);
+	}
+
+	channel.close();
+	channel = null;
+	targets = null;
     }
 
     @Override
-    protected final void consume(String signature, DataSample<E> value) {
+    protected final void consume(Channel channel, DoubleDataSample value) {
 
 	if (!isEnabled()) {
 
@@ -181,19 +485,137 @@ public abstract class UdpLogger<E extends Number> extends AbstractLogger<E> {
 	    return;
 	}
 
-	StringBuilder sb = new StringBuilder();
+	Coalescer current = coalescer;
+
+	if (current != null && current.offer(value)) {
+	    return;
+	}
+
+	PacketBuffer packet = packetBuffer.get();
+
+	packet.reset();
 
-	writeHeader(sb);
-	writeData(sb, signature, value);
+	if (!packet.append((UdpChannel) channel, value)) {
+	    drop(channel.signature);
+	    return;
+	}
 
-	String packet = sb.toString();
+	transmit(packet);
+    }
 
-	logger.debug("Packet:\n" + packet);
-	logger.debug("Packet size: " + packet.length());
+    /**
+     * {@inheritDoc}
+     *
+     * The sample is sent right away in a packet of its own, bypassing the {@link #coalescer}.
+     *
+     * @exception IOException if the logger is not running, or the packet couldn't be sent to every target.
+     * @exception IllegalArgumentException if the sample doesn't fit into a packet.
+     */
+    @Override
+    protected final void deliver(Channel channel, DoubleDataSample value) throws IOException {
+
+	if (!isEnabled()) {
+	    throw new IOException("Not enabled");
+	}
+
+	PacketBuffer packet = packetBuffer.get();
+
+	packet.reset();
+
+	if (!packet.append((UdpChannel) channel, value)) {
+	    drop(channel.signature);
+	    throw new IllegalArgumentException("Packet for " + channel.signature + " is longer than " + MAX_PACKET_SIZE + " bytes");
+	}
+
+	packet.bytes.flip();
+
+	if (!send(packet.bytes)) {
+	    throw new IOException("Packet for " + channel.signature + " wasn't sent to every target");
+	}
+    }
+
+    /**
+     * Send the samples accumulated by the {@link #coalescer}.
+     *
+     * @param source Coalescer to drain.
+     */
+    private void flush(Coalescer source) {
 
 	try {
 
-	    send(packet);
+	    List<DoubleDataSample> batch = flushBuffer;
+	    boolean batching = isBatching();
+	    PacketBuffer packet = packetBuffer.get();
+
+	    source.drain(System.currentTimeMillis(), batch);
+	    packet.reset();
+
+	    for (DoubleDataSample sample : batch) {
+
+		String signature = sample.getSignature();
+		UdpChannel channel = (UdpChannel) getChannel(signature);
+
+		if (!packet.append(channel, sample)) {
+
+		    if (packet.blocks == 0) {
+			drop(signature);
+			continue;
+		    }
+
+		    // Doesn't fit, send what we have and start over
+
+		    transmit(packet);
+		    packet.reset();
+
+		    if (!packet.append(channel, sample)) {
+			drop(signature);
+			continue;
+		    }
+		}
+
+		if (!batching) {
+
+		    transmit(packet);
+		    packet.reset();
+		}
+	    }
+
+	    if (packet.blocks > 0) {
+		transmit(packet);
+	    }
+
+	    batch.clear();
+
+	} catch (Throwable t) { // NOSONAR Consequences have been considered
+
+	    // If this propagates, the flusher will stop running
+	    logger.error("flush() failed", t);
+	}
+    }
+
+    private void drop(String signature) {
+
+	dropped.incrementAndGet();
+	logger.warn("Packet for " + signature + " is longer than " + MAX_PACKET_SIZE + " bytes, dropped");
+    }
+
+    /**
+     * Send the packet out.
+     *
+     * @param packet Packet to send.
+     */
+    private void transmit(PacketBuffer packet) {
+
+	packet.bytes.flip();
+
+	if (logger.isDebugEnabled()) {
+	    logger.debug("Packet:\n" + StandardCharsets.UTF_8.decode(packet.bytes.duplicate()));
+	    logger.debug("Packet size: " + packet.bytes.limit());
+	}
+
+	try {
+
+	    send(packet.bytes);
 
 	} catch (IOException ex) {
 
@@ -202,132 +624,158 @@ public abstract class UdpLogger<E extends Number> extends AbstractLogger<E> {
 	}
     }
 
+    /**
+     * @return Number of packets dropped since startup.
+     */
+    @JmxAttribute(description = "Packets dropped because they were too long, or the socket was busy")
+    public final long getDropped() {
+	return dropped.get();
+    }
+
     /**
      * Write a protocol header.
+     *
+     * This is only called once, at {@link #startup() startup}, the result is cached.
      * 
      * @param sb String buffer to write the header to.
      */
     protected abstract void writeHeader(StringBuilder sb);
 
     /**
-     * Write a protocol data.
-     * 
-     * @param sb String buffer to write the header to.
-     * @param signature Channel signature to use.
-     * @param value Data value.
+     * Get the static part of a protocol data block for the channel, everything up to the value.
+     *
+     * This is only called once per channel, when it is created, the result is cached. The block is then completed
+     * with the value, the error line for error samples, the timestamp line, and the closing brace:
+     *
+     * <pre>
+     * &lt;head&gt;&lt;value&gt;
+     * error=&lt;error message&gt;
+     * timestamp=&lt;timestamp&gt;
+     * }
+     * </pre>
+     *
+     * @param name Human readable channel name.
+     * @param signature Channel signature.
+     * @return Block head.
      */
-    protected abstract void writeData(StringBuilder sb, String signature, DataSample<E> value);
+    protected abstract String getBlockHead(String name, String signature);
 
     /**
-     * Resolve a host address into a network address.
-     * 
-     * @param address Address to resolve.
-     * @return Class C network address corresponding to the given network address.
-     * 
-     * @throws UnknownHostException if the address cannot be resolved.
+     * Get the current broadcast targets, resolving them again if they're stale.
+     *
+     * @return Addresses to send the packets to.
+     * @throws SocketException if there was a problem talking to the network.
      */
-    private synchronized InetAddress resolveNetworkAddress(
-	    final InetAddress address) throws UnknownHostException {
+    private InetSocketAddress[] getTargetAddresses() throws SocketException {
 
-	if (address == null) {
-	    throw new IllegalArgumentException("address can't be null");
-	}
+	InetSocketAddress[] snapshot = targets;
 
-	// Let's see if we know how to handle it
+	if (snapshot != null && !isStale()) {
+	    return snapshot;
+	}
 
-	if (!(address instanceof Inet4Address)) {
+	synchronized (targetLock) {
 
-	    // nope
+	    // Somebody may have done it while we were waiting
 
-	    if (unsupported.contains(address)) {
+	    if (targets == null || isStale()) {
 
-		// I know, I know
-		return null;
+		targets = resolveTargets();
+		targetsResolvedAt = System.currentTimeMillis();
 	    }
 
-	    unsupported.add(address);
+	    return targets;
+	}
+    }
 
-	    // Let's tell them so they don't get confused about a disappeared
-	    // address
-	    logger
-		    .warn("Don't know how to handle address " + address
-			    + " - it's a " + address.getClass().getName()
-			    + ", skipped");
+    private boolean isStale() {
 
-	    // and now bail out
-	    return null;
-	}
+	long interval = targetRefreshInterval;
 
-	InetAddress result = host2network.get(address);
+	return interval > 0 && System.currentTimeMillis() - targetsResolvedAt > interval;
+    }
 
-	if (result == null) {
+    /**
+     * Enumerate the network interfaces and translate them into broadcast targets.
+     *
+     * Each IPv4 address of an interface that is up yields its network broadcast address, computed from the real
+     * network prefix length if the interface doesn't report it. Loopback interfaces are skipped. If the
+     * {@link #ipv6Group IPv6 multicast group} is set, every IPv6 capable multicast interface also yields this group,
+     * scoped to the interface.
+     *
+     * Must be called with {@link #targetLock} held.
+     *
+     * @return Unique target addresses.
+     * @throws SocketException if there was a problem talking to the network.
+     */
+    private InetSocketAddress[] resolveTargets() throws SocketException {
 
-	    // VT: FIXME: This is an interface address. We have to make it a
-	    // broadcast address. Code below is a copy'n'paste from
-	    // SimpleBroadcastServer. This will only work with class C
-	    // network.
+	Set<InetSocketAddress> result = new LinkedHashSet<InetSocketAddress>();
+	Inet6Address group = ipv6Group;
 
-	    // In some (unknown) circumstances, the algorithm below fails to
-	    // parse the address. Let's try to log what's going on
+	for (Enumeration<NetworkInterface> e = NetworkInterface.getNetworkInterfaces(); e != null && e.hasMoreElements();) {
+
+	    NetworkInterface ni = e.nextElement();
 
 	    try {
 
-		// VT: FIXME: This could've been done in a more elegant way
-		// if byte representation was used
+		if (!ni.isUp() || ni.isLoopback()) {
+		    continue;
+		}
 
-		StringTokenizer st = new StringTokenizer(address
-			.getHostAddress(), ".");
+		boolean ipv6 = false;
 
-		// VT: FIXME: Damn it, is it 0 or 255? I remember 255, but
-		// why does 0 work???
+		for (InterfaceAddress interfaceAddress : ni.getInterfaceAddresses()) {
 
-		String targetAddress = st.nextToken() + "." + st.nextToken()
-			+ "." + st.nextToken() + ".0";
+		    InetAddress address = interfaceAddress.getAddress();
 
-		result = InetAddress.getByName(targetAddress);
+		    if (address instanceof Inet4Address) {
 
-		logger.info("Host address " + address
-			+ " translated into network address " + result);
+			InetAddress broadcast = HostHelper.getBroadcastAddress(interfaceAddress);
 
-	    } catch (NoSuchElementException ex) {
+			logger.debug(ni.getName() + ": " + address + "/" + interfaceAddress.getNetworkPrefixLength() + " => " + broadcast);
 
-		logger.warn("Unable to parse address into components: "
-			+ address, ex);
-		logger.warn("Packets will be sent to interface (not network) address");
+			result.add(new InetSocketAddress(broadcast, port));
 
-		result = address;
-	    }
+		    } else if (address instanceof Inet6Address) {
 
-	    host2network.put(address, result);
+			ipv6 = true;
+		    }
+		}
+
+		if (group != null && ipv6 && ni.supportsMulticast()) {
+
+		    result.add(new InetSocketAddress(Inet6Address.getByAddress(null, group.getAddress(), ni), port));
+		}
+
+	    } catch (SocketException | UnknownHostException ex) {
+
+		// This interface may have gone away while we were looking at it, others may still be fine
+		logger.warn("Can't resolve broadcast address for " + ni.getName() + ", skipped", ex);
+	    }
 	}
 
-	return result;
+	logger.info("Broadcast targets: " + result);
+
+	return result.toArray(new InetSocketAddress[result.size()]);
     }
 
     /**
      * Send the message out.
      * 
-     * @param message Message to broadcast.
+     * @param data Encoded message to broadcast. The position and limit are preserved.
+     * @return {@code true} if the message was sent to every target.
      * @throws IOException If there was an I/O error.
      * @throws SocketException If there was a network problem.
      */
-    private void send(String message) throws IOException {
+    private boolean send(ByteBuffer data) throws IOException {
 
-	byte[] data = message.getBytes();
+	InetSocketAddress[] snapshot = getTargetAddresses();
 	int sent = 0;
 
-	for (Iterator<InetAddress> i = HostHelper.getLocalAddresses()
-		.iterator(); i.hasNext();) {
-
-	    InetAddress address = resolveNetworkAddress(i.next());
+	for (int offset = 0; offset < snapshot.length; offset++) {
 
-	    if (address == null) {
-		// This is OK, it'll happen if the address is not a v4 address
-		continue;
-	    }
-
-	    DatagramPacket packet = new DatagramPacket(data, message.length(),
-		    address, port);
+	    InetSocketAddress target = snapshot[offset];
 
 	    // This try/catch is to improve diagnostics: underlying
 	    // exceptions don't tell us much about where exactly the problem
@@ -336,32 +784,46 @@ public abstract class UdpLogger<E extends Number> extends AbstractLogger<E> {
 
 	    try {
 
-		socket.send(packet);
+		data.rewind();
+
+		if (channel.send(data, target) == 0) {
+
+		    // Non-blocking channel, the send buffer is full. Better lose a sample than stall the producer.
+
+		    dropped.incrementAndGet();
+		    logger.warn("Socket buffer full, packet to " + target + " dropped");
+		    continue;
+		}
+
 		sent++;
 
-		logger.debug("Sent packet to " + address + ":" + port);
+		if (logger.isDebugEnabled()) {
+		    logger.debug("Sent packet to " + target);
+		}
 
 	    } catch (IOException ioex) {
 
 		// We're not going to break it now, there may be more addresses
 		// to send stuff to
 
-		logger.warn("socket.send(" + address + ":" + port + ") failed", ioex);
+		logger.warn("channel.send(" + target + ") failed", ioex);
 	    }
 	}
 
 	if (sent == 0) {
 
 	    logger.error("Couldn't send a packet to any of the addresses, check your network setup: "
-			    + HostHelper.getLocalAddresses());
+			    + Arrays.toString(snapshot));
 	}
+
+	return sent > 0 && sent == snapshot.length;
     }
 
     @Override
-    protected final void createChannel(String name, String signature,
+    protected final Channel createChannel(String name, String signature,
 	    long timestamp) {
 
-	signature2name.put(signature, name);
+	return new UdpChannel(name, signature, getBlockHead(name, signature).getBytes(StandardCharsets.UTF_8));
     }
 
     /**
@@ -373,7 +835,9 @@ public abstract class UdpLogger<E extends Number> extends AbstractLogger<E> {
      */
     protected final String getChannelName(String signature) {
 
-	return signature2name.get(signature);
+	Channel channel = getChannel(signature);
+
+	return channel == null ? null : channel.name;
     }
 
     /**
@@ -416,14 +880,14 @@ public abstract class UdpLogger<E extends Number> extends AbstractLogger<E> {
      * @return The value as as a string representation of a number, or empty
      * string if the sample is an error sample.
      */
-    protected final String getValueString(DataSample<E> sample) {
+    protected final String getValueString(DoubleDataSample sample) {
 
 	if (sample.isError()) {
 
 	    return "";
 	}
 
-	return Double.toString(sample.sample.doubleValue());
+	return Double.toString(sample.getSample());
     }
 
     /**
@@ -438,7 +902,7 @@ public abstract class UdpLogger<E extends Number> extends AbstractLogger<E> {
      * prevent wasting valuable UDP packet space - I don't want
      * to fragment the packets...
      */
-    protected final String getErrorString(DataSample<E> sample) {
+    protected final String getErrorString(DoubleDataSample sample) {
 
 	if (!sample.isError()) {
 
@@ -446,30 +910,134 @@ public abstract class UdpLogger<E extends Number> extends AbstractLogger<E> {
 		    "You're not supposed to get the error string if the sample is not an error sample, call isError() first");
 	}
 
-	return normalize(sample.error.getMessage());
+	return normalize(sample.getError().getMessage());
     }
 
     /**
      * Get a timestamp for the given format.
      * 
      * @param time Time to get the timestamp for.
-     * @return Timestamp as a string, according to {@link #dateFormat date format used}.
+     * @return Timestamp as a string, according to {@link #timestampFormat date format used}.
      */
     protected final String getTimestamp(long time) {
 
-	String timestamp;
-	Date date = new Date(time);
+	return timestampFormat.format(time);
+    }
 
-	try {
-	    
-	    timestamp = new SimpleDateFormat(dateFormat).format(date);
-	    
-	} catch (Throwable t) {
-	    // This is bad, but better than nothing
-	    timestamp = date.toString();
+    /**
+     * Append a timestamp for the given format.
+     *
+     * Unlike {@link #getTimestamp(long)}, this doesn't allocate.
+     *
+     * @param sb String buffer to append the timestamp to.
+     * @param time Time to get the timestamp for.
+     */
+    protected final void appendTimestamp(StringBuilder sb, long time) {
+
+	timestampFormat.formatTo(time, sb);
+    }
+
+    /**
+     * Channel carrying the pre-encoded {@link #getBlockHead(String, String) block head}.
+     */
+    private static final class UdpChannel extends Channel {
+
+	/**
+	 * Everything in the data block up to the value, UTF-8.
+	 */
+	final byte[] head;
+
+	UdpChannel(String name, String signature, byte[] head) {
+
+	    super(name, signature);
+	    this.head = head;
+	}
+    }
+
+    /**
+     * Thread confined packet assembly area.
+     *
+     * The header and the data blocks are written straight into the direct {@link #bytes} buffer. The static part of
+     * every block comes pre-encoded from the {@link UdpChannel channel}, only the value, the timestamp and the error
+     * (if any) are rendered per sample, into reusable buffers. Nothing is allocated once the buffers are warmed up,
+     * except for the error samples.
+     */
+    private class PacketBuffer {
+
+	final ByteBuffer bytes = ByteBuffer.allocateDirect(MAX_PACKET_SIZE);
+	final StringBuilder value = new StringBuilder(32);
+	final StringBuilder timestamp = new StringBuilder(32);
+
+	/**
+	 * Number of data blocks {@link #append(UdpChannel, DoubleDataSample) appended} since the last {@link #reset()}.
+	 */
+	int blocks = 0;
+
+	/**
+	 * Start a new packet.
+	 */
+	void reset() {
+
+	    bytes.clear();
+	    bytes.put(header);
+	    blocks = 0;
+	}
+
+	/**
+	 * Add a data block to the packet.
+	 *
+	 * @return {@code false} if the block doesn't fit into {@link #MAX_PACKET_SIZE}. The packet is left intact.
+	 */
+	boolean append(UdpChannel channel, DoubleDataSample sample) {
+
+	    byte[] error = null;
+
+	    value.setLength(0);
+
+	    if (sample.isError()) {
+		error = String.valueOf(getErrorString(sample)).getBytes(StandardCharsets.UTF_8);
+	    } else {
+		value.append(sample.getSample());
+	    }
+
+	    timestamp.setLength(0);
+	    appendTimestamp(timestamp, sample.getTimestamp());
+
+	    // Both the value and the timestamp are ASCII
+
+	    int length = channel.head.length + value.length() + 1
+		    + (error == null ? 0 : ERROR_KEY.length + error.length + 1)
+		    + TIMESTAMP_KEY.length + timestamp.length() + BLOCK_END.length;
+
+	    if (length > bytes.remaining()) {
+		return false;
+	    }
+
+	    bytes.put(channel.head);
+	    putAscii(value);
+	    bytes.put((byte) '\n');
+
+	    if (error != null) {
+
+		bytes.put(ERROR_KEY);
+		bytes.put(error);
+		bytes.put((byte) '\n');
+	    }
+
+	    bytes.put(TIMESTAMP_KEY);
+	    putAscii(timestamp);
+	    bytes.put(BLOCK_END);
+
+	    blocks++;
+	    return true;
 	}
 
-	return timestamp;
+	private void putAscii(CharSequence text) {
+
+	    for (int offset = 0; offset < text.length(); offset++) {
+		bytes.put((byte) text.charAt(offset));
+	    }
+	}
     }
 
     /**
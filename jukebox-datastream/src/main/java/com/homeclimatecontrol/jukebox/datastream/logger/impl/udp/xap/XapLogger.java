@@ -3,7 +3,6 @@ package com.homeclimatecontrol.jukebox.datastream.logger.impl.udp.xap;
 import java.util.Set;
 
 import com.homeclimatecontrol.jukebox.datastream.logger.impl.udp.UdpLogger;
-import com.homeclimatecontrol.jukebox.datastream.signal.model.DataSample;
 import com.homeclimatecontrol.jukebox.datastream.signal.model.DataSource;
 import com.homeclimatecontrol.jukebox.jmx.JmxDescriptor;
 
@@ -60,30 +59,31 @@ public class XapLogger<E extends Number> extends UdpLogger<E> {
     }
 
     /**
-     * Write xAP body.
-     * 
-     * @param sb String buffer to append the body to.
-     * @param signature Signature to use.
-     * @param value Data sample value.
+     * xAP allows multiple blocks per message, so coalesced samples are packed together.
+     *
+     * @return {@code true}.
      */
     @Override
-    protected final void writeData(StringBuilder sb, String signature, DataSample<E> value) {
-
-	sb.append("dz.data-sample\n");
-	sb.append("{\n");
-
-	sb.append("channel.name=").append(getChannelName(signature)).append(
-		"\n");
-	sb.append("channel.signature=").append(signature).append("\n");
-	sb.append("channel.value=").append(getValueString(value)).append("\n");
+    protected final boolean isBatching() {
 
-	if (value.isError()) {
+	return true;
+    }
 
-	    sb.append("error=").append(getErrorString(value)).append("\n");
-	}
+    /**
+     * Get the xAP {@code dz.data-sample} block head.
+     * 
+     * @param name Channel name.
+     * @param signature Signature to use.
+     * @return Block head, up to the {@code channel.value} value.
+     */
+    @Override
+    protected final String getBlockHead(String name, String signature) {
 
-	sb.append("timestamp=").append(getTimestamp(value.timestamp)).append("\n");
-	sb.append("}\n");
+	return "dz.data-sample\n"
+		+ "{\n"
+		+ "channel.name=" + name + "\n"
+		+ "channel.signature=" + signature + "\n"
+		+ "channel.value=";
     }
 
     @Override
@@ -3,7 +3,6 @@ package com.homeclimatecontrol.jukebox.datastream.logger.impl.udp.xpl;
 import java.util.Set;
 
 import com.homeclimatecontrol.jukebox.datastream.logger.impl.udp.UdpLogger;
-import com.homeclimatecontrol.jukebox.datastream.signal.model.DataSample;
 import com.homeclimatecontrol.jukebox.datastream.signal.model.DataSource;
 import com.homeclimatecontrol.jukebox.jmx.JmxDescriptor;
 
@@ -58,20 +57,14 @@ public class XplLogger<E extends Number> extends UdpLogger<E> {
     }
 
     /**
-     * Write xPL body.
+     * Get the xPL {@code sensor.basic} block head. The sensor type is derived from the first character of the signature.
      * 
-     * @param sb String buffer to append to.
+     * @param name Channel name, not used.
      * @param signature Signature to use.
-     * @param value Data sample value.
+     * @return Block head, up to the {@code current} value.
      */
     @Override
-    protected final void writeData(StringBuilder sb, String signature,
-	    DataSample<E> value) {
-
-	sb.append("sensor.basic\n");
-	sb.append("{\n");
-
-	sb.append("device=").append(signature).append("\n");
+    protected final String getBlockHead(String name, String signature) {
 
 	String type = "unknown";
 
@@ -88,16 +81,11 @@ public class XplLogger<E extends Number> extends UdpLogger<E> {
 	    type = "pressure";
 	}
 
-	sb.append("type=").append(type).append("\n");
-	sb.append("current=").append(getValueString(value)).append("\n");
-
-	if (value.isError()) {
-
-	    sb.append("error=").append(getErrorString(value)).append("\n");
-	}
-
-	sb.append("timestamp=").append(getTimestamp(value.timestamp)).append("\n");
-	sb.append("}\n");
+	return "sensor.basic\n"
+		+ "{\n"
+		+ "device=" + signature + "\n"
+		+ "type=" + type + "\n"
+		+ "current=";
     }
 
     @Override
@@ -1,7 +1,11 @@
 package com.homeclimatecontrol.jukebox.datastream.logger.model;
 
+import java.io.IOException;
+
 import com.homeclimatecontrol.jukebox.datastream.logger.impl.AbstractLogger;
 import com.homeclimatecontrol.jukebox.datastream.signal.model.DataSink;
+import com.homeclimatecontrol.jukebox.datastream.signal.model.DoubleDataSample;
+import com.homeclimatecontrol.jukebox.datastream.signal.model.DoubleDataSink;
 
 /**
  * A universal data logger.
@@ -12,10 +16,35 @@ import com.homeclimatecontrol.jukebox.datastream.signal.model.DataSink;
  * Also unlike the previous incarnation, this logger is not responsible for creating graphs - a different module will be
  * doing that.
  *
+ * {@link #consume(com.homeclimatecontrol.jukebox.datastream.signal.model.DataSample) Consuming} a sample is fire and
+ * forget: a logger that fails to log it complains and moves on, there's nothing the producer could do about it anyway.
+ * Callers that do care, and are prepared to retry, {@link #deliver(DoubleDataSample) deliver} the sample instead.
+ *
  * @param <E> Data type to log.
  *
  * @author Copyright &copy; <a href="mailto:vt@homeclimatecontrol.com">Vadim Tkachenko</a> 2005-2008
  */
 public interface DataLogger<E extends Number> extends DataSink<E> {
 
+    /**
+     * Log the sample, and report the failure to do so instead of swallowing it.
+     *
+     * The default implementation is plain {@link DoubleDataSink#consume(DoubleDataSample) consumption}, which is only
+     * good enough for loggers that don't swallow failures there. Loggers that can report a failure override it, and
+     * loggers that are not {@link DoubleDataSink primitive sinks} have to.
+     *
+     * @param sample Sample to log.
+     * @exception IOException if the sample couldn't be logged this time, but may be logged if tried again later.
+     * @exception IllegalArgumentException if the sample can't be logged by this logger, ever.
+     * @exception UnsupportedOperationException if the logger is not a {@link DoubleDataSink} and doesn't override
+     * this method.
+     */
+    default void deliver(DoubleDataSample sample) throws IOException {
+
+        if (!(this instanceof DoubleDataSink)) {
+            throw new UnsupportedOperationException(getClass().getName() + " can't consume primitive samples");
+        }
+
+        ((DoubleDataSink) this).consume(sample);
+    }
 }
@@ -0,0 +1,42 @@
+package com.homeclimatecontrol.jukebox.datastream.pipeline;
+
+import com.homeclimatecontrol.jukebox.datastream.signal.model.DataSample;
+
+/**
+ * A stateless pipeline stage.
+ *
+ * Consecutive operators are {@link #andThen(Operator) fused} into one, so that a chain of them costs a chain of method
+ * calls per sample, not a dispatch through a broadcaster per stage.
+ *
+ * @param <I> Input data type.
+ * @param <O> Output data type.
+ * @author Copyright &copy; <a href="mailto:vt@homeclimatecontrol.com">Vadim Tkachenko</a> 2026
+ */
+@FunctionalInterface
+public interface Operator<I, O> {
+
+    /**
+     * Transform the sample.
+     *
+     * @param sample Sample to transform.
+     * @return Transformed sample, or {@code null} if the sample is to be dropped.
+     */
+    DataSample<O> apply(DataSample<I> sample);
+
+    /**
+     * Fuse this operator with the next one.
+     *
+     * @param next Operator to apply to the output of this one.
+     * @param <R> Output data type of the next operator.
+     * @return Operator applying both, and stopping as soon as the sample is dropped.
+     */
+    default <R> Operator<I, R> andThen(Operator<O, R> next) {
+
+        return sample -> {
+
+            DataSample<O> intermediate = apply(sample);
+
+            return intermediate == null ? null : next.apply(intermediate);
+        };
+    }
+}
@@ -0,0 +1,382 @@
+package com.homeclimatecontrol.jukebox.datastream.pipeline;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import com.homeclimatecontrol.jukebox.datastream.logger.impl.DataBroadcaster;
+import com.homeclimatecontrol.jukebox.datastream.signal.impl.DeadbandFilter;
+import com.homeclimatecontrol.jukebox.datastream.signal.impl.WindowAggregator;
+import com.homeclimatecontrol.jukebox.datastream.signal.model.DataSample;
+import com.homeclimatecontrol.jukebox.datastream.signal.model.DataSink;
+import com.homeclimatecontrol.jukebox.datastream.signal.model.DataSource;
+import com.homeclimatecontrol.jukebox.datastream.signal.model.WindowStatistics;
+
+/**
+ * Fluent composition of operators over a {@link DataSource}.
+ *
+ * Stateless operators ({@link #filter(Predicate)}, {@link #map(Function)} and the like) don't create intermediate
+ * sinks and broadcasters - they are {@link Operator#andThen(Operator) fused} into a single stage that is subscribed to
+ * the upstream source only when the pipeline gets its first consumer, and unsubscribed when the last one is removed.
+ * Stateful operators ({@link #window(Pipeline, long, long, int, double[])}, {@link #deadband(Pipeline, double, long,
+ * long)}, {@link #join(Pipeline, long, String, BiFunction)}) end the fused stage and start a new one; they, too, are
+ * subscribed to their upstream pipelines only while somebody consumes their output. The operators that only make sense
+ * for {@link Number numbers} are static, so they can't be applied to a pipeline of anything else.
+ *
+ * Pipelines are immutable; every operator returns a new one, so a pipeline can be branched. Every branch is fused
+ * separately, though, so the operators before the branching point are applied once per branch.
+ *
+ * <pre>
+ * Pipeline.from(source)
+ *     .signature("T1")
+ *     .map(c -&gt; c * 9 / 5 + 32)
+ *     .rename("T1F")
+ *     .to(logger);
+ * </pre>
+ *
+ * @param <E> Data type this pipeline produces.
+ * @author Copyright &copy; <a href="mailto:vt@homeclimatecontrol.com">Vadim Tkachenko</a> 2026
+ */
+public final class Pipeline<E> implements DataSource<E> {
+
+    private final Stage<?, E> stage;
+
+    /**
+     * Fused sequence of stateless operators applied to the samples from one source.
+     *
+     * @param <S> Source data type.
+     * @param <E> Output data type.
+     */
+    private static final class Stage<S, E> implements DataSink<S> {
+
+        final DataSource<S> upstream;
+        final Operator<S, E> operator;
+        final DataBroadcaster<E> broadcaster = new DataBroadcaster<>(null, 0, null);
+
+        /**
+         * Whether this stage is subscribed to the upstream source. Guarded by this.
+         */
+        private boolean attached = false;
+
+        Stage(DataSource<S> upstream, Operator<S, E> operator) {
+
+            this.upstream = upstream;
+            this.operator = operator;
+        }
+
+        <R> Stage<S, R> andThen(Operator<E, R> next) {
+            return new Stage<>(upstream, operator.andThen(next));
+        }
+
+        @Override
+        public void consume(DataSample<S> signal) {
+
+            DataSample<E> result = operator.apply(signal);
+
+            if (result != null) {
+                broadcaster.broadcast(result);
+            }
+        }
+
+        /**
+         * Add a consumer, and subscribe to the upstream source if not yet subscribed.
+         */
+        synchronized void add(DataSink<E> consumer) {
+
+            broadcaster.addConsumer(consumer);
+            attach();
+        }
+
+        /**
+         * Remove a consumer, and unsubscribe from the upstream source if it was the last one.
+         */
+        synchronized void remove(DataSink<E> consumer) {
+
+            broadcaster.removeConsumer(consumer);
+
+            if (broadcaster.getConsumerCount() == 0) {
+                detach();
+            }
+        }
+
+        synchronized void attach() {
+
+            if (!attached) {
+                upstream.addConsumer(this);
+                attached = true;
+            }
+        }
+
+        synchronized void detach() {
+
+            if (attached) {
+                upstream.removeConsumer(this);
+                attached = false;
+            }
+        }
+    }
+
+    /**
+     * Output of a stateful operator, connected to its upstream pipelines only while it has consumers.
+     *
+     * @param <R> Output data type.
+     */
+    private static final class StatefulSource<R> implements DataSource<R> {
+
+        final DataSource<R> target;
+        final Runnable connect;
+        final Runnable disconnect;
+
+        /**
+         * Consumers added so far. Guarded by this.
+         */
+        private final Set<DataSink<R>> consumers = new HashSet<>();
+
+        /**
+         * @param target Stateful operator.
+         * @param connect Subscribe the operator to its upstream pipelines.
+         * @param disconnect Unsubscribe the operator from its upstream pipelines.
+         */
+        StatefulSource(DataSource<R> target, Runnable connect, Runnable disconnect) {
+
+            this.target = target;
+            this.connect = connect;
+            this.disconnect = disconnect;
+        }
+
+        @Override
+        public synchronized void addConsumer(DataSink<R> consumer) {
+
+            target.addConsumer(consumer);
+
+            if (consumers.add(consumer) && consumers.size() == 1) {
+                connect.run();
+            }
+        }
+
+        @Override
+        public synchronized void removeConsumer(DataSink<R> consumer) {
+
+            target.removeConsumer(consumer);
+
+            if (consumers.remove(consumer) && consumers.isEmpty()) {
+                disconnect.run();
+            }
+        }
+    }
+
+    private Pipeline(Stage<?, E> stage) {
+        this.stage = stage;
+    }
+
+    /**
+     * Start a pipeline.
+     *
+     * @param source Source to take the samples from.
+     * @param <E> Data type the source produces.
+     * @return Pipeline passing through everything the source produces.
+     */
+    public static <E> Pipeline<E> from(DataSource<E> source) {
+
+        if (source == null) {
+            throw new IllegalArgumentException("source can't be null");
+        }
+
+        return new Pipeline<>(new Stage<>(source, sample -> sample));
+    }
+
+    /**
+     * Append a custom stateless operator.
+     *
+     * @param operator Operator to append.
+     * @param <R> Output data type.
+     * @return New pipeline.
+     */
+    public <R> Pipeline<R> through(Operator<E, R> operator) {
+
+        if (operator == null) {
+            throw new IllegalArgumentException("operator can't be null");
+        }
+
+        return new Pipeline<>(stage.andThen(operator));
+    }
+
+    /**
+     * Pass through only the samples matching the predicate.
+     *
+     * @param predicate Predicate to test the samples with.
+     * @return New pipeline.
+     */
+    public Pipeline<E> filter(Predicate<? super DataSample<E>> predicate) {
+        return through(sample -> predicate.test(sample) ? sample : null);
+    }
+
+    /**
+     * Pass through only the samples with the given signature.
+     *
+     * @param signature Signature to pass through.
+     * @return New pipeline.
+     */
+    public Pipeline<E> signature(String signature) {
+        return filter(sample -> sample.signature.equals(signature));
+    }
+
+    /**
+     * Drop the error samples.
+     *
+     * @return New pipeline.
+     */
+    public Pipeline<E> dropErrors() {
+        return filter(sample -> !sample.isError());
+    }
+
+    /**
+     * Transform the sample values. Error samples are passed through as is.
+     *
+     * @param mapper Function to transform the values with. If it returns {@code null}, the sample is dropped.
+     * @param <R> Output data type.
+     * @return New pipeline.
+     */
+    public <R> Pipeline<R> map(Function<? super E, ? extends R> mapper) {
+
+        if (mapper == null) {
+            throw new IllegalArgumentException("mapper can't be null");
+        }
+
+        return through(sample -> {
+
+            if (sample.isError()) {
+                return new DataSample<>(sample.timestamp, sample.sourceName, sample.signature, null, sample.error);
+            }
+
+            R value = mapper.apply(sample.sample);
+
+            return value == null ? null : new DataSample<>(sample.timestamp, sample.sourceName, sample.signature, value, null);
+        });
+    }
+
+    /**
+     * Change the signature of the samples, to publish a derived signal.
+     *
+     * @param signature New signature.
+     * @return New pipeline.
+     */
+    public Pipeline<E> rename(String signature) {
+
+        if (signature == null || "".equals(signature)) {
+            throw new IllegalArgumentException("signature can't be empty");
+        }
+
+        return through(sample -> new DataSample<>(sample.timestamp, sample.sourceName, signature, sample.sample, sample.error));
+    }
+
+    /**
+     * Compute the windowed statistics.
+     *
+     * @param source Pipeline to take the samples from.
+     * @param window Window length, milliseconds.
+     * @param hop How far the window advances, milliseconds.
+     * @param capacity Maximum number of samples per signature within a window.
+     * @param percentileLevels Percentiles to compute, 0 to 100.
+     * @param <N> Data type of the source pipeline.
+     * @return New pipeline producing the statistics.
+     * @see WindowAggregator
+     */
+    public static <N extends Number> Pipeline<WindowStatistics> window(Pipeline<N> source, long window, long hop, int capacity, double[] percentileLevels) {
+
+        WindowAggregator<N> aggregator = new WindowAggregator<>(window, hop, capacity, percentileLevels, new DataBroadcaster<>(null, 0, null));
+
+        return from(new StatefulSource<>(
+                aggregator,
+                () -> source.addConsumer(aggregator),
+                () -> source.removeConsumer(aggregator)));
+    }
+
+    /**
+     * Pass through only the samples that carry new information.
+     *
+     * @param source Pipeline to take the samples from.
+     * @param deadband Deadband, absolute.
+     * @param minInterval Minimum interval between samples passed through, milliseconds.
+     * @param heartbeat Interval after which an unchanged sample is passed through anyway, milliseconds.
+     * @param <N> Data type of the source pipeline.
+     * @return New pipeline.
+     * @see DeadbandFilter
+     */
+    public static <N extends Number> Pipeline<N> deadband(Pipeline<N> source, double deadband, long minInterval, long heartbeat) {
+
+        DeadbandFilter<N> filter = new DeadbandFilter<>(deadband, minInterval, heartbeat);
+
+        return from(new StatefulSource<>(
+                filter,
+                () -> source.addConsumer(filter),
+                () -> source.removeConsumer(filter)));
+    }
+
+    /**
+     * Combine this pipeline with another one, pairing the samples close enough in time.
+     *
+     * @param other Pipeline to join with.
+     * @param tolerance Maximum difference between the sample timestamps, milliseconds.
+     * @param signature Signature for the output samples.
+     * @param combiner Function to combine the values with. A {@code null} result drops the sample.
+     * @param <F> Data type of the other pipeline.
+     * @param <R> Output data type.
+     * @return New pipeline.
+     * @see TimeAlignedJoin
+     */
+    public <F, R> Pipeline<R> join(Pipeline<F> other, long tolerance, String signature, BiFunction<? super E, ? super F, ? extends R> combiner) {
+
+        TimeAlignedJoin<E, F, R> join = new TimeAlignedJoin<>(tolerance, signature, combiner);
+
+        return from(new StatefulSource<>(
+                join,
+                () -> {
+                    addConsumer(join.leftSink);
+                    other.addConsumer(join.rightSink);
+                },
+                () -> {
+                    removeConsumer(join.leftSink);
+                    other.removeConsumer(join.rightSink);
+                }));
+    }
+
+    /**
+     * Add a consumer.
+     *
+     * @param consumer Consumer to add.
+     * @return This pipeline, for adding more consumers.
+     */
+    public Pipeline<E> to(DataSink<E> consumer) {
+
+        addConsumer(consumer);
+
+        return this;
+    }
+
+    /**
+     * Add a consumer, and subscribe to the upstream source if not yet subscribed.
+     */
+    @Override
+    public void addConsumer(DataSink<E> consumer) {
+        stage.add(consumer);
+    }
+
+    /**
+     * Remove a consumer, and unsubscribe from the upstream source if it was the last one.
+     */
+    @Override
+    public void removeConsumer(DataSink<E> consumer) {
+        stage.remove(consumer);
+    }
+
+    /**
+     * Unsubscribe from the upstream source. Consumers stay, and the pipeline is subscribed again when another one is
+     * added.
+     */
+    public void detach() {
+        stage.detach();
+    }
+}
@@ -0,0 +1,124 @@
+package com.homeclimatecontrol.jukebox.datastream.pipeline;
+
+import java.util.function.BiFunction;
+
+import com.homeclimatecontrol.jukebox.datastream.logger.impl.DataBroadcaster;
+import com.homeclimatecontrol.jukebox.datastream.signal.model.DataSample;
+import com.homeclimatecontrol.jukebox.datastream.signal.model.DataSink;
+import com.homeclimatecontrol.jukebox.datastream.signal.model.DataSource;
+
+/**
+ * Combines two streams into one by pairing samples that are close enough in time.
+ *
+ * Whenever a sample arrives on either side, it is paired with the latest sample from the other side, provided their
+ * timestamps are no further apart than the tolerance. The result carries the later of the two timestamps and the
+ * output signature. If either of the pair is an error, the result is an error, too.
+ *
+ * @param <L> Left side data type.
+ * @param <R> Right side data type.
+ * @param <O> Output data type.
+ * @author Copyright &copy; <a href="mailto:vt@homeclimatecontrol.com">Vadim Tkachenko</a> 2026
+ */
+public class TimeAlignedJoin<L, R, O> implements DataSource<O> {
+
+    private final long tolerance;
+    private final String signature;
+    private final BiFunction<? super L, ? super R, ? extends O> combiner;
+    private final DataBroadcaster<O> broadcaster = new DataBroadcaster<>(null, 0, null);
+
+    private DataSample<L> left;
+    private DataSample<R> right;
+
+    /**
+     * Sink to feed the left side samples to.
+     */
+    public final DataSink<L> leftSink = this::consumeLeft;
+
+    /**
+     * Sink to feed the right side samples to.
+     */
+    public final DataSink<R> rightSink = this::consumeRight;
+
+    /**
+     * Create an instance.
+     *
+     * @param tolerance Maximum difference between the sample timestamps, milliseconds.
+     * @param signature Signature for the output samples.
+     * @param combiner Function to combine the left and right values with. A {@code null} result drops the sample.
+     */
+    public TimeAlignedJoin(long tolerance, String signature, BiFunction<? super L, ? super R, ? extends O> combiner) {
+
+        if (tolerance < 0) {
+            throw new IllegalArgumentException("tolerance must be non-negative (" + tolerance + " given)");
+        }
+
+        if (signature == null || "".equals(signature)) {
+            throw new IllegalArgumentException("signature can't be empty");
+        }
+
+        if (combiner == null) {
+            throw new IllegalArgumentException("combiner can't be null");
+        }
+
+        this.tolerance = tolerance;
+        this.signature = signature;
+        this.combiner = combiner;
+    }
+
+    private void consumeLeft(DataSample<L> sample) {
+
+        DataSample<R> other;
+
+        synchronized (this) {
+            left = sample;
+            other = right;
+        }
+
+        emit(sample, other);
+    }
+
+    private void consumeRight(DataSample<R> sample) {
+
+        DataSample<L> other;
+
+        synchronized (this) {
+            right = sample;
+            other = left;
+        }
+
+        emit(other, sample);
+    }
+
+    private void emit(DataSample<L> l, DataSample<R> r) {
+
+        if (l == null || r == null || Math.abs(l.timestamp - r.timestamp) > tolerance) {
+            return;
+        }
+
+        long timestamp = Math.max(l.timestamp, r.timestamp);
+
+        if (l.isError() || r.isError()) {
+            broadcaster.broadcast(new DataSample<>(timestamp, "join", signature, null, l.isError() ? l.error : r.error));
+            return;
+        }
+
+        O value = combiner.apply(l.sample, r.sample);
+
+        if (value == null) {
+            // Dropped, same as Pipeline.map() does
+            return;
+        }
+
+        broadcaster.broadcast(new DataSample<>(timestamp, "join", signature, value, null));
+    }
+
+    @Override
+    public void addConsumer(DataSink<O> consumer) {
+        broadcaster.addConsumer(consumer);
+    }
+
+    @Override
+    public void removeConsumer(DataSink<O> consumer) {
+        broadcaster.removeConsumer(consumer);
+    }
+}
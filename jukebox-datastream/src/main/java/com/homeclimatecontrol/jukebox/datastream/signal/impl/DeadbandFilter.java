@@ -0,0 +1,251 @@
+package com.homeclimatecontrol.jukebox.datastream.signal.impl;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.homeclimatecontrol.jukebox.datastream.logger.impl.DataBroadcaster;
+import com.homeclimatecontrol.jukebox.datastream.logger.impl.DoubleDataBroadcaster;
+import com.homeclimatecontrol.jukebox.datastream.signal.model.DataSample;
+import com.homeclimatecontrol.jukebox.datastream.signal.model.DataSink;
+import com.homeclimatecontrol.jukebox.datastream.signal.model.DataSource;
+import com.homeclimatecontrol.jukebox.datastream.signal.model.DoubleDataSample;
+import com.homeclimatecontrol.jukebox.datastream.signal.model.DoubleDataSink;
+import com.homeclimatecontrol.jukebox.datastream.signal.model.DoubleDataSource;
+import com.homeclimatecontrol.jukebox.jmx.JmxAttribute;
+import com.homeclimatecontrol.jukebox.jmx.JmxAware;
+import com.homeclimatecontrol.jukebox.jmx.JmxDescriptor;
+import com.homeclimatecontrol.jukebox.logger.LogAware;
+
+/**
+ * Passes through only the samples that carry new information.
+ *
+ * For every signature, a sample is passed through if:
+ *
+ * <ul>
+ * <li>it is the first one, or
+ * <li>its value differs from the last value passed through by more than the deadband, or
+ * <li>it is an error and the last sample passed through wasn't, or vice versa, or
+ * <li>the heartbeat interval has elapsed since the last sample was passed through,
+ * </ul>
+ *
+ * and, unless it changes the error state, if at least the minimum interval has elapsed since the last sample was
+ * passed through (rate limit). Everything else is dropped.
+ *
+ * The filter works both for {@link DataSample boxed} and {@link DoubleDataSample primitive} samples, they are passed
+ * through to the consumers of the same kind. The per signature state is kept in primitive fields of a slot object,
+ * one per signature, and is locked per slot, so samples with different signatures never contend with each other or
+ * with the JMX getters.
+ *
+ * @param <E> Data type to handle.
+ * @author Copyright &copy; <a href="mailto:vt@homeclimatecontrol.com">Vadim Tkachenko</a> 2026
+ */
+public class DeadbandFilter<E extends Number> extends LogAware implements DataSink<E>, DataSource<E>, DoubleDataSink, DoubleDataSource, JmxAware {
+
+    /**
+     * Per signature state. Guarded by the slot's own lock.
+     */
+    private static final class Slot {
+
+        double deadband;
+        double lastValue;
+        long lastSent;
+        boolean lastError;
+        boolean sent = false;
+
+        Slot(double deadband) {
+            this.deadband = deadband;
+        }
+    }
+
+    private final double defaultDeadband;
+    private final long minInterval;
+    private final long heartbeat;
+
+    private final DataBroadcaster<E> broadcaster;
+    private final DoubleDataBroadcaster doubleBroadcaster;
+
+    private final ConcurrentMap<String, Slot> slots = new ConcurrentHashMap<>();
+
+    private final LongAdder passed = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    /**
+     * Create an instance with synchronous delivery.
+     *
+     * @param deadband Default deadband, absolute. Changes not exceeding it are dropped.
+     * @param minInterval Minimum interval between samples passed through, milliseconds. Zero disables rate limiting.
+     * @param heartbeat Interval after which an unchanged sample is passed through anyway, milliseconds. Zero
+     * disables the heartbeat.
+     */
+    public DeadbandFilter(double deadband, long minInterval, long heartbeat) {
+        this(deadband, minInterval, heartbeat, new DataBroadcaster<>(null, 0, null), new DoubleDataBroadcaster());
+    }
+
+    /**
+     * Create an instance.
+     *
+     * @param deadband Default deadband, absolute. Changes not exceeding it are dropped.
+     * @param minInterval Minimum interval between samples passed through, milliseconds. Zero disables rate limiting.
+     * @param heartbeat Interval after which an unchanged sample is passed through anyway, milliseconds. Zero
+     * disables the heartbeat.
+     * @param broadcaster Broadcaster to pass the boxed samples through.
+     * @param doubleBroadcaster Broadcaster to pass the primitive samples through.
+     */
+    public DeadbandFilter(double deadband, long minInterval, long heartbeat, DataBroadcaster<E> broadcaster, DoubleDataBroadcaster doubleBroadcaster) {
+
+        if (!(deadband >= 0)) {
+            throw new IllegalArgumentException("deadband must be non-negative (" + deadband + " given)");
+        }
+
+        if (broadcaster == null || doubleBroadcaster == null) {
+            throw new IllegalArgumentException("broadcasters can't be null");
+        }
+
+        this.defaultDeadband = deadband;
+        this.minInterval = minInterval;
+        this.heartbeat = heartbeat;
+        this.broadcaster = broadcaster;
+        this.doubleBroadcaster = doubleBroadcaster;
+    }
+
+    /**
+     * Set the deadband for a particular signature.
+     *
+     * @param signature Signature to set the deadband for.
+     * @param deadband Deadband, absolute.
+     */
+    public void setDeadband(String signature, double deadband) {
+
+        if (!(deadband >= 0)) {
+            throw new IllegalArgumentException("deadband must be non-negative (" + deadband + " given)");
+        }
+
+        Slot slot = slot(signature);
+
+        synchronized (slot) {
+            slot.deadband = deadband;
+        }
+    }
+
+    @Override
+    public void consume(DataSample<E> signal) {
+
+        if (accept(signal.signature, signal.timestamp, signal.isError() ? Double.NaN : signal.sample.doubleValue(), signal.isError())) {
+            broadcaster.broadcast(signal);
+        }
+    }
+
+    @Override
+    public void consume(DoubleDataSample signal) {
+
+        if (accept(signal.getSignature(), signal.getTimestamp(), signal.getSample(), signal.isError())) {
+            doubleBroadcaster.broadcast(signal);
+        }
+    }
+
+    /**
+     * Decide whether the sample is to be passed through, and remember it if it is.
+     *
+     * @return {@code true} if the sample is to be passed through.
+     */
+    private boolean accept(String signature, long timestamp, double value, boolean error) {
+
+        Slot slot = slot(signature);
+        boolean pass;
+
+        synchronized (slot) {
+            pass = accept(slot, timestamp, value, error);
+        }
+
+        if (pass) {
+            passed.increment();
+        } else {
+            dropped.increment();
+        }
+
+        return pass;
+    }
+
+    /**
+     * Make the decision. Must be called with the slot lock held.
+     */
+    private boolean accept(Slot slot, long timestamp, double value, boolean error) {
+
+        if (!slot.sent || slot.lastError != error) {
+            return pass(slot, timestamp, value, error);
+        }
+
+        long elapsed = timestamp - slot.lastSent;
+
+        if (elapsed < minInterval) {
+            return false;
+        }
+
+        if ((heartbeat > 0 && elapsed >= heartbeat) || (!error && Math.abs(value - slot.lastValue) > slot.deadband)) {
+            return pass(slot, timestamp, value, error);
+        }
+
+        return false;
+    }
+
+    private static boolean pass(Slot slot, long timestamp, double value, boolean error) {
+
+        slot.lastValue = value;
+        slot.lastSent = timestamp;
+        slot.lastError = error;
+        slot.sent = true;
+
+        return true;
+    }
+
+    /**
+     * Get the state for the signature, creating it if necessary.
+     */
+    private Slot slot(String signature) {
+
+        Slot slot = slots.get(signature);
+
+        return slot != null ? slot : slots.computeIfAbsent(signature, k -> new Slot(defaultDeadband));
+    }
+
+    @Override
+    public void addConsumer(DataSink<E> consumer) {
+        broadcaster.addConsumer(consumer);
+    }
+
+    @Override
+    public void removeConsumer(DataSink<E> consumer) {
+        broadcaster.removeConsumer(consumer);
+    }
+
+    @Override
+    public void addConsumer(DoubleDataSink consumer) {
+        doubleBroadcaster.addConsumer(consumer);
+    }
+
+    @Override
+    public void removeConsumer(DoubleDataSink consumer) {
+        doubleBroadcaster.removeConsumer(consumer);
+    }
+
+    @JmxAttribute(description = "Samples passed through")
+    public long getPassed() {
+        return passed.sum();
+    }
+
+    @JmxAttribute(description = "Samples dropped")
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    @JmxAttribute(description = "Number of signatures seen")
+    public int getSignatureCount() {
+        return slots.size();
+    }
+
+    @Override
+    public JmxDescriptor getJmxDescriptor() {
+        return new JmxDescriptor("jukebox", getClass().getSimpleName(), Integer.toHexString(hashCode()), "Deadband filter");
+    }
+}
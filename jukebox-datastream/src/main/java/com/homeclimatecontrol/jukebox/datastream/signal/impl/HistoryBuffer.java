@@ -0,0 +1,269 @@
+package com.homeclimatecontrol.jukebox.datastream.signal.impl;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.StampedLock;
+
+import com.homeclimatecontrol.jukebox.datastream.signal.model.DataSample;
+import com.homeclimatecontrol.jukebox.datastream.signal.model.DataSink;
+import com.homeclimatecontrol.jukebox.datastream.signal.model.DoubleDataSample;
+import com.homeclimatecontrol.jukebox.datastream.signal.model.DoubleDataSink;
+import com.homeclimatecontrol.jukebox.datastream.signal.model.SampleHistory;
+import com.homeclimatecontrol.jukebox.jmx.JmxAttribute;
+import com.homeclimatecontrol.jukebox.jmx.JmxAware;
+import com.homeclimatecontrol.jukebox.jmx.JmxDescriptor;
+import com.homeclimatecontrol.jukebox.logger.LogAware;
+
+/**
+ * Keeps the most recent samples for every signature in memory.
+ *
+ * Every signature gets a fixed size ring of {@code long} timestamps and {@code double} values, allocated when the
+ * signature is first seen. Once the total size of the rings reaches the memory budget, samples with new signatures
+ * are rejected.
+ *
+ * Writes to a ring are serialized. Reads don't block the writer: the ring is copied optimistically and the copy is
+ * discarded and repeated if a write has happened in the meantime, falling back to a read lock only if that keeps
+ * happening.
+ *
+ * @param <E> Data type to handle.
+ * @author Copyright &copy; <a href="mailto:vt@homeclimatecontrol.com">Vadim Tkachenko</a> 2026
+ */
+public class HistoryBuffer<E extends Number> extends LogAware implements DataSink<E>, DoubleDataSink, JmxAware {
+
+    /**
+     * Memory taken by a single sample in the ring.
+     */
+    static final int SAMPLE_SIZE = Long.BYTES + Double.BYTES;
+
+    /**
+     * How many times to try an optimistic read before falling back to the read lock.
+     */
+    private static final int OPTIMISTIC_ATTEMPTS = 3;
+
+    private final int capacity;
+    private final long memoryBudget;
+    private final int maxSignatures;
+
+    private final ConcurrentMap<String, Ring> rings = new ConcurrentHashMap<>();
+
+    /**
+     * Number of rings allocated, never exceeds {@link #maxSignatures}.
+     */
+    private final AtomicInteger allocated = new AtomicInteger();
+
+    private final AtomicLong rejected = new AtomicLong();
+
+    /**
+     * Per signature sample history.
+     */
+    private static final class Ring {
+
+        final StampedLock lock = new StampedLock();
+        final long[] timestamps;
+        final double[] values;
+
+        /**
+         * Total number of samples ever written. The next sample goes to {@code next % capacity}.
+         */
+        long next = 0;
+
+        Ring(int capacity) {
+
+            timestamps = new long[capacity];
+            values = new double[capacity];
+        }
+
+        void add(long timestamp, double value) {
+
+            long stamp = lock.writeLock();
+
+            try {
+
+                int index = (int) (next % timestamps.length);
+
+                timestamps[index] = timestamp;
+                values[index] = value;
+                next++;
+
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        SampleHistory read(String signature, long since) {
+
+            for (int attempt = 0; attempt < OPTIMISTIC_ATTEMPTS; attempt++) {
+
+                long stamp = lock.tryOptimisticRead();
+
+                if (stamp == 0) {
+                    // Write in progress
+                    Thread.onSpinWait();
+                    continue;
+                }
+
+                SampleHistory result = copy(signature, since);
+
+                if (lock.validate(stamp)) {
+                    return result;
+                }
+            }
+
+            long stamp = lock.readLock();
+
+            try {
+                return copy(signature, since);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        /**
+         * Copy the samples out. May be called without holding the lock, so must not fail on inconsistent data.
+         */
+        private SampleHistory copy(String signature, long since) {
+
+            int length = timestamps.length;
+            long last = next;
+            int available = (int) Math.min(last, length);
+            int count = 0;
+
+            while (count < available && timestamps[(int) ((last - 1 - count) % length)] >= since) {
+                count++;
+            }
+
+            long[] t = new long[count];
+            double[] v = new double[count];
+
+            for (int offset = 0; offset < count; offset++) {
+
+                int index = (int) ((last - count + offset) % length);
+
+                t[offset] = timestamps[index];
+                v[offset] = values[index];
+            }
+
+            return new SampleHistory(signature, t, v);
+        }
+    }
+
+    /**
+     * Create an instance.
+     *
+     * @param capacity Number of samples to keep per signature.
+     * @param memoryBudget Maximum amount of memory for all the signatures combined, in bytes.
+     */
+    public HistoryBuffer(int capacity, long memoryBudget) {
+
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive (" + capacity + " given)");
+        }
+
+        long perSignature = (long) capacity * SAMPLE_SIZE;
+
+        if (memoryBudget < perSignature) {
+            throw new IllegalArgumentException("memoryBudget of " + memoryBudget + " bytes is less than one signature needs ("
+                    + perSignature + " bytes)");
+        }
+
+        this.capacity = capacity;
+        this.memoryBudget = memoryBudget;
+        this.maxSignatures = (int) Math.min(Integer.MAX_VALUE, memoryBudget / perSignature);
+    }
+
+    @Override
+    public void consume(DataSample<E> signal) {
+        add(signal.signature, signal.timestamp, signal.isError() ? Double.NaN : signal.sample.doubleValue());
+    }
+
+    @Override
+    public void consume(DoubleDataSample signal) {
+        add(signal.getSignature(), signal.getTimestamp(), signal.getSample());
+    }
+
+    private void add(String signature, long timestamp, double value) {
+
+        Ring ring = rings.get(signature);
+
+        if (ring == null) {
+
+            ring = rings.computeIfAbsent(signature, k -> {
+
+                if (allocated.incrementAndGet() > maxSignatures) {
+                    allocated.decrementAndGet();
+                    return null;
+                }
+
+                return new Ring(capacity);
+            });
+
+            if (ring == null) {
+
+                if (rejected.getAndIncrement() == 0) {
+                    logger.warn("Memory budget of " + memoryBudget + " bytes exhausted by " + maxSignatures
+                            + " signatures, rejecting " + signature + " and further new signatures");
+                }
+
+                return;
+            }
+        }
+
+        ring.add(timestamp, value);
+    }
+
+    /**
+     * Get all the samples kept for the signature.
+     *
+     * @param signature Signature to get the history for.
+     * @return Sample history, or {@code null} if this signature is not known.
+     */
+    public SampleHistory getHistory(String signature) {
+        return getHistory(signature, Long.MIN_VALUE);
+    }
+
+    /**
+     * Get the recent samples for the signature.
+     *
+     * @param signature Signature to get the history for.
+     * @param since Earliest timestamp to return.
+     * @return Sample history, or {@code null} if this signature is not known.
+     */
+    public SampleHistory getHistory(String signature, long since) {
+
+        Ring ring = rings.get(signature);
+
+        return ring == null ? null : ring.read(signature, since);
+    }
+
+    @JmxAttribute(description = "Samples kept per signature")
+    public int getCapacity() {
+        return capacity;
+    }
+
+    @JmxAttribute(description = "Memory budget, bytes")
+    public long getMemoryBudget() {
+        return memoryBudget;
+    }
+
+    @JmxAttribute(description = "Memory used, bytes")
+    public long getMemoryUsed() {
+        return (long) allocated.get() * capacity * SAMPLE_SIZE;
+    }
+
+    @JmxAttribute(description = "Number of signatures kept")
+    public int getSignatureCount() {
+        return allocated.get();
+    }
+
+    @JmxAttribute(description = "Samples rejected because the memory budget was exhausted")
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    @Override
+    public JmxDescriptor getJmxDescriptor() {
+        return new JmxDescriptor("jukebox", getClass().getSimpleName(), Integer.toHexString(hashCode()), "Sample history buffer");
+    }
+}
@@ -0,0 +1,249 @@
+package com.homeclimatecontrol.jukebox.datastream.signal.impl;
+
+import java.util.Arrays;
+
+import com.homeclimatecontrol.jukebox.datastream.signal.model.WindowStatistics;
+
+/**
+ * Time window over the samples of a single signature, kept in primitive ring buffers.
+ *
+ * Adding and evicting a sample takes amortized constant time. Count, mean and standard deviation are maintained as
+ * running sums; minimum and maximum are maintained with monotonic queues of sample sequence numbers. Percentiles
+ * are only computed by {@link #getStatistics(String, long, long, double[])}.
+ *
+ * Error samples are stored as {@link Double#NaN} and are only counted.
+ *
+ * This class is not thread safe.
+ *
+ * @author Copyright &copy; <a href="mailto:vt@homeclimatecontrol.com">Vadim Tkachenko</a> 2026
+ */
+final class SlidingWindow {
+
+    private final double[] values;
+    private final long[] times;
+
+    /**
+     * Sequence number of the oldest sample held.
+     */
+    private long first = 0;
+
+    /**
+     * Sequence number the next sample will get.
+     */
+    private long next = 0;
+
+    /**
+     * Sequence numbers of the samples that may still become the minimum, values ascending.
+     */
+    private final long[] minQueue;
+    private int minHead = 0;
+    private int minSize = 0;
+
+    /**
+     * Sequence numbers of the samples that may still become the maximum, values descending.
+     */
+    private final long[] maxQueue;
+    private int maxHead = 0;
+    private int maxSize = 0;
+
+    private int count = 0;
+    private int errors = 0;
+    private double sum = 0;
+    private double sumSquares = 0;
+
+    /**
+     * @param capacity Maximum number of samples to hold. When exceeded, the oldest samples are evicted.
+     */
+    SlidingWindow(int capacity) {
+
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive (" + capacity + " given)");
+        }
+
+        values = new double[capacity];
+        times = new long[capacity];
+        minQueue = new long[capacity];
+        maxQueue = new long[capacity];
+    }
+
+    /**
+     * @return Number of samples held, including errors.
+     */
+    int size() {
+        return (int) (next - first);
+    }
+
+    /**
+     * Add a sample.
+     *
+     * @param timestamp Sample timestamp. Samples are expected to arrive in timestamp order.
+     * @param value Sample value, {@link Double#NaN} for an error.
+     */
+    void add(long timestamp, double value) {
+
+        if (size() == values.length) {
+            evictOldest();
+        }
+
+        long seq = next++;
+        int index = (int) (seq % values.length);
+
+        values[index] = value;
+        times[index] = timestamp;
+
+        if (Double.isNaN(value)) {
+            errors++;
+            return;
+        }
+
+        count++;
+        sum += value;
+        sumSquares += value * value;
+
+        while (minSize > 0 && valueAt(minQueue[(minHead + minSize - 1) % minQueue.length]) >= value) {
+            minSize--;
+        }
+
+        minQueue[(minHead + minSize++) % minQueue.length] = seq;
+
+        while (maxSize > 0 && valueAt(maxQueue[(maxHead + maxSize - 1) % maxQueue.length]) <= value) {
+            maxSize--;
+        }
+
+        maxQueue[(maxHead + maxSize++) % maxQueue.length] = seq;
+    }
+
+    /**
+     * Evict all the samples older than the given time.
+     *
+     * @param start Earliest timestamp to keep.
+     */
+    void evictBefore(long start) {
+
+        while (first < next && times[(int) (first % times.length)] < start) {
+            evictOldest();
+        }
+    }
+
+    private void evictOldest() {
+
+        long seq = first++;
+        double value = valueAt(seq);
+
+        if (Double.isNaN(value)) {
+            errors--;
+            return;
+        }
+
+        count--;
+
+        if (count == 0) {
+
+            // Get rid of the accumulated rounding error while we can
+            sum = 0;
+            sumSquares = 0;
+
+        } else {
+
+            sum -= value;
+            sumSquares -= value * value;
+        }
+
+        if (minSize > 0 && minQueue[minHead] == seq) {
+            minHead = (minHead + 1) % minQueue.length;
+            minSize--;
+        }
+
+        if (maxSize > 0 && maxQueue[maxHead] == seq) {
+            maxHead = (maxHead + 1) % maxQueue.length;
+            maxSize--;
+        }
+    }
+
+    private double valueAt(long seq) {
+        return values[(int) (seq % values.length)];
+    }
+
+    /**
+     * @return Minimum value held, or {@link Double#NaN} if there are no valid samples.
+     */
+    double getMin() {
+        return minSize == 0 ? Double.NaN : valueAt(minQueue[minHead]);
+    }
+
+    /**
+     * @return Maximum value held, or {@link Double#NaN} if there are no valid samples.
+     */
+    double getMax() {
+        return maxSize == 0 ? Double.NaN : valueAt(maxQueue[maxHead]);
+    }
+
+    /**
+     * @return Mean of the values held, or {@link Double#NaN} if there are no valid samples.
+     */
+    double getMean() {
+        return count == 0 ? Double.NaN : sum / count;
+    }
+
+    /**
+     * @return Population standard deviation of the values held, or {@link Double#NaN} if there are no valid samples.
+     */
+    double getStddev() {
+
+        if (count == 0) {
+            return Double.NaN;
+        }
+
+        double mean = sum / count;
+
+        return Math.sqrt(Math.max(0, sumSquares / count - mean * mean));
+    }
+
+    /**
+     * Compute the statistics for the samples currently held.
+     *
+     * @param signature Signature to put into the result.
+     * @param start Window start to put into the result.
+     * @param end Window end to put into the result.
+     * @param percentileLevels Percentile levels to compute, 0 to 100.
+     *
+     * @return Statistics.
+     */
+    WindowStatistics getStatistics(String signature, long start, long end, double[] percentileLevels) {
+
+        double[] percentiles = new double[percentileLevels.length];
+
+        if (count == 0) {
+
+            Arrays.fill(percentiles, Double.NaN);
+
+        } else if (percentileLevels.length > 0) {
+
+            double[] sorted = new double[count];
+            int offset = 0;
+
+            for (long seq = first; seq < next; seq++) {
+
+                double value = valueAt(seq);
+
+                if (!Double.isNaN(value)) {
+                    sorted[offset++] = value;
+                }
+            }
+
+            Arrays.sort(sorted);
+
+            for (int index = 0; index < percentileLevels.length; index++) {
+
+                // Nearest rank
+                int rank = (int) Math.ceil(percentileLevels[index] / 100 * count);
+
+                percentiles[index] = sorted[Math.max(0, Math.min(count - 1, rank - 1))];
+            }
+        }
+
+        return new WindowStatistics(signature, start, end, count, errors,
+                getMin(), getMax(), getMean(), getStddev(),
+                percentileLevels, percentiles);
+    }
+}
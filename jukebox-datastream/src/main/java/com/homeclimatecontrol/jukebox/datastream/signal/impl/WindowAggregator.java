@@ -0,0 +1,224 @@
+package com.homeclimatecontrol.jukebox.datastream.signal.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.homeclimatecontrol.jukebox.datastream.logger.impl.DataBroadcaster;
+import com.homeclimatecontrol.jukebox.datastream.signal.model.DataSample;
+import com.homeclimatecontrol.jukebox.datastream.signal.model.DataSink;
+import com.homeclimatecontrol.jukebox.datastream.signal.model.DataSource;
+import com.homeclimatecontrol.jukebox.datastream.signal.model.DoubleDataSample;
+import com.homeclimatecontrol.jukebox.datastream.signal.model.DoubleDataSink;
+import com.homeclimatecontrol.jukebox.datastream.signal.model.WindowStatistics;
+import com.homeclimatecontrol.jukebox.jmx.JmxAttribute;
+import com.homeclimatecontrol.jukebox.jmx.JmxAware;
+import com.homeclimatecontrol.jukebox.jmx.JmxDescriptor;
+import com.homeclimatecontrol.jukebox.logger.LogAware;
+
+/**
+ * Aggregates the incoming samples into per signature time windows, and publishes the {@link WindowStatistics window
+ * statistics} to its own consumers.
+ *
+ * Windows are {@code window} milliseconds long and advance by {@code hop} milliseconds; if they are the same, the
+ * windows are tumbling (every sample falls into exactly one window), if {@code hop} is shorter, they are sliding.
+ * Window boundaries are aligned to the multiples of {@code hop} since the epoch. Time is taken from the sample
+ * timestamps, not from the wall clock, so a window is only published when the first sample past its end arrives.
+ * Windows that contain no samples are not published.
+ *
+ * Every signature is handled independently, using a constant amount of memory that is allocated when the signature
+ * is first seen. Adding a sample takes amortized constant time; percentiles are only computed when a window is
+ * published.
+ *
+ * @param <E> Data type to aggregate.
+ * @author Copyright &copy; <a href="mailto:vt@homeclimatecontrol.com">Vadim Tkachenko</a> 2026
+ */
+public class WindowAggregator<E extends Number> extends LogAware implements DataSink<E>, DoubleDataSink, DataSource<WindowStatistics>, JmxAware {
+
+    /**
+     * Percentiles computed by default.
+     */
+    public static final double[] DEFAULT_PERCENTILES = {50, 90, 99};
+
+    private final long window;
+    private final long hop;
+    private final int capacity;
+    private final double[] percentileLevels;
+
+    private final ConcurrentMap<String, Slot> slots = new ConcurrentHashMap<>();
+    private final DataBroadcaster<WindowStatistics> broadcaster;
+
+    /**
+     * Per signature state.
+     */
+    private final class Slot {
+
+        final String sourceName;
+        final SlidingWindow samples = new SlidingWindow(capacity);
+
+        /**
+         * End of the window currently being filled, or {@link Long#MIN_VALUE} if no samples were received yet.
+         */
+        long end = Long.MIN_VALUE;
+
+        Slot(String sourceName) {
+            this.sourceName = sourceName;
+        }
+    }
+
+    /**
+     * Create a tumbling window aggregator with {@link #DEFAULT_PERCENTILES default percentiles} and synchronous
+     * delivery.
+     *
+     * @param window Window length, milliseconds.
+     * @param capacity Maximum number of samples per signature within a window. If more arrive, the oldest are
+     * discarded.
+     */
+    public WindowAggregator(long window, int capacity) {
+        this(window, window, capacity, DEFAULT_PERCENTILES, new DataBroadcaster<>(null, 0, null));
+    }
+
+    /**
+     * Create an instance.
+     *
+     * @param window Window length, milliseconds.
+     * @param hop How far the window advances, milliseconds. Must be positive and not longer than {@code window}.
+     * @param capacity Maximum number of samples per signature within a window. If more arrive, the oldest are
+     * discarded.
+     * @param percentileLevels Percentiles to compute, 0 to 100.
+     * @param broadcaster Broadcaster to publish the statistics with.
+     */
+    public WindowAggregator(long window, long hop, int capacity, double[] percentileLevels, DataBroadcaster<WindowStatistics> broadcaster) {
+
+        if (hop <= 0 || hop > window) {
+            throw new IllegalArgumentException("Need 0 < hop <= window (" + hop + ", " + window + " given)");
+        }
+
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive (" + capacity + " given)");
+        }
+
+        for (double level : percentileLevels) {
+            if (!(level >= 0 && level <= 100)) {
+                throw new IllegalArgumentException("Percentile levels must be within 0..100 (" + level + " given)");
+            }
+        }
+
+        if (broadcaster == null) {
+            throw new IllegalArgumentException("broadcaster can't be null");
+        }
+
+        this.window = window;
+        this.hop = hop;
+        this.capacity = capacity;
+        this.percentileLevels = percentileLevels.clone();
+        this.broadcaster = broadcaster;
+    }
+
+    @Override
+    public void consume(DataSample<E> signal) {
+        add(signal.sourceName, signal.signature, signal.timestamp, signal.isError() ? Double.NaN : signal.sample.doubleValue());
+    }
+
+    @Override
+    public void consume(DoubleDataSample signal) {
+        add(signal.getSourceName(), signal.getSignature(), signal.getTimestamp(), signal.getSample());
+    }
+
+    private void add(String sourceName, String signature, long timestamp, double value) {
+
+        Slot slot = slots.computeIfAbsent(signature, k -> new Slot(sourceName));
+        List<WindowStatistics> complete = null;
+
+        synchronized (slot) {
+
+            if (slot.end == Long.MIN_VALUE) {
+                slot.end = Math.floorDiv(timestamp, hop) * hop + hop;
+            }
+
+            while (timestamp >= slot.end) {
+
+                slot.samples.evictBefore(slot.end - window);
+
+                if (slot.samples.size() == 0) {
+
+                    // Nothing to publish until this sample, skip ahead
+                    slot.end = Math.floorDiv(timestamp, hop) * hop + hop;
+                    break;
+                }
+
+                if (complete == null) {
+                    complete = new ArrayList<>(1);
+                }
+
+                complete.add(slot.samples.getStatistics(signature, slot.end - window, slot.end, percentileLevels));
+                slot.end += hop;
+            }
+
+            slot.samples.evictBefore(slot.end - window);
+            slot.samples.add(timestamp, value);
+        }
+
+        if (complete != null) {
+
+            for (WindowStatistics stats : complete) {
+                broadcaster.broadcast(new DataSample<>(stats.getEnd(), slot.sourceName, signature, stats, null));
+            }
+        }
+    }
+
+    /**
+     * Get the statistics for the window currently being filled.
+     *
+     * @param signature Signature to get the statistics for.
+     * @return Statistics so far, or {@code null} if no samples with this signature were seen yet.
+     */
+    public WindowStatistics getStatistics(String signature) {
+
+        Slot slot = slots.get(signature);
+
+        if (slot == null) {
+            return null;
+        }
+
+        synchronized (slot) {
+
+            if (slot.end == Long.MIN_VALUE) {
+                return null;
+            }
+
+            return slot.samples.getStatistics(signature, slot.end - window, slot.end, percentileLevels);
+        }
+    }
+
+    @Override
+    public void addConsumer(DataSink<WindowStatistics> consumer) {
+        broadcaster.addConsumer(consumer);
+    }
+
+    @Override
+    public void removeConsumer(DataSink<WindowStatistics> consumer) {
+        broadcaster.removeConsumer(consumer);
+    }
+
+    @JmxAttribute(description = "Window length, ms")
+    public long getWindow() {
+        return window;
+    }
+
+    @JmxAttribute(description = "Window hop, ms")
+    public long getHop() {
+        return hop;
+    }
+
+    @JmxAttribute(description = "Number of signatures seen")
+    public int getSignatureCount() {
+        return slots.size();
+    }
+
+    @Override
+    public JmxDescriptor getJmxDescriptor() {
+        return new JmxDescriptor("jukebox", getClass().getSimpleName(), Integer.toHexString(hashCode()), "Window aggregator");
+    }
+}
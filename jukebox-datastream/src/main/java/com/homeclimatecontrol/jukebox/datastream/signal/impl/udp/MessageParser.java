@@ -0,0 +1,542 @@
+package com.homeclimatecontrol.jukebox.datastream.signal.impl.udp;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Byte level parser for xPL and xAP messages.
+ *
+ * A message is a sequence of blocks:
+ *
+ * <pre>
+ * block-name
+ * {
+ * key=value
+ * ...
+ * }
+ * </pre>
+ *
+ * The first block is the header ({@code xpl-trig}, {@code xpl-stat}, {@code xpl-cmnd}, or {@code xap-header}). Of
+ * the body blocks, {@code sensor.basic} (xPL) and {@code dz.data-sample} (xAP) are recognized, everything else is
+ * skipped. Nothing is copied or decoded while parsing, the fields are exposed as offsets and lengths within the
+ * packet, valid until the next {@link #parse(byte[], int, int, Handler) parse()}.
+ *
+ * This class is not thread safe.
+ *
+ * @author Copyright &copy; <a href="mailto:vt@homeclimatecontrol.com">Vadim Tkachenko</a> 2026
+ */
+final class MessageParser {
+
+    /**
+     * Receives the recognized blocks.
+     */
+    interface Handler {
+
+        /**
+         * Handle a sample block. The parser fields describe the block and the header of the message it came in.
+         *
+         * @param parser Parser to get the fields from.
+         */
+        void block(MessageParser parser);
+    }
+
+    private static final byte[] XPL_PREFIX = bytes("xpl-");
+    private static final byte[] XAP_HEADER = bytes("xap-header");
+    private static final byte[] SENSOR_BASIC = bytes("sensor.basic");
+    private static final byte[] DATA_SAMPLE = bytes("dz.data-sample");
+
+    private static final byte[] HOP = bytes("hop");
+    private static final byte[] SOURCE = bytes("source");
+    private static final byte[] DEVICE = bytes("device");
+    private static final byte[] CURRENT = bytes("current");
+    private static final byte[] CHANNEL_NAME = bytes("channel.name");
+    private static final byte[] CHANNEL_SIGNATURE = bytes("channel.signature");
+    private static final byte[] CHANNEL_VALUE = bytes("channel.value");
+    private static final byte[] ERROR = bytes("error");
+    private static final byte[] TIMESTAMP = bytes("timestamp");
+
+    /**
+     * Powers of ten that are exactly representable as {@code double}.
+     */
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private byte[] data;
+
+    /**
+     * {@code true} if the message is xAP, {@code false} if xPL.
+     */
+    boolean xap;
+
+    int hop;
+
+    int sourceOffset;
+    int sourceLength;
+
+    // Current block fields, length -1 if absent
+
+    int nameOffset;
+    int nameLength;
+    int signatureOffset;
+    int signatureLength;
+    int valueOffset;
+    int valueLength;
+    int errorOffset;
+    int errorLength;
+    int timestampOffset;
+    int timestampLength;
+
+    /**
+     * Parse the message.
+     *
+     * @param data Packet content.
+     * @param offset Offset of the message within the packet.
+     * @param length Message length.
+     * @param handler Handler to pass the recognized blocks to.
+     * @return Number of sample blocks found, or -1 if the message is malformed or not xPL/xAP. Blocks found before
+     * the problem was detected have been passed to the handler.
+     */
+    int parse(byte[] data, int offset, int length, Handler handler) {
+
+        this.data = data;
+
+        int end = offset + length;
+        int position = offset;
+        int blocks = 0;
+        boolean header = true;
+
+        hop = 0;
+        sourceOffset = 0;
+        sourceLength = -1;
+
+        while (true) {
+
+            // Block name, skipping blank lines
+            int lineEnd;
+
+            do {
+
+                if (position >= end) {
+                    return header ? -1 : blocks;
+                }
+
+                lineEnd = lineEnd(position, end);
+
+                if (lineEnd > position) {
+                    break;
+                }
+
+                position = nextLine(lineEnd, end);
+
+            } while (true);
+
+            int blockOffset = position;
+            int blockLength = lineEnd - position;
+
+            position = nextLine(lineEnd, end);
+
+            if (position >= end || data[position] != '{') {
+                return -1;
+            }
+
+            position = nextLine(lineEnd(position, end), end);
+
+            int type;
+
+            if (header) {
+
+                if (startsWith(blockOffset, blockLength, XPL_PREFIX)) {
+                    xap = false;
+                } else if (equals(blockOffset, blockLength, XAP_HEADER)) {
+                    xap = true;
+                } else {
+                    return -1;
+                }
+
+                type = 0;
+
+            } else if (equals(blockOffset, blockLength, xap ? DATA_SAMPLE : SENSOR_BASIC)) {
+                type = 1;
+            } else {
+                type = 2;
+            }
+
+            nameLength = -1;
+            signatureLength = -1;
+            valueLength = -1;
+            errorLength = -1;
+            timestampLength = -1;
+
+            // key=value lines until the closing brace
+            while (true) {
+
+                if (position >= end) {
+                    return -1;
+                }
+
+                lineEnd = lineEnd(position, end);
+
+                if (data[position] == '}') {
+                    position = nextLine(lineEnd, end);
+                    break;
+                }
+
+                if (type != 2) {
+                    field(type, position, lineEnd);
+                }
+
+                position = nextLine(lineEnd, end);
+            }
+
+            if (type == 0) {
+                header = false;
+                continue;
+            }
+
+            if (type == 1 && signatureLength > 0) {
+                blocks++;
+                handler.block(this);
+            }
+        }
+    }
+
+    private void field(int type, int start, int end) {
+
+        int separator = start;
+
+        while (separator < end && data[separator] != '=') {
+            separator++;
+        }
+
+        if (separator == end) {
+            return;
+        }
+
+        int keyLength = separator - start;
+        int valueStart = separator + 1;
+        int length = end - valueStart;
+
+        if (type == 0) {
+
+            if (equals(start, keyLength, HOP)) {
+                hop = (int) parseLong(valueStart, length);
+            } else if (equals(start, keyLength, SOURCE)) {
+                sourceOffset = valueStart;
+                sourceLength = length;
+            }
+
+            return;
+        }
+
+        if (equals(start, keyLength, xap ? CHANNEL_SIGNATURE : DEVICE)) {
+            signatureOffset = valueStart;
+            signatureLength = length;
+        } else if (equals(start, keyLength, xap ? CHANNEL_VALUE : CURRENT)) {
+            valueOffset = valueStart;
+            valueLength = length;
+        } else if (xap && equals(start, keyLength, CHANNEL_NAME)) {
+            nameOffset = valueStart;
+            nameLength = length;
+        } else if (equals(start, keyLength, ERROR)) {
+            errorOffset = valueStart;
+            errorLength = length;
+        } else if (equals(start, keyLength, TIMESTAMP)) {
+            timestampOffset = valueStart;
+            timestampLength = length;
+        }
+    }
+
+    /**
+     * @return Offset of the end of the line starting at the given offset, not including the line terminator.
+     */
+    private int lineEnd(int start, int end) {
+
+        int position = start;
+
+        while (position < end && data[position] != '\n') {
+            position++;
+        }
+
+        // Tolerate CRLF
+        return position > start && data[position - 1] == '\r' ? position - 1 : position;
+    }
+
+    /**
+     * @return Offset of the next line after the line ending at the given offset.
+     */
+    private int nextLine(int lineEnd, int end) {
+
+        int position = lineEnd;
+
+        while (position < end && data[position] != '\n') {
+            position++;
+        }
+
+        return position + 1;
+    }
+
+    private boolean equals(int offset, int length, byte[] expected) {
+        return length == expected.length && startsWith(offset, length, expected);
+    }
+
+    private boolean startsWith(int offset, int length, byte[] expected) {
+
+        if (length < expected.length) {
+            return false;
+        }
+
+        for (int index = 0; index < expected.length; index++) {
+
+            if (data[offset + index] != expected[index]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * @return Packet being parsed.
+     */
+    byte[] getData() {
+        return data;
+    }
+
+    /**
+     * @return The value of the current block, or {@link Double#NaN} if it is absent or can't be parsed.
+     */
+    double getValue() {
+        return valueLength <= 0 ? Double.NaN : parseDouble(valueOffset, valueLength);
+    }
+
+    /**
+     * @return The timestamp of the current block, or -1 if it is absent or can't be parsed.
+     */
+    long getTimestamp() {
+        return timestampLength <= 0 ? -1 : parseTimestamp(timestampOffset, timestampLength);
+    }
+
+    /**
+     * @return The error message of the current block, or {@code null} if the block is not an error.
+     */
+    String getError() {
+        return errorLength < 0 ? null : new String(data, errorOffset, errorLength, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Parse a decimal number, as produced by {@link Double#toString(double)}. Fast path handles numbers that can be
+     * computed exactly, everything else goes through {@link Double#parseDouble(String)}.
+     *
+     * @return Parsed value, or {@link Double#NaN} if the value can't be parsed.
+     */
+    double parseDouble(int offset, int length) {
+
+        int position = offset;
+        int end = offset + length;
+        boolean negative = false;
+
+        if (data[position] == '-' || data[position] == '+') {
+            negative = data[position] == '-';
+            position++;
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean any = false;
+        boolean truncated = false;
+
+        for (; position < end && isDigit(data[position]); position++, any = true) {
+
+            if (digits < 18) {
+                mantissa = mantissa * 10 + (data[position] - '0');
+                if (mantissa > 0) {
+                    digits++;
+                }
+            } else {
+                exponent++;
+                truncated = true;
+            }
+        }
+
+        if (position < end && data[position] == '.') {
+
+            for (position++; position < end && isDigit(data[position]); position++, any = true) {
+
+                if (digits < 18) {
+                    mantissa = mantissa * 10 + (data[position] - '0');
+                    exponent--;
+                    if (mantissa > 0) {
+                        digits++;
+                    }
+                } else {
+                    truncated = true;
+                }
+            }
+        }
+
+        if (any && position < end && (data[position] == 'E' || data[position] == 'e')) {
+
+            position++;
+
+            boolean negativeExponent = false;
+
+            if (position < end && (data[position] == '-' || data[position] == '+')) {
+                negativeExponent = data[position] == '-';
+                position++;
+            }
+
+            int start = position;
+            int value = 0;
+
+            for (; position < end && isDigit(data[position]) && value < 10000; position++) {
+                value = value * 10 + (data[position] - '0');
+            }
+
+            if (position == start) {
+                any = false;
+            }
+
+            exponent += negativeExponent ? -value : value;
+        }
+
+        if (!any || position != end) {
+            return slowParseDouble(offset, length);
+        }
+
+        if (!truncated && mantissa < (1L << 53) && exponent >= -22 && exponent <= 22) {
+
+            double result = exponent >= 0 ? mantissa * POWERS_OF_TEN[exponent] : mantissa / POWERS_OF_TEN[-exponent];
+
+            return negative ? -result : result;
+        }
+
+        return slowParseDouble(offset, length);
+    }
+
+    private double slowParseDouble(int offset, int length) {
+
+        try {
+            return Double.parseDouble(new String(data, offset, length, StandardCharsets.US_ASCII));
+        } catch (NumberFormatException ex) {
+            return Double.NaN;
+        }
+    }
+
+    private long parseLong(int offset, int length) {
+
+        long result = 0;
+
+        for (int position = offset; position < offset + length && isDigit(data[position]); position++) {
+            result = result * 10 + (data[position] - '0');
+        }
+
+        return result;
+    }
+
+    /**
+     * Parse the timestamp in {@code yyyy-MM-dd'T'HH:mm:ss[.SSS][Z]} format, where the zone is either {@code Z} or
+     * {@code +HHMM}/{@code -HHMM}. Timestamps without a zone are taken to be UTC.
+     *
+     * @return Milliseconds since the epoch, or -1 if the timestamp can't be parsed.
+     */
+    long parseTimestamp(int offset, int length) {
+
+        if (length < 19 || data[offset + 4] != '-' || data[offset + 7] != '-' || data[offset + 10] != 'T'
+                || data[offset + 13] != ':' || data[offset + 16] != ':') {
+            return -1;
+        }
+
+        int year = digits(offset, 4);
+        int month = digits(offset + 5, 2);
+        int day = digits(offset + 8, 2);
+        int hour = digits(offset + 11, 2);
+        int minute = digits(offset + 14, 2);
+        int second = digits(offset + 17, 2);
+
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > 31 || hour < 0 || minute < 0 || second < 0) {
+            return -1;
+        }
+
+        int position = offset + 19;
+        int end = offset + length;
+        int millis = 0;
+
+        if (position < end && data[position] == '.') {
+
+            if (position + 4 > end || (millis = digits(position + 1, 3)) < 0) {
+                return -1;
+            }
+
+            position += 4;
+        }
+
+        int zoneMinutes = 0;
+
+        if (position < end) {
+
+            if (data[position] == 'Z' && position + 1 == end) {
+                zoneMinutes = 0;
+            } else if ((data[position] == '+' || data[position] == '-') && position + 5 == end) {
+
+                int zoneHours = digits(position + 1, 2);
+                int zoneRest = digits(position + 3, 2);
+
+                if (zoneHours < 0 || zoneRest < 0) {
+                    return -1;
+                }
+
+                zoneMinutes = (zoneHours * 60 + zoneRest) * (data[position] == '-' ? -1 : 1);
+
+            } else {
+                return -1;
+            }
+        }
+
+        long days = daysFromCivil(year, month, day);
+
+        return (((days * 24 + hour) * 60 + minute - zoneMinutes) * 60 + second) * 1000 + millis;
+    }
+
+    /**
+     * @return Number made of the digits at the offset, or -1 if there are non-digits there.
+     */
+    private int digits(int offset, int count) {
+
+        int result = 0;
+
+        for (int position = offset; position < offset + count; position++) {
+
+            if (!isDigit(data[position])) {
+                return -1;
+            }
+
+            result = result * 10 + (data[position] - '0');
+        }
+
+        return result;
+    }
+
+    /**
+     * @return Days since the epoch for the proleptic Gregorian date.
+     */
+    static long daysFromCivil(int year, int month, int day) {
+
+        int y = month <= 2 ? year - 1 : year;
+        int era = (y >= 0 ? y : y - 399) / 400;
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+
+        return era * 146097L + dayOfEra - 719468;
+    }
+
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,65 @@
+package com.homeclimatecontrol.jukebox.datastream.signal.impl.udp;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Direct mapped cache of strings decoded from UTF-8 bytes.
+ *
+ * The same source names and signatures arrive over and over again; this cache returns the same {@link String}
+ * instance for the same bytes without decoding or allocating, unless two different values keep colliding in the
+ * same slot.
+ *
+ * This class is not thread safe.
+ *
+ * @author Copyright &copy; <a href="mailto:vt@homeclimatecontrol.com">Vadim Tkachenko</a> 2026
+ */
+final class StringCache {
+
+    private final byte[][] keys;
+    private final String[] values;
+
+    /**
+     * @param capacity Number of slots, rounded up to a power of two.
+     */
+    StringCache(int capacity) {
+
+        int size = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+
+        keys = new byte[size][];
+        values = new String[size];
+    }
+
+    /**
+     * Get the string for the bytes.
+     *
+     * @param data Buffer holding the bytes.
+     * @param offset Offset of the bytes in the buffer.
+     * @param length Number of bytes.
+     * @return Decoded string.
+     */
+    String get(byte[] data, int offset, int length) {
+
+        int hash = 1;
+
+        for (int position = offset; position < offset + length; position++) {
+            hash = 31 * hash + data[position];
+        }
+
+        hash *= 0x9E3779B9;
+
+        int slot = (hash ^ (hash >>> 16)) & (keys.length - 1);
+        byte[] key = keys[slot];
+
+        if (key != null && Arrays.equals(key, 0, key.length, data, offset, offset + length)) {
+            return values[slot];
+        }
+
+        String value = new String(data, offset, length, StandardCharsets.UTF_8);
+
+        keys[slot] = Arrays.copyOfRange(data, offset, offset + length);
+        values[slot] = value;
+
+        return value;
+    }
+}
@@ -0,0 +1,414 @@
+package com.homeclimatecontrol.jukebox.datastream.signal.impl.udp;
+
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.homeclimatecontrol.jukebox.conf.ConfigurableProperty;
+import com.homeclimatecontrol.jukebox.datastream.logger.impl.DataBroadcaster;
+import com.homeclimatecontrol.jukebox.datastream.logger.impl.DoubleDataBroadcaster;
+import com.homeclimatecontrol.jukebox.datastream.logger.impl.udp.xap.XapLogger;
+import com.homeclimatecontrol.jukebox.datastream.logger.impl.udp.xpl.XplLogger;
+import com.homeclimatecontrol.jukebox.datastream.signal.model.DataSample;
+import com.homeclimatecontrol.jukebox.datastream.signal.model.DataSink;
+import com.homeclimatecontrol.jukebox.datastream.signal.model.DataSource;
+import com.homeclimatecontrol.jukebox.datastream.signal.model.DoubleDataSamplePool;
+import com.homeclimatecontrol.jukebox.datastream.signal.model.DoubleDataSink;
+import com.homeclimatecontrol.jukebox.datastream.signal.model.DoubleDataSource;
+import com.homeclimatecontrol.jukebox.jmx.JmxAttribute;
+import com.homeclimatecontrol.jukebox.service.PassiveService;
+
+/**
+ * Receives xPL {@code sensor.basic} and xAP {@code dz.data-sample} broadcasts, such as the ones sent by
+ * {@link XplLogger} and {@link XapLogger}, and publishes them as samples.
+ *
+ * Packets are parsed in place, without converting them to strings first; source names and signatures are
+ * {@link StringCache cached}, so a steady stream of known signatures doesn't allocate beyond the samples themselves,
+ * and the primitive samples are {@link DoubleDataSamplePool pooled}.
+ *
+ * The same message may arrive more than once, relayed by hubs with a higher hop count. A sample is considered a
+ * duplicate only if it is a relayed copy ({@code hop} over 1) arriving within the {@link #getDedupeWindow() dedupe
+ * window} after a sample from the same source for the same signature, and carrying the same timestamp - or, if the
+ * message carries no timestamp, the same value. Samples with earlier timestamps are not duplicates, the source clock
+ * may have been stepped back.
+ *
+ * The last sample seen from every source for every signature is only remembered for the dedupe window, and no more
+ * than {@link #MAX_SEEN} of them are remembered at all, so a LAN full of sources doesn't make the receiver grow
+ * without bounds.
+ *
+ * @author Copyright &copy; <a href="mailto:vt@homeclimatecontrol.com">Vadim Tkachenko</a> 2026
+ */
+public class UdpSampleReceiver extends PassiveService implements DataSource<Double>, DoubleDataSource {
+
+    /**
+     * Default port, the standard xPL port.
+     */
+    public static final int XPL_PORT = 3865;
+
+    /**
+     * The standard xAP port.
+     */
+    public static final int XAP_PORT = 3639;
+
+    /**
+     * Default dedupe window.
+     */
+    public static final long DEFAULT_DEDUPE_WINDOW = 1000L;
+
+    /**
+     * Maximum number of source and signature combinations remembered for deduplication.
+     */
+    public static final int MAX_SEEN = 4096;
+
+    /**
+     * Largest datagram accepted.
+     */
+    private static final int MAX_DATAGRAM_SIZE = 65536;
+
+    private final InetSocketAddress address;
+
+    private final DataBroadcaster<Double> broadcaster = new DataBroadcaster<>(null, 0, null);
+    private final DoubleDataBroadcaster doubleBroadcaster = new DoubleDataBroadcaster(new DoubleDataSamplePool(64));
+
+    private volatile long dedupeWindow = DEFAULT_DEDUPE_WINDOW;
+
+    // Accessed only by the receiving thread
+
+    private final MessageParser parser = new MessageParser();
+    private final StringCache strings = new StringCache(1024);
+
+    /**
+     * Last sample seen for a source and signature, least recently seen first.
+     */
+    private final Map<Key, Seen> seen = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * Key to look up {@link #seen} with, to avoid allocating one for every sample.
+     */
+    private final Key lookup = new Key();
+
+    private long arrival;
+
+    /**
+     * Last time {@link #seen} was purged of expired entries.
+     */
+    private long purged;
+
+    private final AtomicLong packets = new AtomicLong();
+    private final AtomicLong malformed = new AtomicLong();
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong duplicates = new AtomicLong();
+
+    private volatile boolean running = false;
+    private DatagramChannel channel;
+    private Thread receiver;
+
+    /**
+     * Source and signature.
+     */
+    private static final class Key {
+
+        String source;
+        String signature;
+        int hash;
+
+        Key set(String source, String signature) {
+
+            this.source = source;
+            this.signature = signature;
+            this.hash = 31 * source.hashCode() + signature.hashCode();
+
+            return this;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+
+            if (!(other instanceof Key)) {
+                return false;
+            }
+
+            Key that = (Key) other;
+
+            return hash == that.hash && source.equals(that.source) && signature.equals(that.signature);
+        }
+    }
+
+    /**
+     * Last sample received from a source for a signature.
+     */
+    private static final class Seen {
+
+        long timestamp;
+        long arrival;
+        double value;
+    }
+
+    /**
+     * Create an instance listening on all interfaces.
+     *
+     * @param port Port to listen on, usually {@link #XPL_PORT} or {@link #XAP_PORT}.
+     */
+    public UdpSampleReceiver(int port) {
+        this(new InetSocketAddress(port));
+    }
+
+    /**
+     * Create an instance.
+     *
+     * @param address Address to listen on.
+     */
+    public UdpSampleReceiver(InetSocketAddress address) {
+
+        if (address == null) {
+            throw new IllegalArgumentException("address can't be null");
+        }
+
+        this.address = address;
+    }
+
+    /**
+     * @return How long a relayed copy of a message is considered a duplicate, in milliseconds.
+     */
+    @JmxAttribute(description = "Dedupe window for relayed messages, ms")
+    public final long getDedupeWindow() {
+        return dedupeWindow;
+    }
+
+    /**
+     * @param dedupeWindow How long a relayed copy of a message is considered a duplicate, in milliseconds.
+     */
+    @ConfigurableProperty(
+            propertyName = "dedupeWindow",
+            description = "Dedupe window for relayed messages, ms"
+            )
+    public final void setDedupeWindow(long dedupeWindow) {
+
+        if (dedupeWindow < 0) {
+            throw new IllegalArgumentException("dedupeWindow can't be negative (" + dedupeWindow + " given)");
+        }
+
+        this.dedupeWindow = dedupeWindow;
+    }
+
+    /**
+     * @return Port the receiver is listening on, or 0 if it is not running.
+     */
+    @JmxAttribute(description = "Port listening on")
+    public synchronized int getPort() {
+        return channel == null ? 0 : channel.socket().getLocalPort();
+    }
+
+    @JmxAttribute(description = "Packets received")
+    public long getPackets() {
+        return packets.get();
+    }
+
+    @JmxAttribute(description = "Packets that were not valid xPL or xAP")
+    public long getMalformed() {
+        return malformed.get();
+    }
+
+    @JmxAttribute(description = "Samples published")
+    public long getPublished() {
+        return published.get();
+    }
+
+    @JmxAttribute(description = "Duplicate samples dropped")
+    public long getDuplicates() {
+        return duplicates.get();
+    }
+
+    @Override
+    protected synchronized void startup() throws Throwable {
+
+        channel = DatagramChannel.open();
+
+        // Other xPL/xAP applications on this host may be listening on the same port
+        channel.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+        channel.bind(address);
+
+        running = true;
+
+        DatagramChannel current = channel;
+
+        receiver = new Thread(() -> receive(current), getClass().getSimpleName() + "-receive");
+        receiver.setDaemon(true);
+        receiver.start();
+
+        logger.info("Listening on " + channel.getLocalAddress());
+    }
+
+    @Override
+    protected synchronized void shutdown() throws Throwable {
+
+        running = false;
+
+        // This will break the blocking receive
+        channel.close();
+
+        receiver.join(5000);
+        receiver = null;
+        channel = null;
+    }
+
+    private void receive(DatagramChannel current) {
+
+        ByteBuffer buffer = ByteBuffer.allocate(MAX_DATAGRAM_SIZE);
+
+        while (running) {
+
+            try {
+
+                buffer.clear();
+
+                SocketAddress from = current.receive(buffer);
+
+                if (from == null) {
+                    continue;
+                }
+
+                packets.incrementAndGet();
+                arrival = System.currentTimeMillis();
+                purge();
+
+                if (parser.parse(buffer.array(), 0, buffer.position(), this::block) < 0) {
+
+                    malformed.incrementAndGet();
+                    logger.debug("Malformed packet from " + from);
+                }
+
+            } catch (Throwable t) { // NOSONAR Consequences have been considered
+
+                if (running) {
+                    logger.error("receive() failed", t);
+                }
+            }
+        }
+    }
+
+    /**
+     * Publish the sample block the parser has just found, unless it is a duplicate.
+     */
+    private void block(MessageParser p) {
+
+        byte[] data = p.getData();
+        String source = p.sourceLength < 0 ? "" : strings.get(data, p.sourceOffset, p.sourceLength);
+        String signature = strings.get(data, p.signatureOffset, p.signatureLength);
+        long timestamp = p.getTimestamp();
+        double value = p.getValue();
+
+        if (isDuplicate(source, signature, timestamp, value, p.hop)) {
+            duplicates.incrementAndGet();
+            return;
+        }
+
+        String name = p.nameLength > 0 ? strings.get(data, p.nameOffset, p.nameLength) : source;
+        String errorMessage = p.getError();
+        Exception error = null;
+
+        if (errorMessage != null) {
+            error = new Exception(errorMessage);
+        } else if (p.valueLength <= 0) {
+            error = new Exception("No value");
+        }
+
+        long effective = timestamp < 0 ? arrival : timestamp;
+
+        published.incrementAndGet();
+        doubleBroadcaster.broadcast(effective, name, signature, value, error);
+
+        if (broadcaster.getConsumerCount() > 0) {
+            broadcaster.broadcast(new DataSample<>(effective, name, signature, error == null ? value : null, error));
+        }
+    }
+
+    private boolean isDuplicate(String source, String signature, long timestamp, double value, int hop) {
+
+        Seen last = seen.get(lookup.set(source, signature));
+
+        if (last == null) {
+
+            last = new Seen();
+            seen.put(new Key().set(source, signature), last);
+
+            if (seen.size() > MAX_SEEN) {
+
+                // Least recently seen goes
+                Iterator<Seen> eldest = seen.values().iterator();
+
+                eldest.next();
+                eldest.remove();
+            }
+
+        } else if (hop > 1 && arrival - last.arrival < dedupeWindow
+                && (timestamp >= 0 ? timestamp == last.timestamp : Double.compare(value, last.value) == 0)) {
+            return true;
+        }
+
+        last.timestamp = timestamp;
+        last.arrival = arrival;
+        last.value = value;
+
+        return false;
+    }
+
+    /**
+     * Forget the samples seen longer than the dedupe window ago, they can't have duplicates anymore.
+     *
+     * It is enough to do it once per window.
+     */
+    private void purge() {
+
+        long window = dedupeWindow;
+
+        if (arrival - purged < window) {
+            return;
+        }
+
+        purged = arrival;
+
+        // Least recently seen first, although a duplicate counts as seen without renewing the arrival time, so
+        // this is approximate. Anything missed will be dropped next time.
+
+        for (Iterator<Seen> i = seen.values().iterator(); i.hasNext(); ) {
+
+            if (arrival - i.next().arrival < window) {
+                break;
+            }
+
+            i.remove();
+        }
+    }
+
+    @Override
+    public void addConsumer(DataSink<Double> consumer) {
+        broadcaster.addConsumer(consumer);
+    }
+
+    @Override
+    public void removeConsumer(DataSink<Double> consumer) {
+        broadcaster.removeConsumer(consumer);
+    }
+
+    @Override
+    public void addConsumer(DoubleDataSink consumer) {
+        doubleBroadcaster.addConsumer(consumer);
+    }
+
+    @Override
+    public void removeConsumer(DoubleDataSink consumer) {
+        doubleBroadcaster.removeConsumer(consumer);
+    }
+}
@@ -1,9 +1,8 @@
 package com.homeclimatecontrol.jukebox.datastream.signal.model;
 
 import java.io.Serializable;
-import java.text.DateFormat;
-import java.text.SimpleDateFormat;
-import java.util.Date;
+
+import com.homeclimatecontrol.jukebox.util.TimestampFormatter;
 
 /**
  * A data sample. An immutable object that is used to carry the data around,
@@ -16,11 +15,6 @@ public final class DataSample<E> implements Serializable {
 
     private static final long serialVersionUID = 234850129837904475L;
 
-    /**
-     * Date format used to print the timestamp in {@link #toString()}.
-     */
-    private final DateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS");
-
     /**
      * Timestamp associated with the sample. Must represent a valid time.
      */
@@ -124,7 +118,7 @@ public final class DataSample<E> implements Serializable {
         StringBuilder sb = new StringBuilder("DataSample[");
         
         // Default date resolution is not good enough for some applications
-        sb.append(dateFormat.format(new Date(timestamp)));
+        TimestampFormatter.LOCAL.formatTo(timestamp, sb);
         
         sb.append("#").append(sourceName).append("#");
         sb.append("sig(").append(signature).append("), ");
@@ -0,0 +1,173 @@
+package com.homeclimatecontrol.jukebox.datastream.signal.model;
+
+import java.io.Serializable;
+
+import com.homeclimatecontrol.jukebox.util.TimestampFormatter;
+
+/**
+ * A primitive {@code double} data sample. Carries the same information as {@link DataSample DataSample&lt;Double&gt;},
+ * without boxing the value.
+ *
+ * Unlike {@link DataSample}, the absence of a value is represented by {@link Double#NaN}. If the error is present,
+ * the value is always {@link Double#NaN}.
+ *
+ * Instances handed to a {@link DoubleDataSink} may come from a {@link DoubleDataSamplePool pool} and get reused as soon
+ * as {@link DoubleDataSink#consume(DoubleDataSample)} returns. A sink that needs to keep the sample around must either
+ * keep a {@link #copy() copy}, or {@link #retain() retain} the sample and {@link #release() release} it when done.
+ *
+ * @author Copyright &copy; <a href="mailto:vt@homeclimatecontrol.com">Vadim Tkachenko</a> 2026
+ */
+public class DoubleDataSample implements Serializable {
+
+    private static final long serialVersionUID = -1404593298417330915L;
+
+    private final long timestamp;
+    private final String sourceName;
+    private final String signature;
+    private final double sample;
+    private final Throwable error;
+
+    /**
+     * Create explicitly defined instance.
+     *
+     * @param timestamp Timestamp associated with the sample. If it is negative, current time will be used instead.
+     * @param sourceName Human readable name of the source of this data sample.
+     * @param signature Signature that can be used to uniquely identify the source of this data. Due to implementation
+     * constraints, must be short and filesystem-safe. Must not be empty.
+     * @param sample The sample itself. Ignored if the error is not null.
+     * @param error Exception associated with the error, or {@code null} if there was none.
+     */
+    public DoubleDataSample(long timestamp, String sourceName, String signature, double sample, Throwable error) {
+
+        checkSignature(signature);
+
+        this.timestamp = timestamp < 0 ? System.currentTimeMillis() : timestamp;
+        this.sourceName = sourceName;
+        this.signature = signature;
+        this.sample = error == null ? sample : Double.NaN;
+        this.error = error;
+    }
+
+    /**
+     * Create an empty instance. Only to be used by the {@link DoubleDataSamplePool pool}, whose samples keep their
+     * own, mutable, content and override all the getters.
+     */
+    DoubleDataSample() {
+
+        this.timestamp = 0;
+        this.sourceName = null;
+        this.signature = "-";
+        this.sample = Double.NaN;
+        this.error = null;
+    }
+
+    static void checkSignature(String signature) {
+
+        if (signature == null || "".equals(signature)) {
+            throw new IllegalArgumentException("Signature must not be empty");
+        }
+    }
+
+    /**
+     * Get an instance that is guaranteed not to change.
+     *
+     * @return {@code this}, unless this instance is pooled - then a new unpooled instance with the same content.
+     * Instances created with the public constructor are immutable.
+     */
+    public DoubleDataSample copy() {
+        return this;
+    }
+
+    /**
+     * Prevent the sample from being reused until {@link #release()} is called. Every call to this method must be
+     * matched with exactly one call to {@link #release()}.
+     *
+     * @return {@code this}.
+     */
+    public DoubleDataSample retain() {
+        return this;
+    }
+
+    /**
+     * Let go of the sample. If this was the last reference to a pooled sample, the sample is returned to the pool and
+     * must not be accessed anymore.
+     */
+    public void release() {
+        // Nothing to do, unpooled samples are garbage collected
+    }
+
+    /**
+     * Convert a boxed sample into a primitive one.
+     *
+     * @param source Sample to convert.
+     * @return Primitive sample carrying the same information.
+     */
+    public static DoubleDataSample valueOf(DataSample<? extends Number> source) {
+
+        double value = source.sample == null ? Double.NaN : source.sample.doubleValue();
+
+        return new DoubleDataSample(source.timestamp, source.sourceName, source.signature, value, source.error);
+    }
+
+    /**
+     * @return Timestamp associated with the sample.
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * @return Human readable name of the source of this data sample.
+     */
+    public String getSourceName() {
+        return sourceName;
+    }
+
+    /**
+     * @return Signature that can be used to uniquely identify the source of this data.
+     */
+    public String getSignature() {
+        return signature;
+    }
+
+    /**
+     * @return The sample value, or {@link Double#NaN} if this is an {@link #isError() error sample}.
+     */
+    public double getSample() {
+        return sample;
+    }
+
+    /**
+     * @return The error associated with the sample, or {@code null} if there is none.
+     */
+    public Throwable getError() {
+        return error;
+    }
+
+    /**
+     * @return {@code true} if the data sample is an error.
+     */
+    public boolean isError() {
+        return getError() != null;
+    }
+
+    @Override
+    public String toString() {
+
+        StringBuilder sb = new StringBuilder("DoubleDataSample[");
+
+        TimestampFormatter.LOCAL.formatTo(getTimestamp(), sb);
+
+        sb.append("#").append(getSourceName()).append("#");
+        sb.append("sig(").append(getSignature()).append("), ");
+        sb.append("sample(").append(getSample());
+
+        if (isError()) {
+            sb.append(", error(").append(getError().getMessage()).append(")");
+        }
+
+        sb.append(")]");
+
+        return sb.toString();
+    }
+}
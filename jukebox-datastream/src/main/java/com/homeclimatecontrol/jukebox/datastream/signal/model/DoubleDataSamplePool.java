@@ -0,0 +1,230 @@
+package com.homeclimatecontrol.jukebox.datastream.signal.model;
+
+import java.io.ObjectStreamException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A pool of reusable {@link DoubleDataSample primitive data samples}.
+ *
+ * Samples obtained from the pool are reference counted. {@link #acquire(long, String, String, double, Throwable)}
+ * returns a sample with one reference held by the caller; every {@link DoubleDataSample#retain()} adds one, every
+ * {@link DoubleDataSample#release()} removes one, and the sample goes back to the pool when the count drops to zero.
+ *
+ * If the pool is empty, a new sample is created; if the pool is full, the released sample is left to the garbage
+ * collector. Either way, nothing breaks, it just gets slower.
+ *
+ * @author Copyright &copy; <a href="mailto:vt@homeclimatecontrol.com">Vadim Tkachenko</a> 2026
+ */
+public final class DoubleDataSamplePool {
+
+    /**
+     * Samples available for reuse. Guarded by {@code this}.
+     */
+    private final PooledSample[] free;
+
+    /**
+     * Number of samples in {@link #free}. Guarded by {@code this}.
+     */
+    private int size = 0;
+
+    private long created = 0;
+    private long reused = 0;
+
+    /**
+     * Create an instance.
+     *
+     * @param capacity Maximum number of idle samples to keep.
+     */
+    public DoubleDataSamplePool(int capacity) {
+
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Unreasonable capacity (" + capacity + ')');
+        }
+
+        free = new PooledSample[capacity];
+    }
+
+    /**
+     * Get a sample with the given content. The caller holds one reference to it.
+     *
+     * Arguments are the same as for the {@link DoubleDataSample#DoubleDataSample(long, String, String, double, Throwable)
+     * constructor}.
+     *
+     * @return A pooled sample.
+     */
+    public DoubleDataSample acquire(long timestamp, String sourceName, String signature, double sample, Throwable error) {
+
+        PooledSample result = null;
+
+        synchronized (this) {
+
+            if (size > 0) {
+
+                result = free[--size];
+                free[size] = null;
+                reused++;
+
+            } else {
+
+                created++;
+            }
+        }
+
+        if (result == null) {
+            result = new PooledSample(this);
+        }
+
+        try {
+
+            result.set(timestamp, sourceName, signature, sample, error);
+
+        } catch (IllegalArgumentException ex) {
+
+            release(result);
+            throw ex;
+        }
+
+        result.references.set(1);
+
+        return result;
+    }
+
+    private void release(PooledSample sample) {
+
+        // Don't keep references to what may be big objects
+        sample.clear();
+
+        synchronized (this) {
+
+            if (size < free.length) {
+                free[size++] = sample;
+            }
+        }
+    }
+
+    /**
+     * @return Number of samples that had to be created because the pool was empty.
+     */
+    public synchronized long getCreated() {
+        return created;
+    }
+
+    /**
+     * @return Number of times a sample was taken from the pool instead of being created.
+     */
+    public synchronized long getReused() {
+        return reused;
+    }
+
+    /**
+     * @return Number of idle samples in the pool.
+     */
+    public synchronized int getIdle() {
+        return size;
+    }
+
+    private static final class PooledSample extends DoubleDataSample {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient DoubleDataSamplePool pool;
+        private final transient AtomicInteger references = new AtomicInteger();
+
+        private long timestamp;
+        private String sourceName;
+        private String signature;
+        private double sample;
+        private Throwable error;
+
+        PooledSample(DoubleDataSamplePool pool) {
+            this.pool = pool;
+        }
+
+        /**
+         * Set the content. Arguments are the same as for the
+         * {@link DoubleDataSample#DoubleDataSample(long, String, String, double, Throwable) constructor}.
+         */
+        void set(long timestamp, String sourceName, String signature, double sample, Throwable error) {
+
+            checkSignature(signature);
+
+            this.timestamp = timestamp < 0 ? System.currentTimeMillis() : timestamp;
+            this.sourceName = sourceName;
+            this.signature = signature;
+            this.sample = error == null ? sample : Double.NaN;
+            this.error = error;
+        }
+
+        @Override
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        @Override
+        public String getSourceName() {
+            return sourceName;
+        }
+
+        @Override
+        public String getSignature() {
+            return signature;
+        }
+
+        @Override
+        public double getSample() {
+            return sample;
+        }
+
+        @Override
+        public Throwable getError() {
+            return error;
+        }
+
+        @Override
+        public DoubleDataSample copy() {
+            return new DoubleDataSample(getTimestamp(), getSourceName(), getSignature(), getSample(), getError());
+        }
+
+        @Override
+        public DoubleDataSample retain() {
+
+            if (references.getAndIncrement() <= 0) {
+                references.decrementAndGet();
+                throw new IllegalStateException("Sample has already been returned to the pool");
+            }
+
+            return this;
+        }
+
+        @Override
+        public void release() {
+
+            int left = references.decrementAndGet();
+
+            if (left == 0) {
+                pool.release(this);
+            } else if (left < 0) {
+                references.incrementAndGet();
+                throw new IllegalStateException("release() called more times than retain()");
+            }
+        }
+
+        void clear() {
+            timestamp = 0;
+            sourceName = null;
+            signature = "-";
+            sample = Double.NaN;
+            error = null;
+        }
+
+        /**
+         * Serialize as a plain sample, the pool doesn't travel.
+         *
+         * @return Unpooled copy.
+         * @throws ObjectStreamException never.
+         */
+        private Object writeReplace() throws ObjectStreamException {
+            return copy();
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.homeclimatecontrol.jukebox.datastream.signal.model;
+
+/**
+ * A data sink for {@link DoubleDataSample primitive data samples}.
+ *
+ * @author Copyright &copy; <a href="mailto:vt@homeclimatecontrol.com">Vadim Tkachenko</a> 2026
+ */
+public interface DoubleDataSink {
+
+    /**
+     * Consume the data sample.
+     *
+     * @param signal Sample to consume.
+     */
+    void consume(DoubleDataSample signal);
+}
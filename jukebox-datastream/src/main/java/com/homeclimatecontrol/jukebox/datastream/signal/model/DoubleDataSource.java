@@ -0,0 +1,23 @@
+package com.homeclimatecontrol.jukebox.datastream.signal.model;
+
+/**
+ * A data source producing {@link DoubleDataSample primitive data samples}.
+ *
+ * @author Copyright &copy; <a href="mailto:vt@homeclimatecontrol.com">Vadim Tkachenko</a> 2026
+ */
+public interface DoubleDataSource {
+
+    /**
+     * Add a {@link DoubleDataSample data sample} consumer.
+     *
+     * @param consumer Consumer to add.
+     */
+    void addConsumer(DoubleDataSink consumer);
+
+    /**
+     * Remove a {@link DoubleDataSample data sample} consumer.
+     *
+     * @param consumer Consumer to remove.
+     */
+    void removeConsumer(DoubleDataSink consumer);
+}
@@ -0,0 +1,84 @@
+package com.homeclimatecontrol.jukebox.datastream.signal.model;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * UTF-8 representation of the strings carried by a {@link DoubleDataSample}, for the binary formats that store them
+ * prefixed with a {@code short} length.
+ *
+ * Source names and signatures come from a small set, and their representation is cached. Error descriptions are
+ * truncated to {@link #MAX_ERROR_LENGTH} characters, and are not cached. The instance is safe to share between
+ * threads.
+ *
+ * @author Copyright &copy; <a href="mailto:vt@homeclimatecontrol.com">Vadim Tkachenko</a> 2026
+ */
+public final class SampleEncoder {
+
+    /**
+     * Longest error description encoded, in characters. Longer ones are truncated.
+     */
+    public static final int MAX_ERROR_LENGTH = 1024;
+
+    /**
+     * Longest string that can be stored, in bytes. Longer ones would overflow the length.
+     */
+    public static final int MAX_STRING_LENGTH = Short.MAX_VALUE;
+
+    /**
+     * UTF-8 representation of source names and signatures seen so far.
+     */
+    private final ConcurrentMap<String, byte[]> encoded = new ConcurrentHashMap<>();
+
+    /**
+     * Encode a source name or a signature.
+     *
+     * @param value String to encode.
+     * @return UTF-8 representation, or {@code null} if the value is {@code null}. Must not be modified.
+     */
+    public byte[] encode(String value) {
+
+        if (value == null) {
+            return null;
+        }
+
+        byte[] result = encoded.get(value);
+
+        if (result == null) {
+            result = encoded.computeIfAbsent(value, k -> k.getBytes(StandardCharsets.UTF_8));
+        }
+
+        return result;
+    }
+
+    /**
+     * Encode the error description of the sample, truncated to {@link #MAX_ERROR_LENGTH} characters. The result is
+     * always short enough to be stored.
+     *
+     * @param sample Sample to encode the error description of.
+     * @return UTF-8 representation, or {@code null} if the sample is not an error.
+     */
+    public static byte[] encodeError(DoubleDataSample sample) {
+
+        if (!sample.isError()) {
+            return null;
+        }
+
+        String description = sample.getError().toString();
+
+        if (description.length() > MAX_ERROR_LENGTH) {
+            description = description.substring(0, MAX_ERROR_LENGTH);
+        }
+
+        return description.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @param bytes Encoded string, or {@code null}.
+     * @return {@code true} if the string is no longer than {@link #MAX_STRING_LENGTH}.
+     */
+    public static boolean isStorable(byte[] bytes) {
+        return bytes == null || bytes.length <= MAX_STRING_LENGTH;
+    }
+}
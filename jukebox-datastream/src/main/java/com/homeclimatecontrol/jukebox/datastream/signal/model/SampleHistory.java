@@ -0,0 +1,80 @@
+package com.homeclimatecontrol.jukebox.datastream.signal.model;
+
+import java.io.Serializable;
+
+/**
+ * A snapshot of recent samples for a single signature, oldest first.
+ *
+ * Error samples are represented by {@link Double#NaN} values.
+ *
+ * @author Copyright &copy; <a href="mailto:vt@homeclimatecontrol.com">Vadim Tkachenko</a> 2026
+ */
+public final class SampleHistory implements Serializable {
+
+    private static final long serialVersionUID = -2740955124896522214L;
+
+    private final String signature;
+    private final long[] timestamps;
+    private final double[] values;
+
+    /**
+     * Create an instance.
+     *
+     * @param signature Signature the samples belong to.
+     * @param timestamps Sample timestamps, oldest first. The array is not copied.
+     * @param values Sample values. The array is not copied.
+     */
+    public SampleHistory(String signature, long[] timestamps, double[] values) {
+
+        if (timestamps.length != values.length) {
+            throw new IllegalArgumentException("Timestamps and values must be of the same length");
+        }
+
+        this.signature = signature;
+        this.timestamps = timestamps;
+        this.values = values;
+    }
+
+    public String getSignature() {
+        return signature;
+    }
+
+    /**
+     * @return Number of samples.
+     */
+    public int size() {
+        return timestamps.length;
+    }
+
+    /**
+     * @param index Sample index, 0 being the oldest.
+     * @return Sample timestamp.
+     */
+    public long getTimestamp(int index) {
+        return timestamps[index];
+    }
+
+    /**
+     * @param index Sample index, 0 being the oldest.
+     * @return Sample value, {@link Double#NaN} for an error sample.
+     */
+    public double getValue(int index) {
+        return values[index];
+    }
+
+    @Override
+    public String toString() {
+
+        StringBuilder sb = new StringBuilder("SampleHistory[sig(").append(signature).append("), ");
+
+        sb.append(timestamps.length).append(" samples");
+
+        if (timestamps.length > 0) {
+            sb.append(", ").append(timestamps[0]).append("..").append(timestamps[timestamps.length - 1]);
+        }
+
+        sb.append("]");
+
+        return sb.toString();
+    }
+}
@@ -0,0 +1,185 @@
+package com.homeclimatecontrol.jukebox.datastream.signal.model;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+import com.homeclimatecontrol.jukebox.util.TimestampFormatter;
+
+/**
+ * Statistics for the samples of a single signature received within a time window.
+ *
+ * If the window contains no valid samples, all the statistics are {@link Double#NaN}.
+ *
+ * @author Copyright &copy; <a href="mailto:vt@homeclimatecontrol.com">Vadim Tkachenko</a> 2026
+ */
+public final class WindowStatistics implements Serializable {
+
+    private static final long serialVersionUID = 6409862357817226125L;
+
+    private final String signature;
+    private final long start;
+    private final long end;
+    private final int count;
+    private final int errors;
+    private final double min;
+    private final double max;
+    private final double mean;
+    private final double stddev;
+    private final double[] percentileLevels;
+    private final double[] percentiles;
+
+    /**
+     * Create an instance.
+     *
+     * @param signature Signature of the samples.
+     * @param start Window start timestamp, inclusive.
+     * @param end Window end timestamp, exclusive.
+     * @param count Number of valid samples within the window.
+     * @param errors Number of error samples within the window.
+     * @param min Minimum value.
+     * @param max Maximum value.
+     * @param mean Arithmetic mean.
+     * @param stddev Population standard deviation.
+     * @param percentileLevels Percentile levels, 0 to 100. The array is not copied.
+     * @param percentiles Percentile values corresponding to {@code percentileLevels}. The array is not copied.
+     */
+    public WindowStatistics(String signature, long start, long end, int count, int errors,
+            double min, double max, double mean, double stddev,
+            double[] percentileLevels, double[] percentiles) {
+
+        if (percentileLevels.length != percentiles.length) {
+            throw new IllegalArgumentException("Percentile levels and values must be of the same length");
+        }
+
+        this.signature = signature;
+        this.start = start;
+        this.end = end;
+        this.count = count;
+        this.errors = errors;
+        this.min = min;
+        this.max = max;
+        this.mean = mean;
+        this.stddev = stddev;
+        this.percentileLevels = percentileLevels;
+        this.percentiles = percentiles;
+    }
+
+    public String getSignature() {
+        return signature;
+    }
+
+    /**
+     * @return Window start timestamp, inclusive.
+     */
+    public long getStart() {
+        return start;
+    }
+
+    /**
+     * @return Window end timestamp, exclusive.
+     */
+    public long getEnd() {
+        return end;
+    }
+
+    /**
+     * @return Number of valid samples within the window.
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * @return Number of error samples within the window.
+     */
+    public int getErrors() {
+        return errors;
+    }
+
+    public double getMin() {
+        return min;
+    }
+
+    public double getMax() {
+        return max;
+    }
+
+    public double getMean() {
+        return mean;
+    }
+
+    /**
+     * @return Population standard deviation.
+     */
+    public double getStddev() {
+        return stddev;
+    }
+
+    /**
+     * @return Number of percentiles available.
+     */
+    public int getPercentileCount() {
+        return percentiles.length;
+    }
+
+    /**
+     * @param index Percentile index.
+     * @return Percentile level, 0 to 100.
+     */
+    public double getPercentileLevel(int index) {
+        return percentileLevels[index];
+    }
+
+    /**
+     * @param index Percentile index.
+     * @return Percentile value.
+     */
+    public double getPercentile(int index) {
+        return percentiles[index];
+    }
+
+    /**
+     * Get the percentile value for a given level.
+     *
+     * @param level Percentile level, must be one of those configured.
+     * @return Percentile value.
+     * @throws IllegalArgumentException if this percentile level was not computed.
+     */
+    public double getPercentileAt(double level) {
+
+        for (int offset = 0; offset < percentileLevels.length; offset++) {
+
+            if (Double.compare(percentileLevels[offset], level) == 0) {
+                return percentiles[offset];
+            }
+        }
+
+        throw new IllegalArgumentException("Percentile " + level + " is not available, only " + Arrays.toString(percentileLevels));
+    }
+
+    @Override
+    public String toString() {
+
+        StringBuilder sb = new StringBuilder("WindowStatistics[");
+
+        TimestampFormatter.LOCAL.formatTo(start, sb);
+        sb.append("..");
+        TimestampFormatter.LOCAL.formatTo(end, sb);
+
+        sb.append(" sig(").append(signature).append("), ");
+        sb.append("count=").append(count);
+        sb.append(", errors=").append(errors);
+        sb.append(", min=").append(min);
+        sb.append(", max=").append(max);
+        sb.append(", mean=").append(mean);
+        sb.append(", stddev=").append(stddev);
+
+        for (int offset = 0; offset < percentiles.length; offset++) {
+            sb.append(", p").append(percentileLevels[offset]).append("=").append(percentiles[offset]);
+        }
+
+        sb.append("]");
+
+        return sb.toString();
+    }
+}
@@ -0,0 +1,177 @@
+package com.homeclimatecontrol.jukebox.datastream.transport.tcp;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import com.homeclimatecontrol.jukebox.datastream.signal.model.DoubleDataSample;
+import com.homeclimatecontrol.jukebox.datastream.signal.model.SampleEncoder;
+
+/**
+ * Binary sample protocol spoken by {@link TcpSampleServer} and {@link TcpSampleClient}.
+ *
+ * Every frame is prefixed with its length (not counting the prefix itself), followed by the frame type:
+ *
+ * <pre>
+ * int length
+ * byte type
+ * ...
+ * </pre>
+ *
+ * A {@link #TYPE_SUBSCRIBE subscribe} frame is sent by the client right after connecting, and carries the
+ * signatures the client is interested in, an empty list meaning all of them:
+ *
+ * <pre>
+ * short count
+ * string[count] signatures
+ * </pre>
+ *
+ * A {@link #TYPE_SAMPLES samples} frame carries a batch of samples:
+ *
+ * <pre>
+ * short count
+ * {
+ *   long timestamp
+ *   double value
+ *   string source name
+ *   string signature
+ *   string error description, null if the sample is not an error
+ * }[count]
+ * </pre>
+ *
+ * A string is a {@code short} length followed by that many bytes of UTF-8, the length of a {@code null} string is
+ * -1. All the numbers are big endian.
+ *
+ * @author Copyright &copy; <a href="mailto:vt@homeclimatecontrol.com">Vadim Tkachenko</a> 2026
+ */
+final class FrameCodec {
+
+    static final byte TYPE_SUBSCRIBE = 1;
+    static final byte TYPE_SAMPLES = 2;
+
+    /**
+     * Largest frame allowed, including the length prefix.
+     */
+    static final int MAX_FRAME_SIZE = 65536;
+
+    /**
+     * Frame header size: length prefix, type, and count.
+     */
+    static final int HEADER_SIZE = Integer.BYTES + Byte.BYTES + Short.BYTES;
+
+    private final SampleEncoder encoder = new SampleEncoder();
+
+    /**
+     * Start a frame. The length and the count are filled in by {@link #finishFrame(ByteBuffer, int, int)}.
+     *
+     * @param buffer Buffer to write the frame to.
+     * @param type Frame type.
+     * @return Offset of the frame start, to be passed to {@link #finishFrame(ByteBuffer, int, int)}.
+     */
+    static int startFrame(ByteBuffer buffer, byte type) {
+
+        int start = buffer.position();
+
+        buffer.putInt(0);
+        buffer.put(type);
+        buffer.putShort((short) 0);
+
+        return start;
+    }
+
+    /**
+     * Fill in the length and the count of the frame started with {@link #startFrame(ByteBuffer, byte)}.
+     */
+    static void finishFrame(ByteBuffer buffer, int start, int count) {
+
+        buffer.putInt(start, buffer.position() - start - Integer.BYTES);
+        buffer.putShort(start + Integer.BYTES + Byte.BYTES, (short) count);
+    }
+
+    /**
+     * Write a sample to the frame being built.
+     *
+     * @return {@code false} if the sample didn't fit, or has a string too long to be sent at all; the buffer is not
+     * changed then.
+     */
+    boolean putSample(ByteBuffer buffer, DoubleDataSample sample) {
+
+        byte[] sourceName = encoder.encode(sample.getSourceName());
+        byte[] signature = encoder.encode(sample.getSignature());
+        byte[] error = SampleEncoder.encodeError(sample);
+
+        if (!SampleEncoder.isStorable(sourceName) || !SampleEncoder.isStorable(signature)) {
+            return false;
+        }
+
+        int size = Long.BYTES + Double.BYTES + 3 * Short.BYTES + length(sourceName) + length(signature) + length(error);
+
+        if (buffer.remaining() < size) {
+            return false;
+        }
+
+        buffer.putLong(sample.getTimestamp());
+        buffer.putDouble(sample.getSample());
+        putString(buffer, sourceName);
+        putString(buffer, signature);
+        putString(buffer, error);
+
+        return true;
+    }
+
+    /**
+     * Read a sample from a {@link #TYPE_SAMPLES samples} frame.
+     *
+     * @return The sample. Errors are restored as a plain {@link Exception} with the original description as the
+     * message.
+     */
+    static DoubleDataSample getSample(ByteBuffer buffer) {
+
+        long timestamp = buffer.getLong();
+        double value = buffer.getDouble();
+        String sourceName = getString(buffer);
+        String signature = getString(buffer);
+        String error = getString(buffer);
+
+        return new DoubleDataSample(timestamp, sourceName, signature, value, error == null ? null : new Exception(error));
+    }
+
+    private static int length(byte[] bytes) {
+        return bytes == null ? 0 : bytes.length;
+    }
+
+    /**
+     * Write a string.
+     *
+     * @param bytes UTF-8 representation of the string, or {@code null}.
+     * @throws IllegalArgumentException if the string is longer than {@link SampleEncoder#MAX_STRING_LENGTH}.
+     */
+    static void putString(ByteBuffer buffer, byte[] bytes) {
+
+        if (bytes == null) {
+            buffer.putShort((short) -1);
+            return;
+        }
+
+        if (!SampleEncoder.isStorable(bytes)) {
+            throw new IllegalArgumentException("String too long (" + bytes.length + " bytes given)");
+        }
+
+        buffer.putShort((short) bytes.length);
+        buffer.put(bytes);
+    }
+
+    static String getString(ByteBuffer buffer) {
+
+        int length = buffer.getShort();
+
+        if (length < 0) {
+            return null;
+        }
+
+        byte[] bytes = new byte[length];
+
+        buffer.get(bytes);
+
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,309 @@
+package com.homeclimatecontrol.jukebox.datastream.transport.tcp;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.homeclimatecontrol.jukebox.conf.ConfigurableProperty;
+import com.homeclimatecontrol.jukebox.datastream.logger.impl.DataBroadcaster;
+import com.homeclimatecontrol.jukebox.datastream.logger.impl.DoubleDataBroadcaster;
+import com.homeclimatecontrol.jukebox.datastream.signal.model.DataSample;
+import com.homeclimatecontrol.jukebox.datastream.signal.model.DataSink;
+import com.homeclimatecontrol.jukebox.datastream.signal.model.DataSource;
+import com.homeclimatecontrol.jukebox.datastream.signal.model.DoubleDataSample;
+import com.homeclimatecontrol.jukebox.datastream.signal.model.DoubleDataSink;
+import com.homeclimatecontrol.jukebox.datastream.signal.model.DoubleDataSource;
+import com.homeclimatecontrol.jukebox.datastream.signal.model.SampleEncoder;
+import com.homeclimatecontrol.jukebox.jmx.JmxAttribute;
+import com.homeclimatecontrol.jukebox.service.PassiveService;
+
+/**
+ * Receives the samples from a {@link TcpSampleServer} in another process, and passes them on to local consumers.
+ *
+ * The connection is made and read by a dedicated thread, and is reestablished if it breaks. Samples are delivered
+ * both to the {@link DataSink boxed} and the {@link DoubleDataSink primitive} consumers.
+ *
+ * @author Copyright &copy; <a href="mailto:vt@homeclimatecontrol.com">Vadim Tkachenko</a> 2026
+ */
+public class TcpSampleClient extends PassiveService implements DataSource<Double>, DoubleDataSource {
+
+    /**
+     * Default delay before reconnecting.
+     */
+    public static final long DEFAULT_RECONNECT_DELAY = 1000L;
+
+    private final InetSocketAddress server;
+    private final String[] signatures;
+
+    private final DataBroadcaster<Double> broadcaster = new DataBroadcaster<>(null, 0, null);
+    private final DoubleDataBroadcaster doubleBroadcaster = new DoubleDataBroadcaster();
+
+    private volatile long reconnectDelay = DEFAULT_RECONNECT_DELAY;
+
+    private final AtomicLong received = new AtomicLong();
+    private final AtomicLong connects = new AtomicLong();
+
+    private volatile boolean running = false;
+    private volatile SocketChannel channel;
+    private Thread reader;
+
+    /**
+     * Create an instance.
+     *
+     * @param server Server to connect to.
+     * @param signatures Signatures to receive. If none are given, all the samples are received. They must all fit into
+     * a single subscription frame.
+     */
+    public TcpSampleClient(InetSocketAddress server, String... signatures) {
+
+        if (server == null) {
+            throw new IllegalArgumentException("server can't be null");
+        }
+
+        if (signatures.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many signatures (" + signatures.length + ")");
+        }
+
+        // The subscription must fit into a single frame
+        int frameSize = FrameCodec.HEADER_SIZE;
+
+        for (String signature : signatures) {
+
+            int length = signature.getBytes(StandardCharsets.UTF_8).length;
+
+            if (length > SampleEncoder.MAX_STRING_LENGTH) {
+                throw new IllegalArgumentException("signature must be at most " + SampleEncoder.MAX_STRING_LENGTH
+                        + " bytes long (" + length + " given)");
+            }
+
+            frameSize += Short.BYTES + length;
+        }
+
+        if (frameSize > FrameCodec.MAX_FRAME_SIZE) {
+            throw new IllegalArgumentException("signatures must fit into " + FrameCodec.MAX_FRAME_SIZE
+                    + " bytes when encoded (" + frameSize + " given)");
+        }
+
+        this.server = server;
+        this.signatures = signatures.clone();
+    }
+
+    /**
+     * @return Delay before reconnecting, in milliseconds.
+     */
+    @JmxAttribute(description = "Delay before reconnecting, ms")
+    public final long getReconnectDelay() {
+        return reconnectDelay;
+    }
+
+    /**
+     * @param reconnectDelay Delay before reconnecting, in milliseconds.
+     */
+    @ConfigurableProperty(
+            propertyName = "reconnectDelay",
+            description = "Delay before reconnecting, ms"
+            )
+    public final void setReconnectDelay(long reconnectDelay) {
+
+        if (reconnectDelay <= 0) {
+            throw new IllegalArgumentException("reconnectDelay must be positive (" + reconnectDelay + " given)");
+        }
+
+        this.reconnectDelay = reconnectDelay;
+    }
+
+    @JmxAttribute(description = "Server address")
+    public String getServer() {
+        return server.toString();
+    }
+
+    @JmxAttribute(description = "Signatures subscribed to, empty if all")
+    public String[] getSignatures() {
+        return signatures.clone();
+    }
+
+    @JmxAttribute(description = "Samples received")
+    public long getReceived() {
+        return received.get();
+    }
+
+    @JmxAttribute(description = "Number of times the connection was established")
+    public long getConnects() {
+        return connects.get();
+    }
+
+    @JmxAttribute(description = "True if connected to the server")
+    public boolean isConnected() {
+
+        SocketChannel current = channel;
+
+        return current != null && current.isConnected();
+    }
+
+    @Override
+    protected synchronized void startup() throws Throwable {
+
+        running = true;
+
+        reader = new Thread(this::run, getClass().getSimpleName() + "-read");
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    @Override
+    protected synchronized void shutdown() throws Throwable {
+
+        running = false;
+
+        SocketChannel current = channel;
+
+        if (current != null) {
+            // This will break the blocking read
+            current.close();
+        }
+
+        reader.interrupt();
+        reader.join(reconnectDelay + 1000);
+        reader = null;
+    }
+
+    private void run() {
+
+        while (running) {
+
+            try (SocketChannel current = SocketChannel.open()) {
+
+                channel = current;
+
+                current.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                current.connect(server);
+                subscribe(current);
+                connects.incrementAndGet();
+
+                logger.info("Connected to " + server + (signatures.length == 0 ? "" : ", signatures " + Arrays.toString(signatures)));
+
+                receive(current);
+
+            } catch (Throwable t) { // NOSONAR Consequences have been considered
+
+                if (running) {
+                    logger.warn("Connection to " + server + " failed, reconnecting in " + reconnectDelay + "ms", t);
+                }
+
+            } finally {
+                channel = null;
+            }
+
+            try {
+
+                if (running) {
+                    Thread.sleep(reconnectDelay);
+                }
+
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void subscribe(SocketChannel current) throws IOException {
+
+        ByteBuffer buffer = ByteBuffer.allocate(FrameCodec.MAX_FRAME_SIZE);
+        int start = FrameCodec.startFrame(buffer, FrameCodec.TYPE_SUBSCRIBE);
+
+        for (String signature : signatures) {
+            FrameCodec.putString(buffer, signature.getBytes(StandardCharsets.UTF_8));
+        }
+
+        FrameCodec.finishFrame(buffer, start, signatures.length);
+        buffer.flip();
+
+        while (buffer.hasRemaining()) {
+            current.write(buffer);
+        }
+    }
+
+    private void receive(SocketChannel current) throws IOException {
+
+        ByteBuffer header = ByteBuffer.allocate(Integer.BYTES);
+        ByteBuffer body = ByteBuffer.allocate(FrameCodec.MAX_FRAME_SIZE);
+
+        while (running) {
+
+            header.clear();
+            readFully(current, header);
+
+            int length = header.getInt(0);
+
+            if (length <= 0 || length > FrameCodec.MAX_FRAME_SIZE - Integer.BYTES) {
+                throw new IOException("Invalid frame length " + length);
+            }
+
+            body.clear();
+            body.limit(length);
+            readFully(current, body);
+            body.flip();
+
+            if (body.get() != FrameCodec.TYPE_SAMPLES) {
+                // Not for us
+                continue;
+            }
+
+            int count = body.getShort();
+
+            for (int offset = 0; offset < count; offset++) {
+                deliver(FrameCodec.getSample(body));
+            }
+        }
+    }
+
+    private static void readFully(SocketChannel current, ByteBuffer buffer) throws IOException {
+
+        while (buffer.hasRemaining()) {
+
+            if (current.read(buffer) < 0) {
+                throw new EOFException("Connection closed by the server");
+            }
+        }
+    }
+
+    private void deliver(DoubleDataSample sample) {
+
+        received.incrementAndGet();
+        doubleBroadcaster.broadcast(sample);
+
+        if (broadcaster.getConsumerCount() > 0) {
+
+            Double value = sample.isError() ? null : sample.getSample();
+
+            broadcaster.broadcast(new DataSample<>(sample.getTimestamp(), sample.getSourceName(), sample.getSignature(), value, sample.getError()));
+        }
+    }
+
+    @Override
+    public void addConsumer(DataSink<Double> consumer) {
+        broadcaster.addConsumer(consumer);
+    }
+
+    @Override
+    public void removeConsumer(DataSink<Double> consumer) {
+        broadcaster.removeConsumer(consumer);
+    }
+
+    @Override
+    public void addConsumer(DoubleDataSink consumer) {
+        doubleBroadcaster.addConsumer(consumer);
+    }
+
+    @Override
+    public void removeConsumer(DoubleDataSink consumer) {
+        doubleBroadcaster.removeConsumer(consumer);
+    }
+}
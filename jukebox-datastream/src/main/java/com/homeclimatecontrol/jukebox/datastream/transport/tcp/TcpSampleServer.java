@@ -0,0 +1,555 @@
+package com.homeclimatecontrol.jukebox.datastream.transport.tcp;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.logging.log4j.Logger;
+
+import com.homeclimatecontrol.jukebox.datastream.logger.impl.OverflowPolicy;
+import com.homeclimatecontrol.jukebox.datastream.signal.model.DataSample;
+import com.homeclimatecontrol.jukebox.datastream.signal.model.DataSink;
+import com.homeclimatecontrol.jukebox.datastream.signal.model.DoubleDataSample;
+import com.homeclimatecontrol.jukebox.datastream.signal.model.DoubleDataSink;
+import com.homeclimatecontrol.jukebox.jmx.JmxAttribute;
+import com.homeclimatecontrol.jukebox.service.PassiveService;
+
+/**
+ * Serves the samples it consumes to {@link TcpSampleClient clients} in other processes.
+ *
+ * All the connections are handled by a single selector thread. Every subscriber gets a bounded queue, the consuming
+ * thread only puts the sample into the queues of the subscribers interested in its signature, and the selector
+ * thread packs as many queued samples as fit into a {@link FrameCodec frame} whenever the socket can take more. A
+ * subscriber that can't keep up fills its queue, and then the {@link OverflowPolicy overflow policy} decides which
+ * samples it doesn't get; other subscribers and the producer are not affected.
+ *
+ * @param <E> Data type to handle.
+ * @author Copyright &copy; <a href="mailto:vt@homeclimatecontrol.com">Vadim Tkachenko</a> 2026
+ */
+public class TcpSampleServer<E extends Number> extends PassiveService implements DataSink<E>, DoubleDataSink {
+
+    /**
+     * Default per subscriber queue capacity, in samples.
+     */
+    public static final int DEFAULT_QUEUE_CAPACITY = 1024;
+
+    private final InetSocketAddress address;
+    private final int queueCapacity;
+    private final OverflowPolicy overflowPolicy;
+
+    private final FrameCodec codec = new FrameCodec();
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    /**
+     * Subscribers that have got samples queued while idle, to be picked up by the selector thread.
+     */
+    private final Queue<Subscriber> pending = new ConcurrentLinkedQueue<>();
+
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    private ServerSocketChannel serverChannel;
+    private volatile Selector selector;
+    private Thread selectorThread;
+    private volatile boolean running = false;
+
+    /**
+     * Connected client.
+     *
+     * Everything it shares with the server is passed to it explicitly.
+     */
+    private static final class Subscriber {
+
+        final SocketChannel channel;
+        final String name;
+
+        private final FrameCodec codec;
+        private final int queueCapacity;
+        private final OverflowPolicy overflowPolicy;
+        private final AtomicLong sent;
+        private final AtomicLong dropped;
+        private final Logger logger;
+
+        SelectionKey key;
+
+        /**
+         * Incoming data, only accessed by the selector thread.
+         */
+        final ByteBuffer in = ByteBuffer.allocate(FrameCodec.MAX_FRAME_SIZE);
+
+        /**
+         * Frame being sent, in read mode. Only accessed by the selector thread.
+         */
+        final ByteBuffer out = ByteBuffer.allocateDirect(FrameCodec.MAX_FRAME_SIZE);
+
+        /**
+         * Signatures the client is interested in, empty set means all. {@code null} until the client has subscribed.
+         */
+        volatile Set<String> signatures;
+
+        /**
+         * Samples waiting to be sent. Guarded by this.
+         */
+        private final ArrayDeque<DoubleDataSample> queue = new ArrayDeque<>();
+
+        /**
+         * {@code true} if the selector thread is going to look at the queue. Guarded by this.
+         */
+        private boolean flagged = false;
+
+        /**
+         * @param channel Connection to the client.
+         * @param codec Codec to pack the samples with.
+         * @param queueCapacity Maximum number of samples queued.
+         * @param overflowPolicy What to do when the queue is full.
+         * @param sent Counter of the samples sent.
+         * @param dropped Counter of the samples dropped.
+         * @param logger Logger to complain to.
+         */
+        Subscriber(SocketChannel channel, FrameCodec codec, int queueCapacity, OverflowPolicy overflowPolicy,
+                AtomicLong sent, AtomicLong dropped, Logger logger) {
+
+            this.channel = channel;
+            this.name = String.valueOf(channel.socket().getRemoteSocketAddress());
+            this.codec = codec;
+            this.queueCapacity = queueCapacity;
+            this.overflowPolicy = overflowPolicy;
+            this.sent = sent;
+            this.dropped = dropped;
+            this.logger = logger;
+
+            out.limit(0);
+        }
+
+        boolean wants(String signature) {
+
+            Set<String> current = signatures;
+
+            return current != null && (current.isEmpty() || current.contains(signature));
+        }
+
+        /**
+         * Queue the sample.
+         *
+         * @return {@code true} if the selector thread has to be told about this subscriber.
+         */
+        synchronized boolean offer(DoubleDataSample sample) {
+
+            if (overflowPolicy == OverflowPolicy.COALESCE) {
+
+                for (Iterator<DoubleDataSample> i = queue.iterator(); i.hasNext(); ) {
+
+                    if (i.next().getSignature().equals(sample.getSignature())) {
+                        i.remove();
+                        dropped.incrementAndGet();
+                        break;
+                    }
+                }
+            }
+
+            if (queue.size() >= queueCapacity) {
+
+                dropped.incrementAndGet();
+
+                if (overflowPolicy == OverflowPolicy.DROP_NEWEST) {
+                    return false;
+                }
+
+                queue.pollFirst();
+            }
+
+            queue.addLast(sample);
+
+            if (flagged) {
+                return false;
+            }
+
+            flagged = true;
+            return true;
+        }
+
+        /**
+         * Pack the queued samples into the outgoing frame.
+         *
+         * @return {@code false} if there was nothing to send.
+         */
+        synchronized boolean fill() {
+
+            out.clear();
+
+            int start = FrameCodec.startFrame(out, FrameCodec.TYPE_SAMPLES);
+            int count = 0;
+
+            while (count < Short.MAX_VALUE && !queue.isEmpty()) {
+
+                if (!codec.putSample(out, queue.peekFirst())) {
+
+                    if (count == 0) {
+
+                        // Can't possibly be sent
+                        logger.warn("Sample too large to send, dropped: " + queue.pollFirst());
+                        dropped.incrementAndGet();
+                        continue;
+                    }
+
+                    break;
+                }
+
+                queue.pollFirst();
+                count++;
+            }
+
+            if (count == 0) {
+
+                out.limit(0);
+                flagged = false;
+                return false;
+            }
+
+            FrameCodec.finishFrame(out, start, count);
+            out.flip();
+            sent.addAndGet(count);
+
+            return true;
+        }
+
+        synchronized int getQueueDepth() {
+            return queue.size();
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    /**
+     * Create an instance listening on all interfaces, with {@link #DEFAULT_QUEUE_CAPACITY default queue capacity}
+     * and {@link OverflowPolicy#DROP_OLDEST}.
+     *
+     * @param port Port to listen on, 0 for any free port.
+     */
+    public TcpSampleServer(int port) {
+        this(new InetSocketAddress(port), DEFAULT_QUEUE_CAPACITY, OverflowPolicy.DROP_OLDEST);
+    }
+
+    /**
+     * Create an instance.
+     *
+     * @param address Address to listen on.
+     * @param queueCapacity Maximum number of samples queued per subscriber.
+     * @param overflowPolicy What to do when a subscriber's queue is full.
+     */
+    public TcpSampleServer(InetSocketAddress address, int queueCapacity, OverflowPolicy overflowPolicy) {
+
+        if (address == null) {
+            throw new IllegalArgumentException("address can't be null");
+        }
+
+        if (queueCapacity <= 0) {
+            throw new IllegalArgumentException("queueCapacity must be positive (" + queueCapacity + " given)");
+        }
+
+        if (overflowPolicy == null) {
+            throw new IllegalArgumentException("overflowPolicy can't be null");
+        }
+
+        this.address = address;
+        this.queueCapacity = queueCapacity;
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    /**
+     * @return Port the server is listening on, or 0 if it is not running.
+     */
+    @JmxAttribute(description = "Port listening on")
+    public synchronized int getPort() {
+        return serverChannel == null ? 0 : serverChannel.socket().getLocalPort();
+    }
+
+    @JmxAttribute(description = "Number of connected subscribers")
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    @JmxAttribute(description = "Samples sent, all subscribers combined")
+    public long getSent() {
+        return sent.get();
+    }
+
+    @JmxAttribute(description = "Samples dropped because subscribers couldn't keep up")
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    @JmxAttribute(description = "Subscriber queue depth")
+    public String[] getSubscriberStatus() {
+
+        return subscribers.stream()
+                .map(subscriber -> subscriber + ": " + subscriber.getQueueDepth() + " queued, signatures " + subscriber.signatures)
+                .toArray(String[]::new);
+    }
+
+    @Override
+    protected synchronized void startup() throws Throwable {
+
+        selector = Selector.open();
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(address);
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+
+        running = true;
+
+        selectorThread = new Thread(this::select, getClass().getSimpleName() + "-select");
+        selectorThread.setDaemon(true);
+        selectorThread.start();
+
+        logger.info("Listening on " + serverChannel.getLocalAddress());
+    }
+
+    @Override
+    protected synchronized void shutdown() throws Throwable {
+
+        running = false;
+        selector.wakeup();
+        selectorThread.join(5000);
+        selectorThread = null;
+
+        for (Subscriber subscriber : subscribers) {
+            close(subscriber, null);
+        }
+
+        pending.clear();
+
+        serverChannel.close();
+        serverChannel = null;
+
+        selector.close();
+        selector = null;
+    }
+
+    @Override
+    public void consume(DataSample<E> sample) {
+        consume(DoubleDataSample.valueOf(sample));
+    }
+
+    @Override
+    public void consume(DoubleDataSample sample) {
+
+        String signature = sample.getSignature();
+        DoubleDataSample copy = null;
+        boolean wakeup = false;
+
+        for (Subscriber subscriber : subscribers) {
+
+            if (!subscriber.wants(signature)) {
+                continue;
+            }
+
+            if (copy == null) {
+                // The sample may be pooled, and we're holding on to it
+                copy = sample.copy();
+            }
+
+            if (subscriber.offer(copy)) {
+                pending.add(subscriber);
+                wakeup = true;
+            }
+        }
+
+        Selector current = selector;
+
+        if (wakeup && current != null) {
+            current.wakeup();
+        }
+    }
+
+    private void select() {
+
+        while (running) {
+
+            try {
+
+                selector.select();
+
+                for (Subscriber subscriber = pending.poll(); subscriber != null; subscriber = pending.poll()) {
+                    write(subscriber);
+                }
+
+                for (Iterator<SelectionKey> i = selector.selectedKeys().iterator(); i.hasNext(); ) {
+
+                    SelectionKey key = i.next();
+
+                    i.remove();
+
+                    if (!key.isValid()) {
+                        continue;
+                    }
+
+                    if (key.isAcceptable()) {
+                        accept();
+                        continue;
+                    }
+
+                    Subscriber subscriber = (Subscriber) key.attachment();
+
+                    if (key.isReadable()) {
+                        read(subscriber);
+                    }
+
+                    if (key.isValid() && key.isWritable()) {
+                        write(subscriber);
+                    }
+                }
+
+            } catch (Throwable t) { // NOSONAR Consequences have been considered
+
+                // If this propagates, the server will stop serving
+                logger.error("select() failed", t);
+            }
+        }
+    }
+
+    private void accept() throws IOException {
+
+        SocketChannel channel = serverChannel.accept();
+
+        if (channel == null) {
+            return;
+        }
+
+        channel.configureBlocking(false);
+        channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+
+        Subscriber subscriber = new Subscriber(channel, codec, queueCapacity, overflowPolicy, sent, dropped, logger);
+
+        subscriber.key = channel.register(selector, SelectionKey.OP_READ, subscriber);
+        subscribers.add(subscriber);
+
+        logger.info("Connected: " + subscriber);
+    }
+
+    private void read(Subscriber subscriber) {
+
+        ByteBuffer in = subscriber.in;
+
+        try {
+
+            if (subscriber.channel.read(in) < 0) {
+                close(subscriber, null);
+                return;
+            }
+
+            in.flip();
+
+            while (in.remaining() >= Integer.BYTES) {
+
+                int start = in.position();
+                int length = in.getInt(start);
+
+                if (length <= 0 || length > FrameCodec.MAX_FRAME_SIZE - Integer.BYTES) {
+                    throw new IOException("Invalid frame length " + length);
+                }
+
+                if (in.remaining() < Integer.BYTES + length) {
+                    break;
+                }
+
+                in.position(start + Integer.BYTES);
+
+                if (in.get() == FrameCodec.TYPE_SUBSCRIBE) {
+                    subscribe(subscriber, in);
+                }
+
+                // Skip whatever we don't understand
+                in.position(start + Integer.BYTES + length);
+            }
+
+            in.compact();
+
+        } catch (Throwable t) { // NOSONAR Consequences have been considered
+            close(subscriber, t);
+        }
+    }
+
+    private void subscribe(Subscriber subscriber, ByteBuffer in) {
+
+        int count = in.getShort();
+        Set<String> signatures = new HashSet<>();
+
+        for (int offset = 0; offset < count; offset++) {
+            signatures.add(FrameCodec.getString(in));
+        }
+
+        subscriber.signatures = Collections.unmodifiableSet(signatures);
+
+        logger.info("Subscribed: " + subscriber + (signatures.isEmpty() ? " to everything" : " to " + signatures));
+    }
+
+    private void write(Subscriber subscriber) {
+
+        if (!subscriber.key.isValid()) {
+            return;
+        }
+
+        try {
+
+            while (true) {
+
+                if (!subscriber.out.hasRemaining() && !subscriber.fill()) {
+
+                    // Nothing left to send
+                    subscriber.key.interestOps(SelectionKey.OP_READ);
+                    return;
+                }
+
+                subscriber.channel.write(subscriber.out);
+
+                if (subscriber.out.hasRemaining()) {
+
+                    // Socket buffer is full, wait until the client catches up
+                    subscriber.key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                    return;
+                }
+            }
+
+        } catch (Throwable t) { // NOSONAR Consequences have been considered
+            close(subscriber, t);
+        }
+    }
+
+    private void close(Subscriber subscriber, Throwable cause) {
+
+        subscribers.remove(subscriber);
+        subscriber.key.cancel();
+
+        try {
+            subscriber.channel.close();
+        } catch (IOException ex) {
+            logger.debug("Failed to close " + subscriber, ex);
+        }
+
+        if (cause == null) {
+            logger.info("Disconnected: " + subscriber);
+        } else {
+            logger.warn("Disconnected: " + subscriber, cause);
+        }
+    }
+}
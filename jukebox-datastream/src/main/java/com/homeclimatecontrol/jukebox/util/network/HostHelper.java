@@ -1,6 +1,8 @@
 package com.homeclimatecontrol.jukebox.util.network;
 
+import java.net.Inet4Address;
 import java.net.InetAddress;
+import java.net.InterfaceAddress;
 import java.net.NetworkInterface;
 import java.net.SocketException;
 import java.net.UnknownHostException;
@@ -67,4 +69,59 @@ public class HostHelper {
 
     return result;
   }
+
+  /**
+   * Get the broadcast address for the given interface address.
+   *
+   * Unlike {@link InterfaceAddress#getBroadcast()}, this also works for interfaces that don't report a broadcast
+   * address (point to point links, some virtual adapters) as long as they report the network prefix length.
+   *
+   * @param interfaceAddress Interface address to analyze.
+   *
+   * @return Broadcast address, or {@code null} if the address is not an IPv4 address.
+   */
+  public static InetAddress getBroadcastAddress(InterfaceAddress interfaceAddress) {
+
+    InetAddress broadcast = interfaceAddress.getBroadcast();
+
+    if (broadcast != null) {
+      return broadcast;
+    }
+
+    return getBroadcastAddress(interfaceAddress.getAddress(), interfaceAddress.getNetworkPrefixLength());
+  }
+
+  /**
+   * Compute the broadcast address for the given host address and network prefix length.
+   *
+   * @param address Host address.
+   * @param prefixLength Network prefix length, 0 to 32.
+   *
+   * @return Broadcast address, or {@code null} if the address is not an IPv4 address.
+   */
+  public static InetAddress getBroadcastAddress(InetAddress address, int prefixLength) {
+
+    if (!(address instanceof Inet4Address)) {
+      return null;
+    }
+
+    if (prefixLength < 0 || prefixLength > 32) {
+      throw new IllegalArgumentException("Invalid prefix length " + prefixLength + " for " + address);
+    }
+
+    byte[] bytes = address.getAddress();
+    int host = ((bytes[0] & 0xFF) << 24) | ((bytes[1] & 0xFF) << 16) | ((bytes[2] & 0xFF) << 8) | (bytes[3] & 0xFF);
+    int mask = prefixLength == 0 ? 0 : -1 << (32 - prefixLength);
+    int broadcast = host | ~mask;
+
+    try {
+
+      return InetAddress.getByAddress(new byte[] {
+          (byte) (broadcast >>> 24), (byte) (broadcast >>> 16), (byte) (broadcast >>> 8), (byte) broadcast });
+
+    } catch (UnknownHostException ex) {
+      // Can't happen, the length is right
+      throw new IllegalStateException("Unexpected exception", ex);
+    }
+  }
 }
@@ -0,0 +1,33 @@
+package com.homeclimatecontrol.jukebox.datastream;
+
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Polling for the tests that wait for something to happen on another thread.
+ *
+ * @author Copyright &copy; <a href="mailto:vt@homeclimatecontrol.com">Vadim Tkachenko</a> 2026
+ */
+public final class Await {
+
+    private Await() {
+    }
+
+    /**
+     * Wait until the condition becomes true, failing the test if it doesn't within 10 seconds.
+     *
+     * @param condition Condition to wait for.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public static void await(BooleanSupplier condition) throws InterruptedException {
+
+        long deadline = System.currentTimeMillis() + 10_000;
+
+        while (!condition.getAsBoolean()) {
+
+            assertThat(System.currentTimeMillis()).isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+}
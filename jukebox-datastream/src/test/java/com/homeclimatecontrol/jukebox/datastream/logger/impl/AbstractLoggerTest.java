@@ -0,0 +1,147 @@
+package com.homeclimatecontrol.jukebox.datastream.logger.impl;
+
+import com.homeclimatecontrol.jukebox.datastream.signal.model.DoubleDataSample;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Copyright &copy; <a href="mailto:vt@homeclimatecontrol.com">Vadim Tkachenko</a> 2026
+ */
+class AbstractLoggerTest {
+
+    @Test
+    void testCreateOnce() throws InterruptedException {
+
+        CountingLogger target = new CountingLogger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+
+        try {
+
+            for (int thread = 0; thread < 8; thread++) {
+
+                executor.execute(() -> {
+
+                    try {
+                        start.await();
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+
+                    for (int count = 0; count < 1000; count++) {
+                        target.consume(new DoubleDataSample(count, "source", "sig" + (count % 10), count, null));
+                    }
+                });
+            }
+
+            start.countDown();
+            executor.shutdown();
+
+            assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Racing threads may have created more, but only one per signature is kept
+        assertThat(target.created.get() - target.closed.get()).isEqualTo(10);
+        assertThat(target.getChannels()).hasSize(10);
+        assertThat(target.consumed.sum()).isEqualTo(8000);
+
+        for (int signature = 0; signature < 10; signature++) {
+            assertThat(target.perChannel.get("sig" + signature).get()).isEqualTo(800);
+        }
+    }
+
+    @Test
+    void testCreateFailure() {
+
+        CountingLogger target = new CountingLogger();
+
+        target.fail = true;
+        target.consume(new DoubleDataSample(0, "source", "sig", 1, null));
+
+        assertThat(target.isKnownChannel("sig")).isFalse();
+        assertThat(target.consumed.sum()).isZero();
+
+        // Next attempt will succeed
+        target.fail = false;
+        target.consume(new DoubleDataSample(0, "source", "sig", 1, null));
+
+        assertThat(target.isKnownChannel("sig")).isTrue();
+        assertThat(target.getChannel("sig").name).isEqualTo("source");
+        assertThat(target.consumed.sum()).isEqualTo(1);
+    }
+
+    @Test
+    void testCreateSeesOtherChannels() {
+
+        CountingLogger target = new CountingLogger();
+
+        target.consume(new DoubleDataSample(0, "source", "a", 1, null));
+        target.consume(new DoubleDataSample(0, "source", "b", 1, null));
+
+        // createChannel() looked at the channels known so far without blowing up
+        assertThat(target.seen.get()).isEqualTo(1);
+        assertThat(target.isKnownChannel("b")).isTrue();
+    }
+
+    private static class CountingLogger extends AbstractLogger<Double> {
+
+        final AtomicInteger created = new AtomicInteger();
+        final AtomicInteger closed = new AtomicInteger();
+        final AtomicInteger seen = new AtomicInteger();
+        final LongAdder consumed = new LongAdder();
+        final ConcurrentHashMap<String, AtomicInteger> perChannel = new ConcurrentHashMap<>();
+        volatile boolean fail = false;
+
+        CountingLogger() {
+            super(null);
+        }
+
+        @Override
+        protected Channel createChannel(String name, String signature, long timestamp) throws IOException {
+
+            if (fail) {
+                throw new IOException("Simulated failure");
+            }
+
+            created.incrementAndGet();
+            seen.set(getChannels().size());
+            perChannel.putIfAbsent(signature, new AtomicInteger());
+
+            return new Channel(name, signature);
+        }
+
+        @Override
+        protected void closeChannel(Channel channel) {
+            closed.incrementAndGet();
+        }
+
+        @Override
+        protected void consume(Channel channel, DoubleDataSample value) {
+
+            consumed.increment();
+            perChannel.get(channel.signature).incrementAndGet();
+        }
+
+        @Override
+        protected void startup() {
+        }
+
+        @Override
+        protected void shutdown() {
+        }
+    }
+}
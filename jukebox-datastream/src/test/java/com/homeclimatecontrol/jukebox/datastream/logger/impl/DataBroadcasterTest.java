@@ -0,0 +1,364 @@
+package com.homeclimatecontrol.jukebox.datastream.logger.impl;
+
+import com.homeclimatecontrol.jukebox.datastream.signal.model.DataSample;
+import com.homeclimatecontrol.jukebox.datastream.signal.model.DataSink;
+import com.homeclimatecontrol.jukebox.datastream.signal.model.DoubleDataSample;
+import com.homeclimatecontrol.jukebox.datastream.signal.model.DoubleDataSink;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Copyright &copy; <a href="mailto:vt@homeclimatecontrol.com">Vadim Tkachenko</a> 2026
+ */
+class DataBroadcasterTest {
+
+    @Test
+    void testSync() {
+
+        DataBroadcaster<Integer> broadcaster = new DataBroadcaster<>(null, 0, null);
+        Collector sink = new Collector(0);
+
+        broadcaster.addConsumer(sink);
+        broadcaster.addConsumer(sink);
+        assertThat(broadcaster.getConsumerCount()).isEqualTo(1);
+
+        broadcaster.broadcast(sample("a", 1));
+        broadcaster.removeConsumer(sink);
+        assertThat(broadcaster.getConsumerCount()).isZero();
+
+        broadcaster.broadcast(sample("a", 2));
+
+        assertThat(broadcaster.isAsync()).isFalse();
+        assertThat(sink.values).containsExactly(1);
+    }
+
+    @Test
+    void testInstrumented() {
+
+        DataBroadcaster<Integer> broadcaster = new DataBroadcaster<>(null, 0, null);
+
+        broadcaster.addConsumer(new Collector(0));
+        broadcaster.addConsumer(signal -> {
+            throw new IllegalStateException("oops");
+        });
+
+        // Not counted
+        broadcaster.broadcast(sample("a", 1));
+
+        broadcaster.setInstrumented(true);
+        assertThat(broadcaster.isInstrumented()).isTrue();
+
+        broadcaster.broadcast(sample("a", 2));
+        broadcaster.broadcast(new DataSample<>(0, "source", "b", null, new Exception("broken")));
+        broadcaster.broadcast(new DataSample<>(0, "source", "b", null, new Exception("broken")));
+
+        assertThat(broadcaster.getBroadcasts()).isEqualTo(3);
+        assertThat(broadcaster.getSinkFailures()).isEqualTo(3);
+        assertThat(broadcaster.getSinkTime()).startsWith("count=3 ");
+        assertThat(broadcaster.getErrorsBySignature()).containsExactly("b: 2");
+
+        broadcaster.setInstrumented(false);
+        broadcaster.broadcast(sample("a", 3));
+
+        assertThat(broadcaster.getBroadcasts()).isEqualTo(3);
+    }
+
+    @Test
+    void testAsyncOrder() throws InterruptedException {
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try {
+
+            DataBroadcaster<Integer> broadcaster = new DataBroadcaster<>(executor, 1000, OverflowPolicy.DROP_NEWEST);
+            Collector sink = new Collector(1000);
+
+            broadcaster.addConsumer(sink);
+
+            for (int value = 0; value < 1000; value++) {
+                broadcaster.broadcast(sample("a", value));
+            }
+
+            assertThat(sink.done.await(10, TimeUnit.SECONDS)).isTrue();
+
+            for (int value = 0; value < 1000; value++) {
+                assertThat(sink.values.get(value)).isEqualTo(value);
+            }
+
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testCoalesce() throws InterruptedException {
+
+        Gate gate = new Gate();
+        DataBroadcaster<Integer> broadcaster = new DataBroadcaster<>(gate, 4, OverflowPolicy.COALESCE);
+        Collector sink = new Collector(2);
+
+        broadcaster.addConsumer(sink);
+
+        broadcaster.broadcast(sample("a", 1));
+        broadcaster.broadcast(sample("b", 2));
+        broadcaster.broadcast(sample("a", 3));
+
+        gate.open();
+
+        assertThat(sink.done.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(sink.values).containsExactly(3, 2);
+    }
+
+    @Test
+    void testDropOldest() throws InterruptedException {
+
+        Gate gate = new Gate();
+        DataBroadcaster<Integer> broadcaster = new DataBroadcaster<>(gate, 2, OverflowPolicy.DROP_OLDEST);
+        Collector sink = new Collector(2);
+
+        broadcaster.addConsumer(sink);
+
+        for (int value = 0; value < 5; value++) {
+            broadcaster.broadcast(sample("a", value));
+        }
+
+        gate.open();
+
+        assertThat(sink.done.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(sink.values).containsExactly(3, 4);
+    }
+
+    @Test
+    void testStatistics() throws InterruptedException {
+
+        Gate gate = new Gate();
+        DataBroadcaster<Integer> broadcaster = new DataBroadcaster<>(gate, 10, OverflowPolicy.DROP_NEWEST);
+        Collector sink = new Collector(3);
+
+        broadcaster.addConsumer(sink);
+
+        for (int value = 0; value < 3; value++) {
+            broadcaster.broadcast(sample("a", value));
+        }
+
+        assertThat(broadcaster.getQueueDepth()).isEqualTo(3);
+
+        // Hold the samples in the queue for at least 5ms. Spinning on nanoTime() guarantees that, sleep() may not
+        long queued = System.nanoTime();
+
+        while (System.nanoTime() - queued < TimeUnit.MILLISECONDS.toNanos(5)) {
+            Thread.onSpinWait();
+        }
+
+        gate.open();
+
+        assertThat(sink.done.await(10, TimeUnit.SECONDS)).isTrue();
+
+        // The counters are updated after consume() returns, but before the delivery task completes
+        assertThat(gate.awaitIdle(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(broadcaster.getQueueDepth()).isZero();
+        assertThat(broadcaster.getDropped()).isZero();
+        assertThat(broadcaster.getLatencyMaxMillis()).isGreaterThanOrEqualTo(5);
+        assertThat(broadcaster.getConsumerStatus()).hasSize(1);
+        assertThat(broadcaster.getConsumerStatus()[0]).contains("delivered=3");
+    }
+
+    @Test
+    void testPrimitiveConvertedOnce() {
+
+        DataBroadcaster<Integer> broadcaster = new DataBroadcaster<>(null, 0, null);
+        PrimitiveCollector first = new PrimitiveCollector(1);
+        PrimitiveCollector second = new PrimitiveCollector(1);
+        Collector boxed = new Collector(1);
+        DualSink dual = new DualSink();
+
+        broadcaster.addConsumer(first);
+        broadcaster.addConsumer(boxed);
+        broadcaster.addConsumer(dual);
+        broadcaster.addConsumer(second);
+
+        broadcaster.broadcast(sample("a", 1));
+
+        assertThat(boxed.values).containsExactly(1);
+        assertThat(dual.boxed).isEqualTo(1);
+        assertThat(dual.primitive).isZero();
+        assertThat(first.values).hasSize(1);
+        assertThat(first.values.get(0).getSample()).isEqualTo(1d);
+        assertThat(second.values.get(0)).isSameAs(first.values.get(0));
+    }
+
+    @Test
+    void testPrimitiveConvertedOnceAsync() throws InterruptedException {
+
+        Gate gate = new Gate();
+        DataBroadcaster<Integer> broadcaster = new DataBroadcaster<>(gate, 4, OverflowPolicy.DROP_NEWEST);
+        PrimitiveCollector first = new PrimitiveCollector(1);
+        PrimitiveCollector second = new PrimitiveCollector(1);
+
+        broadcaster.addConsumer(first);
+        broadcaster.addConsumer(second);
+
+        broadcaster.broadcast(sample("a", 1));
+        gate.open();
+
+        assertThat(first.done.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(second.done.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(second.values.get(0)).isSameAs(first.values.get(0));
+    }
+
+    private static DataSample<Integer> sample(String signature, int value) {
+        return new DataSample<>("source", signature, value, null);
+    }
+
+    private static class Collector implements DataSink<Integer> {
+
+        final List<Integer> values = Collections.synchronizedList(new ArrayList<>());
+        final CountDownLatch done;
+
+        Collector(int expected) {
+            done = new CountDownLatch(expected);
+        }
+
+        @Override
+        public void consume(DataSample<Integer> signal) {
+            values.add(signal.sample);
+            done.countDown();
+        }
+    }
+
+    /**
+     * Sink that can take both forms, but isn't a logger.
+     */
+    private static class DualSink implements DataSink<Integer>, DoubleDataSink {
+
+        int boxed = 0;
+        int primitive = 0;
+
+        @Override
+        public void consume(DataSample<Integer> signal) {
+            boxed++;
+        }
+
+        @Override
+        public void consume(DoubleDataSample signal) {
+            primitive++;
+        }
+    }
+
+    private static class PrimitiveCollector extends AbstractLogger<Integer> {
+
+        final List<DoubleDataSample> values = Collections.synchronizedList(new ArrayList<>());
+        final CountDownLatch done;
+
+        PrimitiveCollector(int expected) {
+            super(null);
+            done = new CountDownLatch(expected);
+        }
+
+        @Override
+        protected Channel createChannel(String name, String signature, long timestamp) {
+            return new Channel(name, signature);
+        }
+
+        @Override
+        protected void consume(Channel channel, DoubleDataSample value) {
+            values.add(value);
+            done.countDown();
+        }
+
+        @Override
+        protected void startup() {
+        }
+
+        @Override
+        protected void shutdown() {
+        }
+    }
+
+    /**
+     * Executor that holds the tasks until told to run them, on a separate thread.
+     */
+    private static class Gate implements java.util.concurrent.Executor {
+
+        private final List<Runnable> pending = new ArrayList<>();
+        private boolean open = false;
+
+        /**
+         * Tasks submitted, but not yet completed.
+         */
+        private int active = 0;
+
+        @Override
+        public synchronized void execute(Runnable command) {
+
+            active++;
+
+            if (open) {
+                start(command);
+            } else {
+                pending.add(command);
+            }
+        }
+
+        synchronized void open() {
+
+            open = true;
+
+            for (Runnable r : pending) {
+                start(r);
+            }
+
+            pending.clear();
+        }
+
+        private void start(Runnable command) {
+
+            new Thread(() -> {
+                try {
+                    command.run();
+                } finally {
+                    done();
+                }
+            }).start();
+        }
+
+        private synchronized void done() {
+
+            active--;
+            notifyAll();
+        }
+
+        /**
+         * Wait until all the submitted tasks have completed.
+         *
+         * @return {@code false} if they didn't within the timeout.
+         */
+        synchronized boolean awaitIdle(long timeout, TimeUnit unit) throws InterruptedException {
+
+            long deadline = System.nanoTime() + unit.toNanos(timeout);
+
+            while (active > 0) {
+
+                long left = deadline - System.nanoTime();
+
+                if (left <= 0) {
+                    return false;
+                }
+
+                TimeUnit.NANOSECONDS.timedWait(this, left);
+            }
+
+            return true;
+        }
+    }
+}
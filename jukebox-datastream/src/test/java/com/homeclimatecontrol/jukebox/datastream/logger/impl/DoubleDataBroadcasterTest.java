@@ -0,0 +1,82 @@
+package com.homeclimatecontrol.jukebox.datastream.logger.impl;
+
+import com.homeclimatecontrol.jukebox.datastream.signal.model.DoubleDataSample;
+import com.homeclimatecontrol.jukebox.datastream.signal.model.DoubleDataSamplePool;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * @author Copyright &copy; <a href="mailto:vt@homeclimatecontrol.com">Vadim Tkachenko</a> 2026
+ */
+class DoubleDataBroadcasterTest {
+
+    @Test
+    void testPooled() {
+
+        DoubleDataSamplePool pool = new DoubleDataSamplePool(4);
+        DoubleDataBroadcaster broadcaster = new DoubleDataBroadcaster(pool);
+        List<DoubleDataSample> copies = new ArrayList<>();
+        List<DoubleDataSample> originals = new ArrayList<>();
+
+        broadcaster.addConsumer(signal -> {
+            originals.add(signal);
+            copies.add(signal.copy());
+        });
+
+        for (int value = 0; value < 3; value++) {
+            broadcaster.broadcast(value, "source", "sig", value, null);
+        }
+
+        assertThat(pool.getCreated()).isEqualTo(1L);
+        assertThat(pool.getReused()).isEqualTo(2L);
+        assertThat(pool.getIdle()).isEqualTo(1);
+
+        // Same instance every time, content is gone
+        assertThat(originals.get(0)).isSameAs(originals.get(2));
+        assertThat(originals.get(0).getSourceName()).isNull();
+
+        for (int value = 0; value < 3; value++) {
+            assertThat(copies.get(value).getSample()).isEqualTo((double) value);
+            assertThat(copies.get(value).getTimestamp()).isEqualTo((long) value);
+        }
+    }
+
+    @Test
+    void testRetain() {
+
+        DoubleDataSamplePool pool = new DoubleDataSamplePool(4);
+        DoubleDataBroadcaster broadcaster = new DoubleDataBroadcaster(pool);
+        List<DoubleDataSample> retained = new ArrayList<>();
+
+        broadcaster.addConsumer(signal -> retained.add(signal.retain()));
+        broadcaster.broadcast(1, "source", "sig", 42, null);
+
+        // Still held by the consumer
+        assertThat(pool.getIdle()).isZero();
+        assertThat(retained.get(0).getSample()).isEqualTo(42d);
+
+        retained.get(0).release();
+
+        assertThat(pool.getIdle()).isEqualTo(1);
+        assertThatIllegalStateException().isThrownBy(() -> retained.get(0).release());
+    }
+
+    @Test
+    void testUnpooled() {
+
+        DoubleDataBroadcaster broadcaster = new DoubleDataBroadcaster();
+        List<DoubleDataSample> received = new ArrayList<>();
+
+        broadcaster.addConsumer(received::add);
+        broadcaster.broadcast(1, "source", "sig", 42, null);
+        broadcaster.broadcast(2, "source", "sig", 43, null);
+
+        assertThat(received.get(0)).isNotSameAs(received.get(1));
+        assertThat(received.get(0).copy()).isSameAs(received.get(0));
+    }
+}
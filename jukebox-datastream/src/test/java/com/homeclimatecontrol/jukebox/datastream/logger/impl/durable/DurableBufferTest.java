@@ -0,0 +1,292 @@
+package com.homeclimatecontrol.jukebox.datastream.logger.impl.durable;
+
+import com.homeclimatecontrol.jukebox.datastream.logger.impl.AbstractLogger;
+import com.homeclimatecontrol.jukebox.datastream.logger.model.DataLogger;
+import com.homeclimatecontrol.jukebox.datastream.signal.model.DataSample;
+import com.homeclimatecontrol.jukebox.datastream.signal.model.DoubleDataSample;
+import com.homeclimatecontrol.jukebox.datastream.signal.model.DoubleDataSink;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.homeclimatecontrol.jukebox.datastream.Await.await;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Copyright &copy; <a href="mailto:vt@homeclimatecontrol.com">Vadim Tkachenko</a> 2026
+ */
+class DurableBufferTest {
+
+    @TempDir
+    File directory;
+
+    @Test
+    void testOutage() throws InterruptedException {
+
+        RecordingLogger target = new RecordingLogger();
+        DurableBuffer<Double> buffer = new DurableBuffer<>(directory, 4096, 100, target);
+
+        buffer.setReplayInterval(10);
+        buffer.start().waitFor();
+
+        try {
+
+            // Target is down, enough samples to fill several segments
+            for (int count = 0; count < 1000; count++) {
+                buffer.consume(new DoubleDataSample(count, "source", "sig" + (count % 3), count, null));
+            }
+
+            assertThat(buffer.getAppended()).isEqualTo(1000);
+            assertThat(buffer.getPendingSegments()).isGreaterThan(1);
+            assertThat(target.received).isEmpty();
+
+            target.start().waitFor();
+
+            await(() -> target.received.size() == 1000);
+
+            for (int count = 0; count < 1000; count++) {
+                assertThat(target.received.get(count).getTimestamp()).isEqualTo(count);
+                assertThat(target.received.get(count).getSample()).isEqualTo((double) count);
+            }
+
+            // Delivered segments are gone
+            await(() -> buffer.getPendingSegments() == 1);
+            assertThat(directory.list((dir, name) -> name.endsWith(".wal"))).hasSize(1);
+
+        } finally {
+            buffer.stop().waitFor();
+            target.stop().waitFor();
+        }
+    }
+
+    @Test
+    void testRestart() throws InterruptedException {
+
+        RecordingLogger target = new RecordingLogger();
+        DurableBuffer<Double> first = new DurableBuffer<>(directory, 4096, 100, target);
+
+        first.start().waitFor();
+        first.consume(new DoubleDataSample(1, "source", "a", 1, null));
+        first.consume(new DoubleDataSample(2, "source", "a", 0, new IllegalStateException("broken")));
+        first.stop().waitFor();
+
+        DurableBuffer<Double> second = new DurableBuffer<>(directory, 4096, 100, target);
+
+        second.setReplayInterval(10);
+        target.start().waitFor();
+        second.start().waitFor();
+
+        try {
+
+            await(() -> target.received.size() == 2);
+
+            assertThat(target.received.get(0).getSample()).isEqualTo(1d);
+            assertThat(target.received.get(0).getSourceName()).isEqualTo("source");
+            assertThat(target.received.get(1).isError()).isTrue();
+            assertThat(target.received.get(1).getError().getMessage()).contains("broken");
+
+            // Nothing is delivered twice after another restart
+            second.stop().waitFor();
+            second.start().waitFor();
+            second.consume(new DoubleDataSample(3, "source", "a", 3, null));
+
+            await(() -> target.received.size() == 3);
+            assertThat(target.received.get(2).getTimestamp()).isEqualTo(3);
+
+        } finally {
+            second.stop().waitFor();
+            target.stop().waitFor();
+        }
+    }
+
+    @Test
+    void testFull() throws InterruptedException {
+
+        RecordingLogger target = new RecordingLogger();
+        DurableBuffer<Double> buffer = new DurableBuffer<>(directory, 4096, 2, target);
+
+        buffer.start().waitFor();
+
+        try {
+
+            for (int count = 0; count < 1000; count++) {
+                buffer.consume(new DoubleDataSample(count, "source", "a", count, null));
+            }
+
+            assertThat(buffer.getDropped()).isPositive();
+            assertThat(buffer.getAppended() + buffer.getDropped()).isEqualTo(1000);
+            assertThat(buffer.getPendingSegments()).isEqualTo(2);
+
+        } finally {
+            buffer.stop().waitFor();
+        }
+    }
+
+    @Test
+    void testFailedDelivery() throws InterruptedException {
+
+        RecordingLogger target = new RecordingLogger();
+        DurableBuffer<Double> buffer = new DurableBuffer<>(directory, 4096, 100, target);
+
+        buffer.setReplayInterval(10);
+        target.failing = true;
+        target.rejected = "poison";
+        target.start().waitFor();
+        buffer.start().waitFor();
+
+        try {
+
+            buffer.consume(new DoubleDataSample(1, "source", "a", 1, null));
+            buffer.consume(new DoubleDataSample(2, "source", "poison", 2, null));
+            buffer.consume(new DoubleDataSample(3, "source", "a", 3, null));
+
+            // The target is up, but doesn't acknowledge anything
+            await(() -> target.attempts.get() > 5);
+            assertThat(buffer.getReplayed()).isZero();
+            assertThat(target.received).isEmpty();
+
+            target.failing = false;
+
+            await(() -> target.received.size() == 2);
+
+            assertThat(target.received.get(0).getTimestamp()).isEqualTo(1);
+            assertThat(target.received.get(1).getTimestamp()).isEqualTo(3);
+            assertThat(buffer.getReplayed()).isEqualTo(2);
+
+        } finally {
+            buffer.stop().waitFor();
+            target.stop().waitFor();
+        }
+    }
+
+    @Test
+    void testOversize() throws InterruptedException {
+
+        RecordingLogger target = new RecordingLogger();
+        DurableBuffer<Double> buffer = new DurableBuffer<>(directory, 4096 * 32, 100, target);
+        StringBuilder signature = new StringBuilder();
+
+        while (signature.length() <= Short.MAX_VALUE) {
+            signature.append("signature");
+        }
+
+        buffer.start().waitFor();
+
+        try {
+
+            buffer.consume(new DoubleDataSample(1, "source", signature.toString(), 1, null));
+
+            assertThat(buffer.getAppended()).isZero();
+            assertThat(buffer.getDropped()).isEqualTo(1);
+
+        } finally {
+            buffer.stop().waitFor();
+        }
+    }
+
+    @Test
+    void testDefaultDeliver() throws InterruptedException {
+
+        PlainLogger target = new PlainLogger();
+        DurableBuffer<Double> buffer = new DurableBuffer<>(directory, 4096, 100, target);
+
+        buffer.setReplayInterval(10);
+        buffer.start().waitFor();
+
+        try {
+
+            buffer.consume(new DoubleDataSample(1, "source", "a", 1, null));
+            buffer.consume(new DoubleDataSample(2, "source", "a", 2, null));
+
+            await(() -> target.received.size() == 2);
+
+            assertThat(target.received.get(1).getSample()).isEqualTo(2d);
+            assertThat(buffer.getReplayed()).isEqualTo(2);
+
+        } finally {
+            buffer.stop().waitFor();
+        }
+    }
+
+    /**
+     * Logger relying on the default {@link DataLogger#deliver(DoubleDataSample)}.
+     */
+    private static class PlainLogger implements DataLogger<Double>, DoubleDataSink {
+
+        final List<DoubleDataSample> received = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void consume(DataSample<Double> sample) {
+            consume(DoubleDataSample.valueOf(sample));
+        }
+
+        @Override
+        public void consume(DoubleDataSample sample) {
+            received.add(sample.copy());
+        }
+    }
+
+    private static class RecordingLogger extends AbstractLogger<Double> {
+
+        final List<DoubleDataSample> received = new CopyOnWriteArrayList<>();
+        final AtomicInteger attempts = new AtomicInteger();
+
+        /**
+         * Swallow the samples in {@link #consume(Channel, DoubleDataSample)}, and fail to deliver them.
+         */
+        volatile boolean failing;
+
+        /**
+         * Signature to reject as undeliverable.
+         */
+        volatile String rejected;
+
+        RecordingLogger() {
+            super(null);
+        }
+
+        @Override
+        protected Channel createChannel(String name, String signature, long timestamp) {
+            return new Channel(name, signature);
+        }
+
+        @Override
+        protected void consume(Channel channel, DoubleDataSample value) {
+
+            checkStatus();
+
+            if (!failing) {
+                received.add(value);
+            }
+        }
+
+        @Override
+        protected void deliver(Channel channel, DoubleDataSample value) throws IOException {
+
+            attempts.incrementAndGet();
+
+            if (failing) {
+                throw new IOException("failing");
+            }
+
+            if (channel.signature.equals(rejected)) {
+                throw new IllegalArgumentException("rejected");
+            }
+
+            super.deliver(channel, value);
+        }
+
+        @Override
+        protected void startup() {
+        }
+
+        @Override
+        protected void shutdown() {
+        }
+    }
+}
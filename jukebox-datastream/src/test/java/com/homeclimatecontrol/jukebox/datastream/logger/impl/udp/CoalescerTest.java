@@ -0,0 +1,118 @@
+package com.homeclimatecontrol.jukebox.datastream.logger.impl.udp;
+
+import com.homeclimatecontrol.jukebox.datastream.signal.model.DoubleDataSample;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Copyright &copy; <a href="mailto:vt@homeclimatecontrol.com">Vadim Tkachenko</a> 2026
+ */
+class CoalescerTest {
+
+    @Test
+    void testLatestWins() {
+
+        Coalescer coalescer = new Coalescer(0);
+        List<DoubleDataSample> out = new ArrayList<>();
+
+        coalescer.offer(sample("a", 1));
+        coalescer.offer(sample("b", 2));
+        coalescer.offer(sample("a", 3));
+
+        coalescer.drain(0, out);
+
+        assertThat(out).hasSize(2);
+        assertThat(valueOf(out, "a")).isEqualTo(3d);
+        assertThat(valueOf(out, "b")).isEqualTo(2d);
+        assertThat(coalescer.getReceived()).isEqualTo(3);
+        assertThat(coalescer.getCoalesced()).isEqualTo(1);
+
+        out.clear();
+        coalescer.drain(1, out);
+
+        assertThat(out).isEmpty();
+    }
+
+    @Test
+    void testClose() {
+
+        Coalescer coalescer = new Coalescer(0);
+        List<DoubleDataSample> out = new ArrayList<>();
+
+        assertThat(coalescer.offer(sample("a", 1))).isTrue();
+
+        coalescer.close();
+
+        // Rejected, the caller sends it; accepted ones are still there
+        assertThat(coalescer.offer(sample("b", 2))).isFalse();
+
+        coalescer.drain(0, out);
+
+        assertThat(out).hasSize(1);
+        assertThat(valueOf(out, "a")).isEqualTo(1d);
+    }
+
+    @Test
+    void testHeartbeat() {
+
+        Coalescer coalescer = new Coalescer(1000);
+        List<DoubleDataSample> out = new ArrayList<>();
+
+        coalescer.offer(sample("a", 1));
+        coalescer.drain(0, out);
+        assertThat(out).hasSize(1);
+
+        // Unchanged, too early
+        out.clear();
+        coalescer.offer(sample("a", 1));
+        coalescer.drain(500, out);
+        assertThat(out).isEmpty();
+
+        // Changed
+        coalescer.offer(sample("a", 2));
+        coalescer.drain(600, out);
+        assertThat(out).hasSize(1);
+
+        // Unchanged, heartbeat is due
+        out.clear();
+        coalescer.offer(sample("a", 2));
+        coalescer.drain(1600, out);
+        assertThat(out).hasSize(1);
+    }
+
+    @Test
+    void testError() {
+
+        Coalescer coalescer = new Coalescer(0);
+        List<DoubleDataSample> out = new ArrayList<>();
+
+        coalescer.offer(sample("a", 1));
+        coalescer.drain(0, out);
+
+        out.clear();
+        coalescer.offer(new DoubleDataSample(1, "source", "a", 1, new Exception("oops")));
+        coalescer.drain(1, out);
+
+        assertThat(out).hasSize(1);
+        assertThat(out.get(0).isError()).isTrue();
+    }
+
+    private static DoubleDataSample sample(String signature, double value) {
+        return new DoubleDataSample(0, "source", signature, value, null);
+    }
+
+    private static double valueOf(List<DoubleDataSample> samples, String signature) {
+
+        for (DoubleDataSample sample : samples) {
+            if (sample.getSignature().equals(signature)) {
+                return sample.getSample();
+            }
+        }
+
+        throw new IllegalArgumentException(signature + ": not found");
+    }
+}
@@ -0,0 +1,166 @@
+package com.homeclimatecontrol.jukebox.datastream.pipeline;
+
+import com.homeclimatecontrol.jukebox.datastream.logger.impl.DataBroadcaster;
+import com.homeclimatecontrol.jukebox.datastream.signal.model.DataSample;
+import com.homeclimatecontrol.jukebox.datastream.signal.model.DataSink;
+import com.homeclimatecontrol.jukebox.datastream.signal.model.WindowStatistics;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Copyright &copy; <a href="mailto:vt@homeclimatecontrol.com">Vadim Tkachenko</a> 2026
+ */
+class PipelineTest {
+
+    @Test
+    void testFused() {
+
+        DataBroadcaster<Double> source = new DataBroadcaster<>(null, 0, null);
+        List<DataSample<Double>> out = new ArrayList<>();
+
+        Pipeline.from(source)
+                .signature("T1")
+                .dropErrors()
+                .map(c -> c * 9 / 5 + 32)
+                .filter(sample -> sample.sample > 50)
+                .rename("T1F")
+                .to(out::add);
+
+        source.broadcast(new DataSample<>(1, "source", "T1", 0d, null));
+        source.broadcast(new DataSample<>(2, "source", "T2", 100d, null));
+        source.broadcast(new DataSample<>(3, "source", "T1", 100d, null));
+        source.broadcast(new DataSample<>(4, "source", "T1", null, new IllegalStateException()));
+
+        assertThat(out).hasSize(1);
+        assertThat(out.get(0).timestamp).isEqualTo(3);
+        assertThat(out.get(0).signature).isEqualTo("T1F");
+        assertThat(out.get(0).sample).isEqualTo(212d);
+    }
+
+    @Test
+    void testLazyAttach() {
+
+        DataBroadcaster<Double> source = new DataBroadcaster<>(null, 0, null);
+        List<DataSample<Double>> out = new ArrayList<>();
+
+        Pipeline<Double> pipeline = Pipeline.from(source).map(v -> v * 2);
+
+        // Nothing is subscribed until there's a consumer
+        source.broadcast(new DataSample<>(1, "source", "a", 1d, null));
+
+        pipeline.to(out::add);
+        source.broadcast(new DataSample<>(2, "source", "a", 2d, null));
+
+        pipeline.detach();
+        source.broadcast(new DataSample<>(3, "source", "a", 3d, null));
+
+        assertThat(out).hasSize(1);
+        assertThat(out.get(0).sample).isEqualTo(4d);
+    }
+
+    @Test
+    void testJoin() {
+
+        DataBroadcaster<Double> source = new DataBroadcaster<>(null, 0, null);
+        List<DataSample<Double>> out = new ArrayList<>();
+
+        Pipeline<Double> indoor = Pipeline.from(source).signature("in");
+        Pipeline<Double> outdoor = Pipeline.from(source).signature("out");
+
+        indoor.join(outdoor, 10, "delta", (a, b) -> a - b).to(out::add);
+
+        source.broadcast(new DataSample<>(100, "source", "in", 22d, null));
+        source.broadcast(new DataSample<>(105, "source", "out", 5d, null));
+
+        // Too far apart from the last "out"
+        source.broadcast(new DataSample<>(200, "source", "in", 23d, null));
+        source.broadcast(new DataSample<>(203, "source", "out", 3d, null));
+
+        assertThat(out).hasSize(2);
+        assertThat(out.get(0).timestamp).isEqualTo(105);
+        assertThat(out.get(0).sample).isEqualTo(17d);
+        assertThat(out.get(1).timestamp).isEqualTo(203);
+        assertThat(out.get(1).sample).isEqualTo(20d);
+        assertThat(out.get(1).signature).isEqualTo("delta");
+    }
+
+    @Test
+    void testJoinDrop() {
+
+        DataBroadcaster<Double> source = new DataBroadcaster<>(null, 0, null);
+        List<DataSample<Double>> out = new ArrayList<>();
+
+        Pipeline<Double> indoor = Pipeline.from(source).signature("in");
+        Pipeline<Double> outdoor = Pipeline.from(source).signature("out");
+
+        // Only positive differences make it through
+        indoor.join(outdoor, 10, "delta", (a, b) -> a > b ? a - b : null).to(out::add);
+
+        source.broadcast(new DataSample<>(100, "source", "in", 2d, null));
+        source.broadcast(new DataSample<>(105, "source", "out", 5d, null));
+        source.broadcast(new DataSample<>(200, "source", "in", 23d, null));
+        source.broadcast(new DataSample<>(203, "source", "out", 3d, null));
+
+        assertThat(out).hasSize(1);
+        assertThat(out.get(0).timestamp).isEqualTo(203);
+        assertThat(out.get(0).sample).isEqualTo(20d);
+    }
+
+    @Test
+    void testWindow() {
+
+        DataBroadcaster<Double> source = new DataBroadcaster<>(null, 0, null);
+        List<DataSample<WindowStatistics>> out = new ArrayList<>();
+
+        Pipeline.window(Pipeline.from(source).map(v -> v + 1), 100, 100, 16, new double[] {50})
+                .to(out::add);
+
+        for (long timestamp = 0; timestamp < 250; timestamp += 10) {
+            source.broadcast(new DataSample<>(timestamp, "source", "a", (double) timestamp, null));
+        }
+
+        assertThat(out).hasSize(2);
+        assertThat(out.get(0).sample.getCount()).isEqualTo(10);
+        assertThat(out.get(0).sample.getMin()).isEqualTo(1d);
+        assertThat(out.get(0).sample.getMax()).isEqualTo(91d);
+    }
+
+    @Test
+    void testStatefulLazy() {
+
+        DataBroadcaster<Double> source = new DataBroadcaster<>(null, 0, null);
+        List<DataSample<Double>> out = new ArrayList<>();
+
+        Pipeline<Double> filtered = Pipeline.deadband(Pipeline.from(source).map(v -> v * 2), 1, 0, 0);
+        Pipeline<Double> joined = filtered.join(Pipeline.from(source), 10, "sum", Double::sum);
+
+        // Never consumed, nothing is subscribed
+        Pipeline.window(Pipeline.from(source), 100, 100, 16, new double[] {50});
+        assertThat(source.getConsumerCount()).isZero();
+
+        DataSink<Double> sink = out::add;
+
+        filtered.to(sink);
+        assertThat(source.getConsumerCount()).isEqualTo(1);
+
+        source.broadcast(new DataSample<>(1, "source", "a", 1d, null));
+        source.broadcast(new DataSample<>(2, "source", "a", 1.1, null));
+
+        assertThat(out).hasSize(1);
+        assertThat(out.get(0).sample).isEqualTo(2d);
+
+        // Removing the last consumer unsubscribes all the way up
+        filtered.removeConsumer(sink);
+        assertThat(source.getConsumerCount()).isZero();
+
+        joined.to(sink);
+        assertThat(source.getConsumerCount()).isEqualTo(2);
+
+        joined.removeConsumer(sink);
+        assertThat(source.getConsumerCount()).isZero();
+    }
+}
@@ -0,0 +1,97 @@
+package com.homeclimatecontrol.jukebox.datastream.signal.impl;
+
+import com.homeclimatecontrol.jukebox.datastream.signal.model.DataSample;
+import com.homeclimatecontrol.jukebox.datastream.signal.model.DoubleDataSample;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Copyright &copy; <a href="mailto:vt@homeclimatecontrol.com">Vadim Tkachenko</a> 2026
+ */
+class DeadbandFilterTest {
+
+    @Test
+    void testDeadband() {
+
+        DeadbandFilter<Double> filter = new DeadbandFilter<>(0.5, 0, 0);
+        List<Double> out = new ArrayList<>();
+
+        filter.addConsumer((DataSample<Double> signal) -> out.add(signal.sample));
+
+        double[] values = {20, 20.1, 20.4, 20.6, 20.7, 19.9, 19.9};
+
+        for (int offset = 0; offset < values.length; offset++) {
+            filter.consume(new DataSample<>(offset, "source", "a", values[offset], null));
+        }
+
+        assertThat(out).containsExactly(20d, 20.6, 19.9);
+        assertThat(filter.getPassed()).isEqualTo(3);
+        assertThat(filter.getDropped()).isEqualTo(4);
+    }
+
+    @Test
+    void testHeartbeatAndRateLimit() {
+
+        DeadbandFilter<Double> filter = new DeadbandFilter<>(0, 100, 1000);
+        List<Long> out = new ArrayList<>();
+
+        filter.addConsumer((DoubleDataSample signal) -> out.add(signal.getTimestamp()));
+
+        // Changes every 10ms, but the rate limit lets only one in 100ms through
+        for (long timestamp = 0; timestamp < 300; timestamp += 10) {
+            filter.consume(new DoubleDataSample(timestamp, "source", "a", timestamp, null));
+        }
+
+        assertThat(out).containsExactly(0L, 100L, 200L);
+
+        // Unchanged, only the heartbeat gets through
+        out.clear();
+
+        for (long timestamp = 300; timestamp < 2500; timestamp += 10) {
+            filter.consume(new DoubleDataSample(timestamp, "source", "a", 42, null));
+        }
+
+        assertThat(out).containsExactly(300L, 1300L, 2300L);
+    }
+
+    @Test
+    void testErrorAndPerSignatureDeadband() {
+
+        DeadbandFilter<Double> filter = new DeadbandFilter<>(10, 1000, 0);
+        List<String> out = new ArrayList<>();
+
+        filter.setDeadband("b", 0);
+        filter.addConsumer((DataSample<Double> signal) -> out.add(signal.signature + "=" + signal.sample));
+
+        filter.consume(new DataSample<>(0, "source", "a", 1d, null));
+        filter.consume(new DataSample<>(0, "source", "b", 1d, null));
+
+        // Error state change bypasses the rate limit
+        filter.consume(new DataSample<Double>(1, "source", "a", null, new Exception()));
+        filter.consume(new DataSample<>(2, "source", "a", 1d, null));
+
+        filter.consume(new DataSample<>(2000, "source", "a", 5d, null));
+        filter.consume(new DataSample<>(2000, "source", "b", 5d, null));
+
+        assertThat(out).containsExactly("a=1.0", "b=1.0", "a=null", "a=1.0", "b=5.0");
+    }
+
+    @Test
+    void testManySignatures() {
+
+        DeadbandFilter<Double> filter = new DeadbandFilter<>(1, 0, 0);
+
+        for (int signature = 0; signature < 1000; signature++) {
+            filter.consume(new DoubleDataSample(0, "source", "s" + signature, signature, null));
+            filter.consume(new DoubleDataSample(1, "source", "s" + signature, signature + 0.5, null));
+        }
+
+        assertThat(filter.getSignatureCount()).isEqualTo(1000);
+        assertThat(filter.getPassed()).isEqualTo(1000);
+        assertThat(filter.getDropped()).isEqualTo(1000);
+    }
+}
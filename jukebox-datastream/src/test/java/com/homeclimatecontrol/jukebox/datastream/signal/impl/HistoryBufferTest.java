@@ -0,0 +1,95 @@
+package com.homeclimatecontrol.jukebox.datastream.signal.impl;
+
+import com.homeclimatecontrol.jukebox.datastream.signal.model.DoubleDataSample;
+import com.homeclimatecontrol.jukebox.datastream.signal.model.SampleHistory;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Copyright &copy; <a href="mailto:vt@homeclimatecontrol.com">Vadim Tkachenko</a> 2026
+ */
+class HistoryBufferTest {
+
+    @Test
+    void testWrapAround() {
+
+        HistoryBuffer<Double> history = new HistoryBuffer<>(4, 1024);
+
+        for (int value = 0; value < 10; value++) {
+            history.consume(new DoubleDataSample(value * 10L, "source", "a", value, null));
+        }
+
+        SampleHistory all = history.getHistory("a");
+
+        assertThat(all.size()).isEqualTo(4);
+        assertThat(all.getTimestamp(0)).isEqualTo(60);
+        assertThat(all.getValue(3)).isEqualTo(9d);
+
+        SampleHistory recent = history.getHistory("a", 75);
+
+        assertThat(recent.size()).isEqualTo(2);
+        assertThat(recent.getTimestamp(0)).isEqualTo(80);
+
+        assertThat(history.getHistory("b")).isNull();
+    }
+
+    @Test
+    void testBudget() {
+
+        // Room for two signatures only
+        HistoryBuffer<Double> history = new HistoryBuffer<>(4, 4 * HistoryBuffer.SAMPLE_SIZE * 2 + 1);
+
+        history.consume(new DoubleDataSample(0, "source", "a", 1, null));
+        history.consume(new DoubleDataSample(0, "source", "b", 1, null));
+        history.consume(new DoubleDataSample(0, "source", "c", 1, null));
+        history.consume(new DoubleDataSample(1, "source", "a", 2, null));
+
+        assertThat(history.getSignatureCount()).isEqualTo(2);
+        assertThat(history.getRejected()).isEqualTo(1);
+        assertThat(history.getMemoryUsed()).isEqualTo(4 * HistoryBuffer.SAMPLE_SIZE * 2);
+        assertThat(history.getHistory("c")).isNull();
+        assertThat(history.getHistory("a").size()).isEqualTo(2);
+    }
+
+    @Test
+    void testConsistentSnapshots() throws InterruptedException {
+
+        HistoryBuffer<Double> history = new HistoryBuffer<>(64, 1 << 20);
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicReference<String> failure = new AtomicReference<>();
+
+        history.consume(new DoubleDataSample(0, "source", "a", 0, null));
+
+        Thread reader = new Thread(() -> {
+
+            while (!done.get() && failure.get() == null) {
+
+                SampleHistory snapshot = history.getHistory("a");
+
+                for (int offset = 0; offset < snapshot.size(); offset++) {
+
+                    // The writer always writes the timestamp as the value, and increments it by one
+                    if (snapshot.getValue(offset) != snapshot.getTimestamp(offset)
+                            || (offset > 0 && snapshot.getTimestamp(offset) != snapshot.getTimestamp(offset - 1) + 1)) {
+                        failure.set("Torn snapshot at " + offset + ": " + snapshot);
+                    }
+                }
+            }
+        });
+
+        reader.start();
+
+        for (long timestamp = 1; timestamp < 500_000; timestamp++) {
+            history.consume(new DoubleDataSample(timestamp, "source", "a", timestamp, null));
+        }
+
+        done.set(true);
+        reader.join();
+
+        assertThat(failure.get()).isNull();
+    }
+}
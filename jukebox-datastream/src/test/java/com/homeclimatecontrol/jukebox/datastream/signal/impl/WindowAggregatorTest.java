@@ -0,0 +1,116 @@
+package com.homeclimatecontrol.jukebox.datastream.signal.impl;
+
+import com.homeclimatecontrol.jukebox.datastream.logger.impl.DataBroadcaster;
+import com.homeclimatecontrol.jukebox.datastream.signal.model.DataSample;
+import com.homeclimatecontrol.jukebox.datastream.signal.model.DoubleDataSample;
+import com.homeclimatecontrol.jukebox.datastream.signal.model.WindowStatistics;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * @author Copyright &copy; <a href="mailto:vt@homeclimatecontrol.com">Vadim Tkachenko</a> 2026
+ */
+class WindowAggregatorTest {
+
+    @Test
+    void testTumbling() {
+
+        WindowAggregator<Double> aggregator = new WindowAggregator<>(1000, 100);
+        List<WindowStatistics> out = new ArrayList<>();
+
+        aggregator.addConsumer(signal -> out.add(signal.sample));
+
+        for (int value = 1; value <= 10; value++) {
+            aggregator.consume(new DataSample<>(value * 100L, "source", "a", (double) value, null));
+        }
+
+        // Samples at 100..900 belong to [0, 1000), the one at 1000 has closed it
+        assertThat(out).hasSize(1);
+
+        WindowStatistics stats = out.get(0);
+
+        assertThat(stats.getStart()).isEqualTo(0);
+        assertThat(stats.getEnd()).isEqualTo(1000);
+        assertThat(stats.getCount()).isEqualTo(9);
+        assertThat(stats.getMin()).isEqualTo(1d);
+        assertThat(stats.getMax()).isEqualTo(9d);
+        assertThat(stats.getMean()).isEqualTo(5d);
+        assertThat(stats.getStddev()).isCloseTo(Math.sqrt(60d / 9), within(1e-9));
+        assertThat(stats.getPercentileAt(50)).isEqualTo(5d);
+        assertThat(stats.getPercentileAt(99)).isEqualTo(9d);
+
+        WindowStatistics current = aggregator.getStatistics("a");
+
+        assertThat(current.getStart()).isEqualTo(1000);
+        assertThat(current.getCount()).isEqualTo(1);
+        assertThat(current.getMin()).isEqualTo(10d);
+    }
+
+    @Test
+    void testSlidingAgainstBruteForce() {
+
+        List<WindowStatistics> out = new ArrayList<>();
+        WindowAggregator<Double> aggregator = new WindowAggregator<>(
+                1000, 250, 10_000, new double[] {0, 50, 100}, new DataBroadcaster<>(null, 0, null));
+        Random rg = new Random(42);
+        List<double[]> samples = new ArrayList<>();
+
+        aggregator.addConsumer(signal -> out.add(signal.sample));
+
+        long timestamp = 0;
+
+        for (int count = 0; count < 5000; count++) {
+
+            timestamp += rg.nextInt(20);
+
+            double value = rg.nextInt(10) == 0 ? Double.NaN : rg.nextGaussian() * 10;
+
+            samples.add(new double[] {timestamp, value});
+            aggregator.consume(new DoubleDataSample(timestamp, "source", "a", value, Double.isNaN(value) ? new Exception() : null));
+        }
+
+        assertThat(out).isNotEmpty();
+
+        for (WindowStatistics stats : out) {
+
+            double[] values = samples.stream()
+                    .filter(s -> s[0] >= stats.getStart() && s[0] < stats.getEnd() && !Double.isNaN(s[1]))
+                    .mapToDouble(s -> s[1])
+                    .sorted()
+                    .toArray();
+
+            assertThat(stats.getEnd() - stats.getStart()).isEqualTo(1000);
+            assertThat(stats.getCount()).isEqualTo(values.length);
+            assertThat(stats.getMin()).isEqualTo(values[0]);
+            assertThat(stats.getMax()).isEqualTo(values[values.length - 1]);
+            assertThat(stats.getPercentileAt(0)).isEqualTo(values[0]);
+            assertThat(stats.getPercentileAt(100)).isEqualTo(values[values.length - 1]);
+            assertThat(stats.getMean()).isCloseTo(Arrays.stream(values).average().getAsDouble(), within(1e-9));
+        }
+    }
+
+    @Test
+    void testCapacity() {
+
+        WindowAggregator<Double> aggregator = new WindowAggregator<>(1000, 3);
+
+        for (int value = 0; value < 10; value++) {
+            aggregator.consume(new DataSample<>(value, "source", "a", (double) value, null));
+        }
+
+        WindowStatistics stats = aggregator.getStatistics("a");
+
+        assertThat(stats.getCount()).isEqualTo(3);
+        assertThat(stats.getMin()).isEqualTo(7d);
+        assertThat(stats.getMax()).isEqualTo(9d);
+        assertThat(aggregator.getSignatureCount()).isEqualTo(1);
+        assertThat(aggregator.getStatistics("b")).isNull();
+    }
+}
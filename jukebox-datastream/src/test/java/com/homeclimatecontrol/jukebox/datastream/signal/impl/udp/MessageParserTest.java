@@ -0,0 +1,113 @@
+package com.homeclimatecontrol.jukebox.datastream.signal.impl.udp;
+
+import com.homeclimatecontrol.jukebox.util.TimestampFormatter;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Copyright &copy; <a href="mailto:vt@homeclimatecontrol.com">Vadim Tkachenko</a> 2026
+ */
+class MessageParserTest {
+
+    @Test
+    void testXpl() {
+
+        String message = "xpl-trig\n{\nhop=2\nsource=DZ.logger.host\ntarget=*\n}\n"
+                + "sensor.basic\n{\ndevice=T1\ntype=temp\ncurrent=21.5\ntimestamp=2026-10-19T12:34:56.789-0700\n}\n"
+                + "other.block\n{\ndevice=ignored\n}\n"
+                + "sensor.basic\n{\ndevice=T2\ncurrent=\nerror=broken\n}\n";
+
+        List<String> blocks = new ArrayList<>();
+        MessageParser parser = new MessageParser();
+
+        int count = parser.parse(bytes(message), 0, message.length(), p -> {
+
+            assertThat(p.xap).isFalse();
+            assertThat(p.hop).isEqualTo(2);
+            assertThat(string(p, p.sourceOffset, p.sourceLength)).isEqualTo("DZ.logger.host");
+
+            blocks.add(string(p, p.signatureOffset, p.signatureLength) + "=" + p.getValue() + "@" + p.getTimestamp() + "/" + p.getError());
+        });
+
+        assertThat(count).isEqualTo(2);
+        assertThat(blocks).containsExactly("T1=21.5@1792438496789/null", "T2=NaN@-1/broken");
+    }
+
+    @Test
+    void testXapCrLf() {
+
+        String message = "xap-header\r\n{\r\nv=12\r\nhop=1\r\nsource=DZ.logger.host\r\n}\r\n"
+                + "dz.data-sample\r\n{\r\nchannel.name=Living room\r\nchannel.signature=4000000012345678\r\nchannel.value=-3.25\r\n}\r\n";
+
+        List<String> blocks = new ArrayList<>();
+        MessageParser parser = new MessageParser();
+
+        int count = parser.parse(bytes(message), 0, message.length(), p -> blocks.add(
+                string(p, p.nameOffset, p.nameLength) + "/" + string(p, p.signatureOffset, p.signatureLength) + "=" + p.getValue()));
+
+        assertThat(count).isEqualTo(1);
+        assertThat(blocks).containsExactly("Living room/4000000012345678=-3.25");
+    }
+
+    @Test
+    void testMalformed() {
+
+        MessageParser parser = new MessageParser();
+
+        for (String message : new String[] {"", "garbage", "xpl-trig\n{\nhop=1\n", "xpl-trig\nhop=1\n}\n", "foo\n{\n}\n"}) {
+            assertThat(parser.parse(bytes(message), 0, message.length(), p -> { })).isEqualTo(-1);
+        }
+    }
+
+    @Test
+    void testNumbers() {
+
+        MessageParser parser = new MessageParser();
+        double[] values = {0, -0.0, 1, 21.5, -3.25, 0.1, 1e-5, 1.2345678901234567E-5, 123456789.123, 1.7976931348623157E308, 4.9E-324, Double.NaN, Double.POSITIVE_INFINITY};
+
+        for (double value : values) {
+
+            byte[] text = bytes(Double.toString(value));
+
+            parser.parse(text, 0, 0, p -> { });
+            assertThat(parser.parseDouble(0, text.length)).isEqualTo(value);
+        }
+
+        byte[] garbage = bytes("12abc");
+
+        parser.parse(garbage, 0, 0, p -> { });
+        assertThat(parser.parseDouble(0, garbage.length)).isNaN();
+    }
+
+    @Test
+    void testTimestamps() {
+
+        MessageParser parser = new MessageParser();
+
+        for (long time : new long[] {0, 1792438496789L, 951782400000L, 4102444799999L}) {
+
+            byte[] text = bytes(TimestampFormatter.LOCAL_OFFSET.format(time));
+
+            parser.parse(text, 0, 0, p -> { });
+            assertThat(parser.parseTimestamp(0, text.length)).isEqualTo(time);
+        }
+
+        byte[] utc = bytes("2000-02-29T00:00:00Z");
+
+        parser.parse(utc, 0, 0, p -> { });
+        assertThat(parser.parseTimestamp(0, utc.length)).isEqualTo(951782400000L);
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String string(MessageParser parser, int offset, int length) {
+        return new String(parser.getData(), offset, length, StandardCharsets.UTF_8);
+    }
+}
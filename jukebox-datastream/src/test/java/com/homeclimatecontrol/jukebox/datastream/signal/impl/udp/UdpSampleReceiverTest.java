@@ -0,0 +1,135 @@
+package com.homeclimatecontrol.jukebox.datastream.signal.impl.udp;
+
+import com.homeclimatecontrol.jukebox.datastream.signal.model.DataSample;
+import com.homeclimatecontrol.jukebox.datastream.signal.model.DoubleDataSample;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static com.homeclimatecontrol.jukebox.datastream.Await.await;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @author Copyright &copy; <a href="mailto:vt@homeclimatecontrol.com">Vadim Tkachenko</a> 2026
+ */
+class UdpSampleReceiverTest {
+
+    @Test
+    void testReceive() throws IOException, InterruptedException {
+
+        UdpSampleReceiver receiver = new UdpSampleReceiver(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        List<DoubleDataSample> primitive = new CopyOnWriteArrayList<>();
+        List<DataSample<Double>> boxed = new CopyOnWriteArrayList<>();
+
+        // Primitive samples are pooled, must be copied if kept
+        receiver.addConsumer((DoubleDataSample sample) -> primitive.add(sample.copy()));
+        receiver.addConsumer((DataSample<Double> sample) -> boxed.add(sample));
+
+        receiver.start().waitFor();
+
+        try (DatagramChannel sender = DatagramChannel.open()) {
+
+            InetSocketAddress target = new InetSocketAddress(InetAddress.getLoopbackAddress(), receiver.getPort());
+
+            String xpl = "xpl-trig\n{\nhop=1\nsource=DZ.logger.a\ntarget=*\n}\n"
+                    + "sensor.basic\n{\ndevice=T1\ntype=temp\ncurrent=21.5\ntimestamp=2026-10-19T12:34:56.789-0700\n}\n";
+
+            send(sender, target, xpl);
+
+            // Relayed by a hub
+            send(sender, target, xpl.replace("hop=1", "hop=2"));
+
+            // Same signature, different source
+            send(sender, target, xpl.replace("DZ.logger.a", "DZ.logger.b"));
+
+            // Error, no timestamp
+            send(sender, target, "xap-header\n{\nv=12\nhop=1\nsource=DZ.logger.a\n}\n"
+                    + "dz.data-sample\n{\nchannel.name=Attic\nchannel.signature=T2\nchannel.value=\nerror=sensor gone\n}\n");
+
+            send(sender, target, "not xPL at all");
+
+            // The malformed packet was sent last, so everything else has been processed by then
+            await(() -> receiver.getMalformed() == 1);
+
+            assertThat(receiver.getPublished()).isEqualTo(3);
+            assertThat(receiver.getDuplicates()).isEqualTo(1);
+            assertThat(receiver.getPackets()).isEqualTo(5);
+
+            await(() -> primitive.size() == 3 && boxed.size() == 3);
+
+            assertThat(primitive.get(0).getSignature()).isEqualTo("T1");
+            assertThat(primitive.get(0).getSourceName()).isEqualTo("DZ.logger.a");
+            assertThat(primitive.get(0).getSample()).isEqualTo(21.5);
+            assertThat(primitive.get(0).getTimestamp()).isEqualTo(1792438496789L);
+            assertThat(primitive.get(1).getSourceName()).isEqualTo("DZ.logger.b");
+
+            assertThat(boxed.get(2).isError()).isTrue();
+            assertThat(boxed.get(2).sourceName).isEqualTo("Attic");
+            assertThat(boxed.get(2).error.getMessage()).isEqualTo("sensor gone");
+
+        } finally {
+            receiver.stop().waitFor();
+        }
+    }
+
+    @Test
+    void testClockStepBack() throws IOException, InterruptedException {
+
+        UdpSampleReceiver receiver = new UdpSampleReceiver(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        List<DoubleDataSample> primitive = new CopyOnWriteArrayList<>();
+
+        receiver.addConsumer((DoubleDataSample sample) -> primitive.add(sample.copy()));
+        receiver.setDedupeWindow(50);
+        receiver.start().waitFor();
+
+        try (DatagramChannel sender = DatagramChannel.open()) {
+
+            InetSocketAddress target = new InetSocketAddress(InetAddress.getLoopbackAddress(), receiver.getPort());
+
+            String xpl = "xpl-trig\n{\nhop=1\nsource=DZ.logger.a\ntarget=*\n}\n"
+                    + "sensor.basic\n{\ndevice=T1\ntype=temp\ncurrent=21.5\ntimestamp=2026-10-19T12:34:56.789-0700\n}\n";
+            String earlier = xpl.replace("12:34:56", "11:34:56");
+
+            send(sender, target, xpl);
+
+            // The source clock has been stepped back an hour
+            send(sender, target, earlier);
+
+            // Relayed copy, a duplicate
+            send(sender, target, earlier.replace("hop=1", "hop=2"));
+
+            await(() -> receiver.getPublished() + receiver.getDuplicates() == 3);
+
+            assertThat(receiver.getPublished()).isEqualTo(2);
+            assertThat(receiver.getDuplicates()).isEqualTo(1);
+
+            // Relayed copy arriving long after the original is not
+            Thread.sleep(100);
+            send(sender, target, earlier.replace("hop=1", "hop=2"));
+
+            await(() -> receiver.getPublished() + receiver.getDuplicates() == 4);
+
+            assertThat(receiver.getPublished()).isEqualTo(3);
+            assertThat(receiver.getDuplicates()).isEqualTo(1);
+
+            await(() -> primitive.size() == 3);
+
+            assertThat(primitive.get(0).getTimestamp()).isEqualTo(1792438496789L);
+            assertThat(primitive.get(1).getTimestamp()).isEqualTo(1792438496789L - 3_600_000L);
+
+        } finally {
+            receiver.stop().waitFor();
+        }
+    }
+
+    private static void send(DatagramChannel sender, InetSocketAddress target, String message) throws IOException {
+        sender.send(ByteBuffer.wrap(message.getBytes(StandardCharsets.UTF_8)), target);
+    }
+}
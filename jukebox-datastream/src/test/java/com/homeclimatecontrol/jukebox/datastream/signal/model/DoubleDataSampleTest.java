@@ -0,0 +1,62 @@
+package com.homeclimatecontrol.jukebox.datastream.signal.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * @author Copyright &copy; <a href="mailto:vt@homeclimatecontrol.com">Vadim Tkachenko</a> 2026
+ */
+class DoubleDataSampleTest {
+
+    @Test
+    void testValueOf() {
+
+        DataSample<Integer> source = new DataSample<>(1000, "source", "sig", 42, null);
+        DoubleDataSample sample = DoubleDataSample.valueOf(source);
+
+        assertThat(sample.getTimestamp()).isEqualTo(1000L);
+        assertThat(sample.getSourceName()).isEqualTo("source");
+        assertThat(sample.getSignature()).isEqualTo("sig");
+        assertThat(sample.getSample()).isEqualTo(42d);
+        assertThat(sample.isError()).isFalse();
+    }
+
+    @Test
+    void testValueOfError() {
+
+        Throwable error = new IllegalStateException("oops");
+        DataSample<Integer> source = new DataSample<>(1000, "source", "sig", null, error);
+        DoubleDataSample sample = DoubleDataSample.valueOf(source);
+
+        assertThat(sample.getSample()).isNaN();
+        assertThat(sample.getError()).isSameAs(error);
+        assertThat(sample.isError()).isTrue();
+    }
+
+    @Test
+    void testErrorOverridesValue() {
+
+        DoubleDataSample sample = new DoubleDataSample(1000, "source", "sig", 42, new IllegalStateException("oops"));
+
+        assertThat(sample.getSample()).isNaN();
+    }
+
+    @Test
+    void testEmptySignature() {
+
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> new DoubleDataSample(1000, "source", "", 42, null))
+                .withMessage("Signature must not be empty");
+    }
+
+    @Test
+    void testToString() {
+
+        DataSample<Double> boxed = new DataSample<>(1000, "source", "sig", 42d, null);
+        DoubleDataSample primitive = DoubleDataSample.valueOf(boxed);
+
+        assertThat(primitive.toString()).isEqualTo("Double" + boxed.toString());
+    }
+}
@@ -0,0 +1,59 @@
+package com.homeclimatecontrol.jukebox.datastream.transport.tcp;
+
+import com.homeclimatecontrol.jukebox.datastream.signal.model.DoubleDataSample;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * @author Copyright &copy; <a href="mailto:vt@homeclimatecontrol.com">Vadim Tkachenko</a> 2026
+ */
+class FrameCodecTest {
+
+    @Test
+    void testRoundTrip() {
+
+        FrameCodec codec = new FrameCodec();
+        ByteBuffer buffer = ByteBuffer.allocate(FrameCodec.MAX_FRAME_SIZE);
+
+        assertThat(codec.putSample(buffer, new DoubleDataSample(1, null, "sig", 1.5, null))).isTrue();
+        assertThat(codec.putSample(buffer, new DoubleDataSample(2, "source", "sig", 0, new IllegalStateException("broken")))).isTrue();
+
+        buffer.flip();
+
+        DoubleDataSample first = FrameCodec.getSample(buffer);
+        DoubleDataSample second = FrameCodec.getSample(buffer);
+
+        assertThat(first.getSourceName()).isNull();
+        assertThat(first.getSample()).isEqualTo(1.5);
+        assertThat(second.getSourceName()).isEqualTo("source");
+        assertThat(second.getError().getMessage()).contains("broken");
+        assertThat(buffer.hasRemaining()).isFalse();
+    }
+
+    @Test
+    void testOversize() {
+
+        FrameCodec codec = new FrameCodec();
+        ByteBuffer buffer = ByteBuffer.allocate(FrameCodec.MAX_FRAME_SIZE);
+        StringBuilder signature = new StringBuilder();
+
+        while (signature.length() <= Short.MAX_VALUE) {
+            signature.append("signature");
+        }
+
+        // Would fit into the frame, but not into the length
+        assertThat(codec.putSample(buffer, new DoubleDataSample(1, "source", signature.toString(), 1, null))).isFalse();
+        assertThat(buffer.position()).isZero();
+
+        try {
+            FrameCodec.putString(buffer, new byte[Short.MAX_VALUE + 1]);
+            fail("Should've thrown an exception");
+        } catch (IllegalArgumentException ex) {
+            assertThat(buffer.position()).isZero();
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.homeclimatecontrol.jukebox.datastream.transport.tcp;
+
+import com.homeclimatecontrol.jukebox.datastream.logger.impl.OverflowPolicy;
+import com.homeclimatecontrol.jukebox.datastream.signal.model.DataSample;
+import com.homeclimatecontrol.jukebox.datastream.signal.model.DoubleDataSample;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+
+import static com.homeclimatecontrol.jukebox.datastream.Await.await;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * @author Copyright &copy; <a href="mailto:vt@homeclimatecontrol.com">Vadim Tkachenko</a> 2026
+ */
+class TcpTransportTest {
+
+    @Test
+    void testSubscriptionTooLarge() {
+
+        char[] chars = new char[1000];
+
+        Arrays.fill(chars, 's');
+
+        String[] signatures = new String[100];
+
+        for (int offset = 0; offset < signatures.length; offset++) {
+            signatures[offset] = offset + new String(chars);
+        }
+
+        // Every signature is fine, all of them together don't fit into a frame
+        try {
+            new TcpSampleClient(loopback(0), signatures);
+            fail("Should've thrown an exception");
+        } catch (IllegalArgumentException ex) {
+            assertThat(ex.getMessage()).contains(Integer.toString(FrameCodec.MAX_FRAME_SIZE));
+        }
+
+        // Just short of the limit is fine
+        new TcpSampleClient(loopback(0), Arrays.copyOf(signatures, 60));
+    }
+
+    @Test
+    void testLoopback() throws InterruptedException {
+
+        TcpSampleServer<Double> server = new TcpSampleServer<>(loopback(0), 1024, OverflowPolicy.DROP_NEWEST);
+
+        server.start().waitFor();
+
+        TcpSampleClient all = new TcpSampleClient(loopback(server.getPort()));
+        TcpSampleClient filtered = new TcpSampleClient(loopback(server.getPort()), "a");
+
+        List<DataSample<Double>> allReceived = new CopyOnWriteArrayList<>();
+        List<DoubleDataSample> filteredReceived = new CopyOnWriteArrayList<>();
+
+        all.addConsumer((DataSample<Double> sample) -> allReceived.add(sample));
+        filtered.addConsumer((DoubleDataSample sample) -> filteredReceived.add(sample));
+
+        all.start().waitFor();
+        filtered.start().waitFor();
+
+        try {
+
+            awaitSubscribed(server, 2);
+
+            for (int count = 0; count < 1000; count++) {
+                server.consume(new DoubleDataSample(count, "source", count % 2 == 0 ? "a" : "b", count, null));
+            }
+
+            server.consume(new DataSample<>(1000, "source", "a", null, new IllegalStateException("broken")));
+
+            await(() -> allReceived.size() == 1001 && filteredReceived.size() == 501);
+
+            for (int count = 0; count < 1000; count++) {
+                assertThat(allReceived.get(count).timestamp).isEqualTo(count);
+                assertThat(allReceived.get(count).sample).isEqualTo((double) count);
+            }
+
+            assertThat(filteredReceived.stream().allMatch(sample -> "a".equals(sample.getSignature()))).isTrue();
+            assertThat(allReceived.get(1000).isError()).isTrue();
+            assertThat(allReceived.get(1000).error.getMessage()).contains("broken");
+            assertThat(server.getSent()).isEqualTo(1001 + 501);
+            assertThat(server.getDropped()).isZero();
+
+        } finally {
+            all.stop().waitFor();
+            filtered.stop().waitFor();
+            server.stop().waitFor();
+        }
+    }
+
+    @Test
+    void testBackpressure() throws InterruptedException {
+
+        TcpSampleServer<Double> server = new TcpSampleServer<>(loopback(0), 16, OverflowPolicy.DROP_NEWEST);
+
+        server.start().waitFor();
+
+        TcpSampleClient slow = new TcpSampleClient(loopback(server.getPort()));
+        CountDownLatch release = new CountDownLatch(1);
+        List<DoubleDataSample> received = new CopyOnWriteArrayList<>();
+
+        slow.addConsumer((DoubleDataSample sample) -> {
+
+            try {
+                release.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+
+            received.add(sample);
+        });
+
+        slow.start().waitFor();
+
+        try {
+
+            awaitSubscribed(server, 1);
+
+            // The client is stuck, the producer must not be
+            for (int count = 0; count < 200_000; count++) {
+                server.consume(new DoubleDataSample(count, "source", "a", count, null));
+            }
+
+            assertThat(server.getDropped()).isPositive();
+
+            release.countDown();
+
+            await(() -> received.size() + server.getDropped() == 200_000);
+
+        } finally {
+            release.countDown();
+            slow.stop().waitFor();
+            server.stop().waitFor();
+        }
+    }
+
+    private static InetSocketAddress loopback(int port) {
+        return new InetSocketAddress(InetAddress.getLoopbackAddress(), port);
+    }
+
+    private static void awaitSubscribed(TcpSampleServer<?> server, int count) throws InterruptedException {
+
+        await(() -> {
+
+            String[] status = server.getSubscriberStatus();
+
+            return status.length == count && Arrays.stream(status).noneMatch(line -> line.endsWith("null"));
+        });
+    }
+}
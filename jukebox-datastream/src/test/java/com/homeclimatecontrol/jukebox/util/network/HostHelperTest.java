@@ -0,0 +1,46 @@
+package com.homeclimatecontrol.jukebox.util.network;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * @author Copyright &copy; <a href="mailto:vt@homeclimatecontrol.com">Vadim Tkachenko</a> 2026
+ */
+class HostHelperTest {
+
+    @Test
+    void testBroadcast24() throws UnknownHostException {
+        assertThat(broadcast("192.168.1.17", 24)).isEqualTo("192.168.1.255");
+    }
+
+    @Test
+    void testBroadcast22() throws UnknownHostException {
+        assertThat(broadcast("10.20.33.4", 22)).isEqualTo("10.20.35.255");
+    }
+
+    @Test
+    void testBroadcastEdges() throws UnknownHostException {
+
+        assertThat(broadcast("10.20.33.4", 32)).isEqualTo("10.20.33.4");
+        assertThat(broadcast("10.20.33.4", 0)).isEqualTo("255.255.255.255");
+    }
+
+    @Test
+    void testIPv6() throws UnknownHostException {
+        assertThat(HostHelper.getBroadcastAddress(InetAddress.getByName("fe80::1"), 64)).isNull();
+    }
+
+    @Test
+    void testInvalidPrefix() {
+        assertThatIllegalArgumentException().isThrownBy(() -> broadcast("10.0.0.1", 33));
+    }
+
+    private static String broadcast(String address, int prefixLength) throws UnknownHostException {
+        return HostHelper.getBroadcastAddress(InetAddress.getByName(address), prefixLength).getHostAddress();
+    }
+}
@@ -207,6 +207,12 @@ public class EventSemaphore extends Semaphore {
      */
     public synchronized void trigger(boolean value) {
 
+        SemaphoreStatistics statistics = getStatistics();
+
+        if (statistics != null) {
+            statistics.countPost();
+        }
+
         lastRequest.clear();
         status = value;
         triggered = true;
@@ -238,6 +244,8 @@ public class EventSemaphore extends Semaphore {
     /**
      * Wait forever for the semaphore to be triggered.
      *
+     * Waits that have to block are recorded as {@link SemaphoreWaitEvent Flight Recorder events}.
+     *
      * Note: each thread will get "true" for a semaphore triggering just once.
      * Any subsequent call will wait again.
      *
@@ -249,13 +257,31 @@ public class EventSemaphore extends Semaphore {
     @Override
     public synchronized boolean waitFor() throws InterruptedException {
 
+        SemaphoreStatistics statistics = getStatistics();
+
+        if (statistics != null) {
+            statistics.countWait();
+        }
+
         if (canGetStatus()) {
 
             return status;
         }
 
-        wait();
+        SemaphoreWaitEvent event = new SemaphoreWaitEvent();
+        long start = statistics == null ? 0 : statistics.block();
+
+        event.begin();
 
+        try {
+            wait();
+        } finally {
+            if (statistics != null) {
+                statistics.unblock(start);
+            }
+        }
+
+        event.finish(name, false);
         lastRequest.add(Thread.currentThread().hashCode());
 
         return status;
@@ -275,16 +301,41 @@ public class EventSemaphore extends Semaphore {
     @Override
     public synchronized boolean waitFor(long millis) throws SemaphoreTimeoutException, InterruptedException {
 
+        SemaphoreStatistics statistics = getStatistics();
+
+        if (statistics != null) {
+            statistics.countWait();
+        }
+
         if (canGetStatus()) {
             return status;
         }
 
-        wait(millis);
+        SemaphoreWaitEvent event = new SemaphoreWaitEvent();
+        long start = statistics == null ? 0 : statistics.block();
 
-        if (canGetStatus()) {
+        event.begin();
+
+        try {
+            wait(millis);
+        } finally {
+            if (statistics != null) {
+                statistics.unblock(start);
+            }
+        }
+
+        boolean posted = canGetStatus();
+
+        event.finish(name, !posted);
+
+        if (posted) {
             return status;
         }
 
+        if (statistics != null) {
+            statistics.countTimeout();
+        }
+
         SemaphoreTimeoutException timedOut = new SemaphoreTimeoutException(Long.toString(millis));
 
         notifyListeners(timedOut);
@@ -102,6 +102,11 @@ public class MutexSemaphore extends Semaphore {
         // complain(Log.DEBUG, "wait: recursion: "+depth);
 
         Thread current = Thread.currentThread();
+        SemaphoreStatistics statistics = getStatistics();
+
+        if (statistics != null) {
+            statistics.countWait();
+        }
 
         if (current == currentOwner) {
 
@@ -109,9 +114,24 @@ public class MutexSemaphore extends Semaphore {
             return true;
         }
 
-        while (currentOwner != null) {
+        if (currentOwner != null && statistics != null) {
+
+            long start = statistics.block();
+
+            try {
+                while (currentOwner != null) {
+                    wait();
+                }
+            } finally {
+                statistics.unblock(start);
+            }
 
-            wait();
+        } else {
+
+            while (currentOwner != null) {
+
+                wait();
+            }
         }
 
         depth++;
@@ -139,6 +159,11 @@ public class MutexSemaphore extends Semaphore {
 
         // complain(Log.DEBUG, "wait: recursion: "+depth);
         Thread current = Thread.currentThread();
+        SemaphoreStatistics statistics = getStatistics();
+
+        if (statistics != null) {
+            statistics.countWait();
+        }
 
         if (current == currentOwner) {
 
@@ -153,7 +178,15 @@ public class MutexSemaphore extends Semaphore {
             return true;
         }
 
-        wait(millis);
+        long start = statistics == null ? 0 : statistics.block();
+
+        try {
+            wait(millis);
+        } finally {
+            if (statistics != null) {
+                statistics.unblock(start);
+            }
+        }
 
         if (currentOwner == null) {
             currentOwner = current;
@@ -161,6 +194,10 @@ public class MutexSemaphore extends Semaphore {
             return true;
         }
 
+        if (statistics != null) {
+            statistics.countTimeout();
+        }
+
         throw new SemaphoreTimeoutException(Long.toString(millis));
     }
 
@@ -176,6 +213,12 @@ public class MutexSemaphore extends Semaphore {
             throw new IllegalAccessError("Not owner");
         }
 
+        SemaphoreStatistics statistics = getStatistics();
+
+        if (statistics != null) {
+            statistics.countPost();
+        }
+
         depth--;
         // complain(Log.DEBUG, "release: depth: "+depth);
         // complain(Log.DEBUG, "release: thread: "
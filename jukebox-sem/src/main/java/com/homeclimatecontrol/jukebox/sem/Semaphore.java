@@ -28,6 +28,11 @@ public abstract class Semaphore extends Multicaster {
      */
     protected String name;
 
+    /**
+     * Statistics to record to, resolved on first use while {@link SemaphoreDiagnostics diagnostics} are enabled.
+     */
+    private SemaphoreStatistics statistics;
+
     /**
      * Create the named semaphore.
      *
@@ -80,6 +85,28 @@ public abstract class Semaphore extends Multicaster {
         return name;
     }
 
+    /**
+     * Get the statistics to record the waits and posts to.
+     *
+     * @return The statistics, or {@code null} if {@link SemaphoreDiagnostics diagnostics} are disabled.
+     */
+    protected final SemaphoreStatistics getStatistics() {
+
+        if (!SemaphoreDiagnostics.isActive()) {
+            return null;
+        }
+
+        // Benign race, the worst case is resolving it twice
+        SemaphoreStatistics result = statistics;
+
+        if (result == null) {
+            result = SemaphoreDiagnostics.getStatistics(name);
+            statistics = result;
+        }
+
+        return result;
+    }
+
     /**
      * Wait for the semaphore forever.
      *
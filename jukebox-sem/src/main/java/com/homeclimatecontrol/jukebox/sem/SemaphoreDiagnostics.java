@@ -0,0 +1,184 @@
+package com.homeclimatecontrol.jukebox.sem;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.homeclimatecontrol.jukebox.jmx.JmxAttribute;
+import com.homeclimatecontrol.jukebox.jmx.JmxAware;
+import com.homeclimatecontrol.jukebox.jmx.JmxDescriptor;
+
+import jdk.jfr.FlightRecorder;
+
+/**
+ * Opt-in contention diagnostics for the semaphores in this package.
+ *
+ * While enabled, every {@link EventSemaphore}, {@link MutexSemaphore} and {@link SemaphoreGroup} records its waits,
+ * posts, timeouts, the time spent blocked and the maximum number of waiters in the {@link SemaphoreStatistics}
+ * for its {@link Semaphore#getName() name}. Semaphores with the same name share the statistics.
+ *
+ * Diagnostics are disabled by default, and the only cost then is a volatile read per wait or post. They can be
+ * enabled with the {@code com.homeclimatecontrol.jukebox.sem.SemaphoreDiagnostics.enabled} system property, or at
+ * runtime via {@link #setEnabled(boolean)}, also exposed via JMX - register {@link #getInstance()} with the
+ * {@code JmxWrapper}. While enabled, the statistics are also emitted as periodic {@link SemaphoreStatisticsEvent Flight
+ * Recorder events}.
+ *
+ * Names derived from the owner include the owner's hash code, so with diagnostics enabled, an application creating
+ * lots of short lived semaphores will accumulate lots of entries. Keep that in mind before leaving the diagnostics
+ * on for long.
+ *
+ * @author Copyright &copy; <a href="mailto:vt@homeclimatecontrol.com">Vadim Tkachenko</a> 2026
+ */
+public final class SemaphoreDiagnostics implements JmxAware {
+
+    /**
+     * System property to enable the diagnostics at startup.
+     */
+    public static final String ENABLED_PROPERTY = SemaphoreDiagnostics.class.getName() + ".enabled";
+
+    private static final Logger logger = LogManager.getLogger(SemaphoreDiagnostics.class);
+
+    private static final SemaphoreDiagnostics instance = new SemaphoreDiagnostics();
+
+    private static volatile boolean enabled = false;
+
+    private static boolean eventRegistered = false;
+
+    private final ConcurrentMap<String, SemaphoreStatistics> statistics = new ConcurrentHashMap<>();
+
+    static {
+        if (Boolean.getBoolean(ENABLED_PROPERTY)) {
+            instance.setEnabled(true);
+        }
+    }
+
+    private SemaphoreDiagnostics() {
+    }
+
+    /**
+     * @return The one and only instance.
+     */
+    public static SemaphoreDiagnostics getInstance() {
+        return instance;
+    }
+
+    /**
+     * Fast path check for the semaphores.
+     */
+    static boolean isActive() {
+        return enabled;
+    }
+
+    /**
+     * Get the statistics to record to.
+     *
+     * @param name Semaphore name, may be {@code null}.
+     * @return Statistics for the name, created if necessary.
+     */
+    static SemaphoreStatistics getStatistics(String name) {
+
+        String key = name == null ? "" : name;
+        SemaphoreStatistics result = instance.statistics.get(key);
+
+        return result != null ? result : instance.statistics.computeIfAbsent(key, SemaphoreStatistics::new);
+    }
+
+    /**
+     * @return {@code true} if the diagnostics are being collected.
+     */
+    @JmxAttribute(description = "True if semaphore diagnostics are being collected")
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Enable or disable the diagnostics. The statistics collected so far are kept.
+     *
+     * @param enabled {@code true} to collect the statistics.
+     */
+    public synchronized void setEnabled(boolean enabled) {
+
+        if (enabled && !eventRegistered) {
+
+            try {
+
+                FlightRecorder.addPeriodicEvent(SemaphoreStatisticsEvent.class, this::emit);
+
+            } catch (Throwable t) { // NOSONAR Consequences have been considered
+
+                // Not the end of the world, JMX still works
+                logger.warn("Can't register Flight Recorder events, JFR is probably not available", t);
+            }
+
+            eventRegistered = true;
+        }
+
+        SemaphoreDiagnostics.enabled = enabled;
+
+        logger.info("Semaphore diagnostics " + (enabled ? "enabled" : "disabled"));
+    }
+
+    /**
+     * @return Number of semaphore names with statistics.
+     */
+    @JmxAttribute(description = "Number of semaphore names with statistics")
+    public int getSemaphoreCount() {
+        return statistics.size();
+    }
+
+    /**
+     * @return Statistics summary, one line per semaphore name, sorted by name.
+     */
+    @JmxAttribute(description = "Per semaphore statistics")
+    public String[] getSemaphores() {
+        return getStatistics().values().stream().map(SemaphoreStatistics::toString).toArray(String[]::new);
+    }
+
+    /**
+     * @return Snapshot of the statistics, sorted by semaphore name.
+     */
+    public Map<String, SemaphoreStatistics> getStatistics() {
+        return new TreeMap<>(statistics);
+    }
+
+    /**
+     * Forget the statistics collected so far.
+     */
+    public void reset() {
+
+        // Semaphores cache their statistics, they have to be reset, not discarded
+        statistics.values().forEach(SemaphoreStatistics::reset);
+    }
+
+    private void emit() {
+
+        if (!enabled) {
+            return;
+        }
+
+        for (SemaphoreStatistics s : statistics.values()) {
+
+            SemaphoreStatisticsEvent e = new SemaphoreStatisticsEvent();
+
+            e.semaphore = s.getName();
+            e.waits = s.getWaits();
+            e.posts = s.getPosts();
+            e.timeouts = s.getTimeouts();
+            e.maxWaiters = s.getMaxWaiters();
+            e.blockedP50 = s.getBlocked().getValueAtPercentile(50);
+            e.blockedP99 = s.getBlocked().getValueAtPercentile(99);
+            e.blockedMax = s.getBlocked().getMax();
+
+            e.commit();
+        }
+    }
+
+    @Override
+    public JmxDescriptor getJmxDescriptor() {
+        return new JmxDescriptor("jukebox", getClass().getSimpleName(), "instance", "Semaphore contention diagnostics");
+    }
+}
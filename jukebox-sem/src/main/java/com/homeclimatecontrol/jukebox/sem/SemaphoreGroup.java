@@ -147,6 +147,8 @@ public class SemaphoreGroup extends Semaphore implements EventListener {
      */
     public synchronized boolean waitForAll() throws InterruptedException {
 
+        countWait();
+
         if (group.isEmpty()) {
 
             throw new IllegalStateException("waitForAll() on the empty group");
@@ -161,7 +163,7 @@ public class SemaphoreGroup extends Semaphore implements EventListener {
 
         while (localGroup.size() > 0) {
 
-            EventSemaphore esPosted = posted.waitObject();
+            EventSemaphore esPosted = take();
 
             // logger.debug(CH_SG, "waitForAll(): " +
             // esPosted.toString());
@@ -272,6 +274,8 @@ public class SemaphoreGroup extends Semaphore implements EventListener {
      */
     public synchronized boolean waitForAll(boolean value, boolean returnImmediately) throws InterruptedException {
 
+        countWait();
+
         if (group.isEmpty()) {
 
             throw new IllegalStateException("waitForAll(" + value + ") on the empty group");
@@ -296,7 +300,7 @@ public class SemaphoreGroup extends Semaphore implements EventListener {
 
         while (localGroup.size() > 0) {
 
-            EventSemaphore esPosted = posted.waitObject();
+            EventSemaphore esPosted = take();
 
             if (!localGroup.contains(esPosted)) {
 
@@ -341,12 +345,14 @@ public class SemaphoreGroup extends Semaphore implements EventListener {
      */
     public synchronized EventSemaphore waitForOne() throws InterruptedException {
 
+        countWait();
+
         if (group.isEmpty()) {
 
             throw new IllegalStateException("waitForOne() on the empty group");
         }
 
-        EventSemaphore esPosted = posted.waitObject();
+        EventSemaphore esPosted = take();
 
         if (!group.contains(esPosted)) {
 
@@ -380,6 +386,8 @@ public class SemaphoreGroup extends Semaphore implements EventListener {
      */
     public synchronized EventSemaphore waitForOne(boolean value) throws InterruptedException {
 
+        countWait();
+
         if (group.isEmpty()) {
 
             throw new IllegalStateException("waitForOne(" + value + ") on the empty group");
@@ -389,7 +397,7 @@ public class SemaphoreGroup extends Semaphore implements EventListener {
 
         while (localGroup.size() > 0) {
 
-            EventSemaphore esPosted = posted.waitObject();
+            EventSemaphore esPosted = take();
 
             if (!localGroup.contains(esPosted)) {
 
@@ -518,9 +526,47 @@ public class SemaphoreGroup extends Semaphore implements EventListener {
 
         // logger.debug(CH_SG, "notified with: " + producer.toString());
 
+        SemaphoreStatistics statistics = getStatistics();
+
+        if (statistics != null) {
+            statistics.countPost();
+        }
+
         posted.put((EventSemaphore) producer);
     }
 
+    private void countWait() {
+
+        SemaphoreStatistics statistics = getStatistics();
+
+        if (statistics != null) {
+            statistics.countWait();
+        }
+    }
+
+    /**
+     * Take the next posted semaphore off the {@link #posted} queue, waiting if there's none.
+     *
+     * @return The semaphore posted.
+     * @exception InterruptedException if the thread has been interrupted.
+     */
+    private EventSemaphore take() throws InterruptedException {
+
+        SemaphoreStatistics statistics = getStatistics();
+
+        if (statistics == null) {
+            return posted.waitObject();
+        }
+
+        long start = statistics.block();
+
+        try {
+            return posted.waitObject();
+        } finally {
+            statistics.unblock(start);
+        }
+    }
+
     /**
      * @return number of the semaphores in the group.
      */
@@ -0,0 +1,147 @@
+package com.homeclimatecontrol.jukebox.sem;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.homeclimatecontrol.jukebox.util.Histogram;
+
+/**
+ * Wait and post statistics for all the semaphores sharing the same {@link Semaphore#getName() name}.
+ *
+ * Collected only while {@link SemaphoreDiagnostics#isEnabled() diagnostics are enabled}. Recording takes no locks.
+ *
+ * @author Copyright &copy; <a href="mailto:vt@homeclimatecontrol.com">Vadim Tkachenko</a> 2026
+ */
+public final class SemaphoreStatistics {
+
+    private final String name;
+
+    private final LongAdder waits = new LongAdder();
+    private final LongAdder posts = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final AtomicInteger waiters = new AtomicInteger();
+    private final AtomicInteger maxWaiters = new AtomicInteger();
+    private final Histogram blocked = new Histogram();
+
+    SemaphoreStatistics(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Count a wait request, whether it blocks or not.
+     */
+    void countWait() {
+        waits.increment();
+    }
+
+    /**
+     * Count a post (or a release, for a mutex).
+     */
+    void countPost() {
+        posts.increment();
+    }
+
+    /**
+     * Note that a thread is about to block.
+     *
+     * @return Value to pass to {@link #unblock(long)}.
+     */
+    long block() {
+
+        int current = waiters.incrementAndGet();
+        int max = maxWaiters.get();
+
+        while (current > max && !maxWaiters.compareAndSet(max, current)) {
+            max = maxWaiters.get();
+        }
+
+        return System.nanoTime();
+    }
+
+    /**
+     * Note that a thread has stopped blocking.
+     *
+     * @param start Value returned by {@link #block()}.
+     */
+    void unblock(long start) {
+
+        blocked.record(System.nanoTime() - start);
+        waiters.decrementAndGet();
+    }
+
+    /**
+     * Count a wait that has timed out.
+     */
+    void countTimeout() {
+        timeouts.increment();
+    }
+
+    void reset() {
+
+        waits.reset();
+        posts.reset();
+        timeouts.reset();
+        maxWaiters.set(waiters.get());
+        blocked.reset();
+    }
+
+    /**
+     * @return Semaphore name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return Number of wait requests, including the ones that didn't have to block.
+     */
+    public long getWaits() {
+        return waits.sum();
+    }
+
+    /**
+     * @return Number of posts.
+     */
+    public long getPosts() {
+        return posts.sum();
+    }
+
+    /**
+     * @return Number of waits that timed out.
+     */
+    public long getTimeouts() {
+        return timeouts.sum();
+    }
+
+    /**
+     * @return Number of threads blocked right now.
+     */
+    public int getWaiters() {
+        return waiters.get();
+    }
+
+    /**
+     * @return Maximum number of threads blocked at the same time.
+     */
+    public int getMaxWaiters() {
+        return maxWaiters.get();
+    }
+
+    /**
+     * @return Time spent blocked, per wait that did block, in nanoseconds.
+     */
+    public Histogram getBlocked() {
+        return blocked;
+    }
+
+    @Override
+    public String toString() {
+
+        return name
+                + ": waits=" + getWaits()
+                + " posts=" + getPosts()
+                + " timeouts=" + getTimeouts()
+                + " maxWaiters=" + getMaxWaiters()
+                + " blocked(us) " + blocked.toString(1000);
+    }
+}
@@ -0,0 +1,53 @@
+package com.homeclimatecontrol.jukebox.sem;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Period;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Periodic Flight Recorder snapshot of the {@link SemaphoreStatistics statistics} for a single semaphore name.
+ *
+ * Emitted only while {@link SemaphoreDiagnostics diagnostics are enabled}; the counters are cumulative since they
+ * were enabled.
+ *
+ * @author Copyright &copy; <a href="mailto:vt@homeclimatecontrol.com">Vadim Tkachenko</a> 2026
+ */
+@Name("com.homeclimatecontrol.jukebox.sem.SemaphoreStatistics")
+@Label("Semaphore Statistics")
+@Category({ "Jukebox", "Semaphore" })
+@Description("Wait and post counts, and blocked time distribution, per semaphore name")
+@Period("10 s")
+@StackTrace(false)
+final class SemaphoreStatisticsEvent extends jdk.jfr.Event {
+
+    @Label("Semaphore")
+    String semaphore;
+
+    @Label("Waits")
+    long waits;
+
+    @Label("Posts")
+    long posts;
+
+    @Label("Timeouts")
+    long timeouts;
+
+    @Label("Max Waiters")
+    int maxWaiters;
+
+    @Label("Blocked, Median")
+    @Timespan(Timespan.NANOSECONDS)
+    long blockedP50;
+
+    @Label("Blocked, 99th Percentile")
+    @Timespan(Timespan.NANOSECONDS)
+    long blockedP99;
+
+    @Label("Blocked, Max")
+    @Timespan(Timespan.NANOSECONDS)
+    long blockedMax;
+}
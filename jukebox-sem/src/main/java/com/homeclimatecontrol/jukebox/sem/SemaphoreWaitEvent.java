@@ -0,0 +1,49 @@
+package com.homeclimatecontrol.jukebox.sem;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Flight Recorder event for an {@link EventSemaphore} wait that had to block.
+ *
+ * Only the waits longer than the threshold, 10ms by default, are recorded.
+ *
+ * @author Copyright &copy; <a href="mailto:vt@homeclimatecontrol.com">Vadim Tkachenko</a> 2026
+ */
+@Name("com.homeclimatecontrol.jukebox.sem.Wait")
+@Label("Semaphore Wait")
+@Category({ "Jukebox", "Semaphore" })
+@Description("Blocking wait for an event semaphore")
+@Threshold("10 ms")
+@StackTrace(false)
+final class SemaphoreWaitEvent extends jdk.jfr.Event {
+
+    @Label("Semaphore")
+    String semaphore;
+
+    @Label("Timed Out")
+    boolean timedOut;
+
+    /**
+     * End the event once the wait is over. The wait is only recorded if it blocked for longer than the threshold.
+     *
+     * @param semaphore Semaphore name.
+     * @param timedOut {@code true} if the wait ended with a timeout rather than a post.
+     */
+    void finish(String semaphore, boolean timedOut) {
+
+        end();
+
+        if (shouldCommit()) {
+
+            this.semaphore = semaphore;
+            this.timedOut = timedOut;
+
+            commit();
+        }
+    }
+}
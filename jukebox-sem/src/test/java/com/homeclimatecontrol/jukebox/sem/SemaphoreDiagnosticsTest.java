@@ -0,0 +1,127 @@
+package com.homeclimatecontrol.jukebox.sem;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * @author Copyright &copy; <a href="mailto:vt@homeclimatecontrol.com">Vadim Tkachenko</a> 2026
+ */
+class SemaphoreDiagnosticsTest {
+
+    private final SemaphoreDiagnostics diagnostics = SemaphoreDiagnostics.getInstance();
+
+    @AfterEach
+    void tearDown() {
+        diagnostics.setEnabled(false);
+    }
+
+    @Test
+    void testDisabled() throws InterruptedException {
+
+        EventSemaphore sem = new EventSemaphore("diagnostics-disabled");
+
+        sem.post();
+        sem.waitFor();
+
+        assertThat(diagnostics.getStatistics().containsKey("diagnostics-disabled")).isFalse();
+    }
+
+    @Test
+    void testEventSemaphore() throws InterruptedException {
+
+        diagnostics.setEnabled(true);
+
+        EventSemaphore sem = new EventSemaphore("diagnostics-event");
+
+        // Doesn't block
+        sem.post();
+        sem.waitFor();
+
+        SemaphoreStatistics statistics = diagnostics.getStatistics().get("diagnostics-event");
+
+        // Blocks, the poster only posts once the waiter is known to be blocked
+        AtomicBoolean blocked = new AtomicBoolean();
+        Thread poster = new Thread(() -> {
+
+            long deadline = System.currentTimeMillis() + 10_000;
+
+            try {
+
+                while (statistics.getWaiters() != 1 && System.currentTimeMillis() < deadline) {
+                    Thread.sleep(1);
+                }
+
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+
+            blocked.set(statistics.getWaiters() == 1);
+            sem.post();
+        });
+
+        poster.start();
+        sem.waitFor();
+        poster.join();
+
+        assertThat(blocked.get()).isTrue();
+
+        // Times out
+        try {
+            sem.waitFor(10);
+            fail("Should've timed out");
+        } catch (SemaphoreTimeoutException ex) {
+            // Expected
+        }
+
+        assertThat(statistics.getWaits()).isEqualTo(3);
+        assertThat(statistics.getPosts()).isEqualTo(2);
+        assertThat(statistics.getTimeouts()).isEqualTo(1);
+        assertThat(statistics.getMaxWaiters()).isEqualTo(1);
+        assertThat(statistics.getWaiters()).isZero();
+        assertThat(statistics.getBlocked().getCount()).isEqualTo(2);
+        assertThat(statistics.getBlocked().getMax()).isGreaterThanOrEqualTo(10_000_000L);
+
+        assertThat(Arrays.stream(diagnostics.getSemaphores()).anyMatch(line -> line.startsWith("diagnostics-event: waits=3 posts=2 timeouts=1"))).isTrue();
+
+        diagnostics.reset();
+
+        assertThat(statistics.getWaits()).isZero();
+    }
+
+    @Test
+    void testMutex() throws InterruptedException {
+
+        diagnostics.setEnabled(true);
+
+        MutexSemaphore mutex = new MutexSemaphore("diagnostics-mutex");
+
+        mutex.waitFor();
+
+        Thread contender = new Thread(() -> {
+
+            try {
+                mutex.waitFor(10);
+            } catch (SemaphoreTimeoutException ex) {
+                // Expected
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        contender.start();
+        contender.join();
+        mutex.release();
+
+        SemaphoreStatistics statistics = diagnostics.getStatistics().get("diagnostics-mutex");
+
+        assertThat(statistics.getWaits()).isEqualTo(2);
+        assertThat(statistics.getPosts()).isEqualTo(1);
+        assertThat(statistics.getTimeouts()).isEqualTo(1);
+    }
+}
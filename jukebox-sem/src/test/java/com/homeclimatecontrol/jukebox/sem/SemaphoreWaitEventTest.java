@@ -0,0 +1,62 @@
+package com.homeclimatecontrol.jukebox.sem;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * @author Copyright &copy; <a href="mailto:vt@homeclimatecontrol.com">Vadim Tkachenko</a> 2026
+ */
+class SemaphoreWaitEventTest {
+
+    private static final String EVENT = "com.homeclimatecontrol.jukebox.sem.Wait";
+
+    @Test
+    void testTimeout(@TempDir Path dir) throws IOException, InterruptedException {
+
+        EventSemaphore fast = new EventSemaphore("jfr-fast");
+        EventSemaphore slow = new EventSemaphore("jfr-slow");
+
+        try (Recording recording = new Recording()) {
+
+            recording.enable(EVENT).withThreshold(Duration.ofMillis(10));
+            recording.start();
+
+            // Doesn't block, not recorded
+            fast.post();
+            fast.waitFor();
+
+            try {
+                slow.waitFor(50);
+                fail("Should've timed out");
+            } catch (SemaphoreTimeoutException ex) {
+                // Expected
+            }
+
+            recording.stop();
+
+            Path file = dir.resolve("recording.jfr");
+
+            recording.dump(file);
+
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                    .filter(e -> EVENT.equals(e.getEventType().getName()))
+                    .collect(Collectors.toList());
+
+            assertThat(events).hasSize(1);
+            assertThat(events.get(0).getString("semaphore")).isEqualTo("jfr-slow");
+            assertThat(events.get(0).getBoolean("timedOut")).isTrue();
+        }
+    }
+}
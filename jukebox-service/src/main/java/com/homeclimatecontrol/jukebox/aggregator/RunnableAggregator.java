@@ -198,11 +198,18 @@ public class RunnableAggregator {
                 + '@' + Integer.toHexString(Thread.currentThread().hashCode())
                 + ',' + Integer.toHexString(hashCode()));
         
+            TaskEvent event = new TaskEvent();
+
+            event.begin();
+
             try {
 
                 worker.run();
+                event.finish(worker, true);
                 
             } catch (Throwable t) {
+
+                event.finish(worker, false);
                 
                 if (errors == null) {
                     
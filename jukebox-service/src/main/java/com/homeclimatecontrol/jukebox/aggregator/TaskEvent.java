@@ -0,0 +1,46 @@
+package com.homeclimatecontrol.jukebox.aggregator;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for a single task run by the {@link RunnableAggregator}.
+ *
+ * @author Copyright &copy; <a href="mailto:vt@homeclimatecontrol.com">Vadim Tkachenko</a> 2026
+ */
+@Name("com.homeclimatecontrol.jukebox.aggregator.Task")
+@Label("Aggregator Task")
+@Category({ "Jukebox", "Aggregator" })
+@Description("Task run by RunnableAggregator")
+@StackTrace(false)
+final class TaskEvent extends jdk.jfr.Event {
+
+    @Label("Task")
+    String task;
+
+    @Label("Success")
+    boolean success;
+
+    /**
+     * End the event once the task has finished, and record it if the event is enabled. There's no threshold, every
+     * task is recorded.
+     *
+     * @param worker Task that has been run.
+     * @param success {@code false} if the task has thrown an exception.
+     */
+    void finish(Runnable worker, boolean success) {
+
+        end();
+
+        if (shouldCommit()) {
+
+            this.task = worker.getClass().getName();
+            this.success = success;
+
+            commit();
+        }
+    }
+}
@@ -80,6 +80,11 @@ public abstract class ActiveService extends PassiveService {
             super(target);
         }
 
+        @Override
+        String getPhase() {
+            return "execute";
+        }
+
         @Override
         protected void call() throws Throwable {
 
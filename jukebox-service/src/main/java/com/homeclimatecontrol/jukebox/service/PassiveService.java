@@ -401,6 +401,13 @@ public abstract class PassiveService extends LogAware implements Service, Passiv
          * @param status {@link #call()} result is passed here.
          */
         abstract void setFlags(boolean status);
+
+        /**
+         * @return Lifecycle phase this wrapper is responsible for, for diagnostics.
+         */
+        String getPhase() {
+            return getClass().getSimpleName();
+        }
     }
 
     /**
@@ -419,6 +426,11 @@ public abstract class PassiveService extends LogAware implements Service, Passiv
             super(target);
         }
 
+        @Override
+        String getPhase() {
+            return "startup";
+        }
+
         /**
          * Execute the startup sequence for the target service.
          * <ol>
@@ -498,6 +510,11 @@ public abstract class PassiveService extends LogAware implements Service, Passiv
             super(target);
         }
 
+        @Override
+        String getPhase() {
+            return "shutdown";
+        }
+
         /**
          * Execute the shutdown sequence for the target service.
          * <ol>
@@ -702,11 +719,17 @@ public abstract class PassiveService extends LogAware implements Service, Passiv
     /**
      * Wrap the method.
      *
+     * The call is recorded as a {@link ServiceLifecycleEvent Flight Recorder event}.
+     *
      * @param target MethodWrapper to wrap.
      * @param sem Semaphore to trigger
      */
     protected void wrap(MethodWrapper target, EventSemaphore sem) {
 
+        ServiceLifecycleEvent event = new ServiceLifecycleEvent();
+
+        event.begin();
+
         try {
 
             target.call();
@@ -715,6 +738,7 @@ public abstract class PassiveService extends LogAware implements Service, Passiv
 
         } catch (InterruptedException iex) {
 
+            event.finish(this, target.getPhase(), false);
             logger.info("startup interrupted: ", iex);
 
             target.setFlags(false);
@@ -725,6 +749,7 @@ public abstract class PassiveService extends LogAware implements Service, Passiv
 
         } catch (Throwable t) {
 
+            event.finish(this, target.getPhase(), false);
             logger.error("Uncaught exception: ", t);
             core = null;
             target.setFlags(false);
@@ -733,6 +758,8 @@ public abstract class PassiveService extends LogAware implements Service, Passiv
             return;
         }
 
+        event.finish(this, target.getPhase(), true);
+
         core = null;
         target.setFlags(true);
         // logger.debug(CH_SERVICE, "trigger: " + sem.toString() + " " +
@@ -0,0 +1,52 @@
+package com.homeclimatecontrol.jukebox.service;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for a {@link PassiveService} lifecycle phase: startup, execute (for an
+ * {@link ActiveService}) or shutdown.
+ *
+ * @author Copyright &copy; <a href="mailto:vt@homeclimatecontrol.com">Vadim Tkachenko</a> 2026
+ */
+@Name("com.homeclimatecontrol.jukebox.service.Lifecycle")
+@Label("Service Lifecycle")
+@Category({ "Jukebox", "Service" })
+@Description("Service startup, execute or shutdown")
+@StackTrace(false)
+final class ServiceLifecycleEvent extends jdk.jfr.Event {
+
+    @Label("Service")
+    String service;
+
+    @Label("Phase")
+    String phase;
+
+    @Label("Success")
+    boolean success;
+
+    /**
+     * End the event once the phase is over, and record it if the event is enabled. There's no threshold, every
+     * startup, execute and shutdown is recorded however fast it was.
+     *
+     * @param target Service the phase was run for.
+     * @param phase Phase name.
+     * @param success {@code false} if the phase has failed.
+     */
+    void finish(Object target, String phase, boolean success) {
+
+        end();
+
+        if (shouldCommit()) {
+
+            this.service = target.getClass().getName();
+            this.phase = phase;
+            this.success = success;
+
+            commit();
+        }
+    }
+}